@@ -0,0 +1,93 @@
+package com.example.warehouse_inventory.archive;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.warehouse_inventory.dto.StockMovementResponse;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Directory of archived movement segments, one per archived partition. Disabled
+ * when {@code inventory.movements.archive.directory} is empty, in which case the
+ * partition maintainer keeps archiving into MySQL tables instead.
+ */
+@Slf4j
+@Component
+public class MovementArchive {
+    private final Path directory;
+    private volatile List<MovementSegmentReader> segments;
+
+    public MovementArchive(@Value("${inventory.movements.archive.directory:}") String directory) {
+        this.directory = directory == null || directory.isBlank() ? null : Path.of(directory);
+    }
+
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    /**
+     * Opens a writer for {@code <name>.seg}. Call {@link MovementSegmentWriter#finish()}
+     * and then {@link #refresh()} to make the segment visible.
+     */
+    public MovementSegmentWriter newSegment(String name) throws IOException {
+        Files.createDirectories(directory);
+        return new MovementSegmentWriter(directory.resolve(name + MovementSegmentFormat.EXTENSION));
+    }
+
+    /**
+     * Reopens every segment in the directory. A file that cannot be opened, for
+     * example a truncated copy, is logged and left out, so the other months stay
+     * readable.
+     */
+    public synchronized void refresh() {
+        if (!isEnabled() || !Files.isDirectory(directory)) {
+            segments = List.of();
+            return;
+        }
+        List<MovementSegmentReader> opened = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(path -> path.toString().endsWith(MovementSegmentFormat.EXTENSION))
+                    .toList()) {
+                try {
+                    opened.add(MovementSegmentReader.open(file));
+                } catch (IOException | RuntimeException ex) {
+                    log.warn("Skipping unreadable movement segment {}", file, ex);
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        opened.sort(Comparator.comparing(MovementSegmentReader::minCreated));
+        segments = List.copyOf(opened);
+    }
+
+    /**
+     * Archived movements of one variant with {@code from <= created_at < to},
+     * oldest first. Segments outside the range are skipped without being read.
+     */
+    public List<StockMovementResponse> history(long variantId, Instant from, Instant to) {
+        List<MovementSegmentReader> current = segments;
+        if (current == null) {
+            refresh();
+            current = segments;
+        }
+        List<StockMovementResponse> movements = new ArrayList<>();
+        for (MovementSegmentReader segment : current) {
+            if (segment.overlaps(from, to)) {
+                movements.addAll(segment.read(variantId, from, to));
+            }
+        }
+        return movements;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.warehouse_inventory.archive;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Layout of an archived stock movement segment ({@code *.seg}). An archived
+ * partition is one file, or several when it would exceed {@link #MAX_FILE_BYTES};
+ * each file is self-contained. All multi-byte fixed-width values are big-endian.
+ *
+ * <pre>
+ * header      64 bytes, see the offsets below
+ * blocks      one block per variant, in variant id order; each block stores its
+ *             rows (sorted by created_at, id) column by column:
+ *               ids         first id as varint, then zigzag varint deltas
+ *               created_at  first epoch second as varint, then varint deltas
+ *               change_qty  zigzag varints
+ *               type        one byte per row, index into the type dictionary
+ *               reference   varint per row, reference dictionary index + 1 (0 = null)
+ * types       count byte, then length-prefixed UTF-8 names
+ * references  count int, (count + 1) int offsets relative to the end of the
+ *             offset table, then the concatenated UTF-8 bytes
+ * index       variantCount entries of (variant id long, row count int,
+ *             block offset long), sorted by variant id for binary search
+ * </pre>
+ */
+final class MovementSegmentFormat {
+    static final int MAGIC = 0x534D5631; // "SMV1"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    static final int INDEX_ENTRY_SIZE = Long.BYTES + Integer.BYTES + Long.BYTES;
+    static final String EXTENSION = ".seg";
+    /**
+     * Files are split below this size so each one can be mapped as a single
+     * {@code MappedByteBuffer}, which is limited to {@code Integer.MAX_VALUE} bytes.
+     */
+    static final long MAX_FILE_BYTES = 1L << 30;
+
+    static final int OFFSET_MAGIC = 0;
+    static final int OFFSET_VERSION = 4;
+    static final int OFFSET_ROW_COUNT = 8;
+    static final int OFFSET_MIN_CREATED = 16;
+    static final int OFFSET_MAX_CREATED = 24;
+    static final int OFFSET_VARIANT_COUNT = 32;
+    static final int OFFSET_REFERENCE_COUNT = 36;
+    static final int OFFSET_INDEX = 40;
+    static final int OFFSET_REFERENCES = 48;
+    static final int OFFSET_TYPES = 56;
+
+    private MovementSegmentFormat() {
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.warehouse_inventory.archive;
+
+import com.example.warehouse_inventory.dto.StockMovementResponse;
+import com.example.warehouse_inventory.entity.StockMovementType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-only view of one segment file, memory-mapped with {@link FileChannel#map}.
+ * A lookup binary-searches the variant index and decodes only that variant's
+ * block, so the OS only pages in the index and the touched block. Safe for
+ * concurrent use: every read works on its own duplicate of the mapping.
+ */
+public final class MovementSegmentReader {
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final long rowCount;
+    private final Instant minCreated;
+    private final Instant maxCreated;
+    private final int variantCount;
+    private final int indexOffset;
+    private final int referenceCount;
+    private final int referencesOffset;
+    private final StockMovementType[] types;
+
+    private MovementSegmentReader(Path path, MappedByteBuffer buffer) {
+        this.path = path;
+        this.buffer = buffer;
+        if (buffer.getInt(MovementSegmentFormat.OFFSET_MAGIC) != MovementSegmentFormat.MAGIC
+                || buffer.getInt(MovementSegmentFormat.OFFSET_VERSION) != MovementSegmentFormat.VERSION) {
+            throw new IllegalStateException("Not a movement segment: " + path);
+        }
+        this.rowCount = buffer.getLong(MovementSegmentFormat.OFFSET_ROW_COUNT);
+        this.minCreated = Instant.ofEpochSecond(buffer.getLong(MovementSegmentFormat.OFFSET_MIN_CREATED));
+        this.maxCreated = Instant.ofEpochSecond(buffer.getLong(MovementSegmentFormat.OFFSET_MAX_CREATED));
+        this.variantCount = buffer.getInt(MovementSegmentFormat.OFFSET_VARIANT_COUNT);
+        this.referenceCount = buffer.getInt(MovementSegmentFormat.OFFSET_REFERENCE_COUNT);
+        this.indexOffset = (int) buffer.getLong(MovementSegmentFormat.OFFSET_INDEX);
+        this.referencesOffset = (int) buffer.getLong(MovementSegmentFormat.OFFSET_REFERENCES);
+
+        ByteBuffer view = buffer.duplicate();
+        view.position((int) buffer.getLong(MovementSegmentFormat.OFFSET_TYPES));
+        this.types = new StockMovementType[view.get() & 0xFF];
+        for (int i = 0; i < types.length; i++) {
+            byte[] name = new byte[view.get() & 0xFF];
+            view.get(name);
+            types[i] = StockMovementType.valueOf(new String(name, StandardCharsets.UTF_8));
+        }
+    }
+
+    public static MovementSegmentReader open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Segment larger than 2 GB: " + path);
+            }
+            return new MovementSegmentReader(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    public long rowCount() {
+        return rowCount;
+    }
+
+    public Instant minCreated() {
+        return minCreated;
+    }
+
+    public Instant maxCreated() {
+        return maxCreated;
+    }
+
+    public boolean overlaps(Instant from, Instant to) {
+        return rowCount > 0
+                && (from == null || !maxCreated.isBefore(from))
+                && (to == null || minCreated.isBefore(to));
+    }
+
+    /**
+     * Movements of one variant with {@code from <= created_at < to}, ordered by
+     * created_at and id. Either bound may be {@code null}.
+     */
+    public List<StockMovementResponse> read(long variantId, Instant from, Instant to) {
+        int entry = findEntry(variantId);
+        if (entry < 0) {
+            return List.of();
+        }
+        int entryOffset = indexOffset + entry * MovementSegmentFormat.INDEX_ENTRY_SIZE;
+        int rows = buffer.getInt(entryOffset + Long.BYTES);
+        ByteBuffer view = buffer.duplicate();
+        view.position((int) buffer.getLong(entryOffset + Long.BYTES + Integer.BYTES));
+
+        long[] ids = new long[rows];
+        long previous = 0;
+        for (int i = 0; i < rows; i++) {
+            long value = MovementSegmentFormat.readVarLong(view);
+            previous = i == 0 ? value : previous + MovementSegmentFormat.unzigzag(value);
+            ids[i] = previous;
+        }
+        long[] createdAt = new long[rows];
+        previous = 0;
+        for (int i = 0; i < rows; i++) {
+            previous += MovementSegmentFormat.readVarLong(view);
+            createdAt[i] = previous;
+        }
+        long fromSecond = from == null ? Long.MIN_VALUE : from.getEpochSecond();
+        long toSecond = to == null ? Long.MAX_VALUE : to.getEpochSecond();
+        int first = 0;
+        while (first < rows && createdAt[first] < fromSecond) {
+            first++;
+        }
+        int last = first;
+        while (last < rows && createdAt[last] < toSecond) {
+            last++;
+        }
+        if (first == last) {
+            return List.of();
+        }
+
+        int[] changeQty = new int[rows];
+        for (int i = 0; i < rows; i++) {
+            changeQty[i] = (int) MovementSegmentFormat.unzigzag(MovementSegmentFormat.readVarLong(view));
+        }
+        int typesStart = view.position();
+        view.position(typesStart + rows);
+        List<StockMovementResponse> movements = new ArrayList<>(last - first);
+        for (int i = 0; i < last; i++) {
+            long reference = MovementSegmentFormat.readVarLong(view);
+            if (i < first) {
+                continue;
+            }
+            movements.add(new StockMovementResponse(
+                    ids[i],
+                    variantId,
+                    null,
+                    null,
+                    changeQty[i],
+                    types[buffer.get(typesStart + i)],
+                    reference == 0 ? null : reference((int) reference - 1),
+                    Instant.ofEpochSecond(createdAt[i])));
+        }
+        return movements;
+    }
+
+    private int findEntry(long variantId) {
+        int low = 0;
+        int high = variantCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = buffer.getLong(indexOffset + mid * MovementSegmentFormat.INDEX_ENTRY_SIZE);
+            if (midId < variantId) {
+                low = mid + 1;
+            } else if (midId > variantId) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private String reference(int index) {
+        if (index < 0 || index >= referenceCount) {
+            return null;
+        }
+        int table = referencesOffset + Integer.BYTES;
+        int bytesStart = table + Integer.BYTES * (referenceCount + 1);
+        int start = buffer.getInt(table + index * Integer.BYTES);
+        int end = buffer.getInt(table + (index + 1) * Integer.BYTES);
+        byte[] bytes = new byte[end - start];
+        buffer.get(bytesStart + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
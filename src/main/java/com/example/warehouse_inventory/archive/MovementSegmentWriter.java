@@ -0,0 +1,293 @@
+package com.example.warehouse_inventory.archive;
+
+import com.example.warehouse_inventory.dto.StockMovementResponse;
+import com.example.warehouse_inventory.entity.StockMovementType;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes one archived partition as segment files (see {@link MovementSegmentFormat}).
+ * Rows must be appended ordered by variant id, created_at and id; only one
+ * variant's rows are held in memory at a time. A file is closed and the next part
+ * ({@code <name>.1.seg}, {@code <name>.2.seg}, ...) started before it would grow
+ * past {@code maxFileBytes}, so every file stays small enough to map in one
+ * region. Parts are written under temporary names and all moved into place by
+ * {@link #finish()}, so readers never see a partial archive.
+ */
+public final class MovementSegmentWriter implements Closeable {
+    private static final StockMovementType[] TYPES = StockMovementType.values();
+    private static final int TYPES_BYTES = 1 + Arrays.stream(TYPES)
+            .mapToInt(type -> 1 + type.name().getBytes(StandardCharsets.UTF_8).length)
+            .sum();
+
+    private final Path target;
+    private final long maxFileBytes;
+    private final List<Path> writtenParts = new ArrayList<>();
+    private final Map<String, Integer> referenceIds = new HashMap<>();
+    private final List<String> references = new ArrayList<>();
+    private final ByteArrayOutputStream indexBytes = new ByteArrayOutputStream();
+    private final List<StockMovementResponse> block = new ArrayList<>();
+    private Path temp;
+    private FileChannel channel;
+    private DataOutputStream out;
+    private long position;
+    private long referenceBytes;
+    private long rowCount;
+    private int variantCount;
+    private long minCreated;
+    private long maxCreated;
+    private boolean finished;
+
+    MovementSegmentWriter(Path target) throws IOException {
+        this(target, MovementSegmentFormat.MAX_FILE_BYTES);
+    }
+
+    MovementSegmentWriter(Path target, long maxFileBytes) throws IOException {
+        this.target = target;
+        this.maxFileBytes = Math.min(maxFileBytes, MovementSegmentFormat.MAX_FILE_BYTES);
+        openPart();
+    }
+
+    public void append(StockMovementResponse row) {
+        if (finished) {
+            throw new IllegalStateException("Segment already finished");
+        }
+        if (!block.isEmpty()) {
+            StockMovementResponse last = block.get(block.size() - 1);
+            int order = Long.compare(row.variantId(), last.variantId());
+            if (order < 0) {
+                throw new IllegalStateException("Rows must be ordered by variant id");
+            }
+            if (order > 0) {
+                flushBlock();
+            }
+        }
+        block.add(row);
+    }
+
+    /**
+     * Completes the last part, then moves every part to its final name.
+     */
+    public void finish() throws IOException {
+        flushBlock();
+        finished = true;
+        finishPart();
+        for (int part = 0; part < writtenParts.size(); part++) {
+            Files.move(writtenParts.get(part), partPath(part), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        }
+        writtenParts.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel.isOpen()) {
+            channel.close();
+        }
+        Files.deleteIfExists(temp);
+        for (Path part : writtenParts) {
+            Files.deleteIfExists(part);
+        }
+    }
+
+    private Path partPath(int part) {
+        if (part == 0) {
+            return target;
+        }
+        String name = target.getFileName().toString();
+        String base = name.substring(0, name.length() - MovementSegmentFormat.EXTENSION.length());
+        return target.resolveSibling(base + "." + part + MovementSegmentFormat.EXTENSION);
+    }
+
+    private void openPart() throws IOException {
+        Path part = partPath(writtenParts.size());
+        temp = part.resolveSibling(part.getFileName() + ".tmp");
+        channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        channel.position(MovementSegmentFormat.HEADER_SIZE);
+        out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+        referenceIds.clear();
+        references.clear();
+        indexBytes.reset();
+        position = MovementSegmentFormat.HEADER_SIZE;
+        referenceBytes = 0;
+        rowCount = 0;
+        variantCount = 0;
+        minCreated = Long.MAX_VALUE;
+        maxCreated = Long.MIN_VALUE;
+    }
+
+    /**
+     * Writes the dictionaries, the variant index and the header of the current
+     * part and syncs it; it keeps its temporary name until {@link #finish()}.
+     */
+    private void finishPart() throws IOException {
+        long typesOffset = position;
+        out.writeByte(TYPES.length);
+        position++;
+        for (StockMovementType type : TYPES) {
+            position += writeString(out, type.name());
+        }
+
+        long referencesOffset = position;
+        out.writeInt(references.size());
+        int offset = 0;
+        out.writeInt(offset);
+        List<byte[]> encoded = new ArrayList<>(references.size());
+        for (String reference : references) {
+            byte[] bytes = reference.getBytes(StandardCharsets.UTF_8);
+            encoded.add(bytes);
+            offset += bytes.length;
+            out.writeInt(offset);
+        }
+        for (byte[] bytes : encoded) {
+            out.write(bytes);
+        }
+        position += Integer.BYTES * (references.size() + 2L) + offset;
+
+        long indexOffset = position;
+        indexBytes.writeTo(out);
+        position += indexBytes.size();
+        out.flush();
+
+        ByteBuffer header = ByteBuffer.allocate(MovementSegmentFormat.HEADER_SIZE);
+        header.putInt(MovementSegmentFormat.OFFSET_MAGIC, MovementSegmentFormat.MAGIC);
+        header.putInt(MovementSegmentFormat.OFFSET_VERSION, MovementSegmentFormat.VERSION);
+        header.putLong(MovementSegmentFormat.OFFSET_ROW_COUNT, rowCount);
+        header.putLong(MovementSegmentFormat.OFFSET_MIN_CREATED, rowCount == 0 ? 0 : minCreated);
+        header.putLong(MovementSegmentFormat.OFFSET_MAX_CREATED, rowCount == 0 ? 0 : maxCreated);
+        header.putInt(MovementSegmentFormat.OFFSET_VARIANT_COUNT, variantCount);
+        header.putInt(MovementSegmentFormat.OFFSET_REFERENCE_COUNT, references.size());
+        header.putLong(MovementSegmentFormat.OFFSET_INDEX, indexOffset);
+        header.putLong(MovementSegmentFormat.OFFSET_REFERENCES, referencesOffset);
+        header.putLong(MovementSegmentFormat.OFFSET_TYPES, typesOffset);
+        channel.write(header, 0);
+        channel.force(true);
+        channel.close();
+        writtenParts.add(temp);
+    }
+
+    private void flushBlock() {
+        if (block.isEmpty()) {
+            return;
+        }
+        block.sort((a, b) -> {
+            int order = a.createdAt().compareTo(b.createdAt());
+            return order != 0 ? order : Long.compare(a.id(), b.id());
+        });
+        int knownReferences = references.size();
+        long knownReferenceBytes = referenceBytes;
+        ByteArrayOutputStream bytes = encodeBlock();
+        if (variantCount > 0 && sizeWith(bytes.size()) > maxFileBytes) {
+            for (String added : references.subList(knownReferences, references.size())) {
+                referenceIds.remove(added);
+            }
+            references.subList(knownReferences, references.size()).clear();
+            referenceBytes = knownReferenceBytes;
+            try {
+                finishPart();
+                openPart();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            bytes = encodeBlock();
+        }
+        if (sizeWith(bytes.size()) > maxFileBytes) {
+            throw new IllegalStateException("Movements of variant " + block.get(0).variantId()
+                    + " do not fit in one segment file");
+        }
+
+        ByteBuffer entry = ByteBuffer.allocate(MovementSegmentFormat.INDEX_ENTRY_SIZE);
+        entry.putLong(block.get(0).variantId()).putInt(block.size()).putLong(position);
+        indexBytes.writeBytes(entry.array());
+        try {
+            bytes.writeTo(out);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        position += bytes.size();
+        rowCount += block.size();
+        variantCount++;
+        minCreated = Math.min(minCreated, block.get(0).createdAt().getEpochSecond());
+        maxCreated = Math.max(maxCreated, block.get(block.size() - 1).createdAt().getEpochSecond());
+        block.clear();
+    }
+
+    private ByteArrayOutputStream encodeBlock() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(block.size() * 8);
+        long previous = 0;
+        for (int i = 0; i < block.size(); i++) {
+            long id = block.get(i).id();
+            writeVarLong(bytes, i == 0 ? id : MovementSegmentFormat.zigzag(id - previous));
+            previous = id;
+        }
+        previous = 0;
+        for (StockMovementResponse row : block) {
+            long createdAt = row.createdAt().getEpochSecond();
+            writeVarLong(bytes, createdAt - previous);
+            previous = createdAt;
+        }
+        for (StockMovementResponse row : block) {
+            writeVarLong(bytes, MovementSegmentFormat.zigzag(row.changeQty()));
+        }
+        for (StockMovementResponse row : block) {
+            bytes.write(row.movementType().ordinal());
+        }
+        for (StockMovementResponse row : block) {
+            writeVarLong(bytes, row.referenceId() == null ? 0 : referenceId(row.referenceId()) + 1L);
+        }
+        return bytes;
+    }
+
+    /**
+     * Size of the current part once a block of {@code blockBytes} and its index
+     * entry are added and the trailing sections are written.
+     */
+    private long sizeWith(int blockBytes) {
+        long referenceTable = Integer.BYTES * (references.size() + 2L) + referenceBytes;
+        long index = indexBytes.size() + MovementSegmentFormat.INDEX_ENTRY_SIZE;
+        return position + blockBytes + TYPES_BYTES + referenceTable + index;
+    }
+
+    private int referenceId(String reference) {
+        return referenceIds.computeIfAbsent(reference, key -> {
+            references.add(key);
+            referenceBytes += key.getBytes(StandardCharsets.UTF_8).length;
+            return references.size() - 1;
+        });
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static int writeString(OutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.write(bytes.length);
+        out.write(bytes);
+        return 1 + bytes.length;
+    }
+}
@@ -3,45 +3,142 @@ package com.example.warehouse_inventory.controller;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.warehouse_inventory.dto.BulkStockMovementResponse;
+import com.example.warehouse_inventory.dto.ReconciliationStatusResponse;
 import com.example.warehouse_inventory.dto.StockAdjustRequest;
 import com.example.warehouse_inventory.dto.StockInRequest;
+import com.example.warehouse_inventory.dto.StockMovementLineRequest;
 import com.example.warehouse_inventory.dto.StockMovementResponse;
 import com.example.warehouse_inventory.dto.StockOutRequest;
+import com.example.warehouse_inventory.exception.NotFoundException;
 import com.example.warehouse_inventory.response.ApiResponse;
 import com.example.warehouse_inventory.response.ApiStatus;
+import com.example.warehouse_inventory.serialization.NdjsonReader;
+import com.example.warehouse_inventory.service.BulkStockMovementService;
+import com.example.warehouse_inventory.service.IdempotencyService;
 import com.example.warehouse_inventory.service.InventoryService;
+import com.example.warehouse_inventory.service.StockReconciliationService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.io.IOException;
+import java.util.List;
 
 @RequestMapping("/inventory")
 @RestController
 @RequiredArgsConstructor
 public class InventoryController {
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     private final InventoryService inventoryService;
+    private final BulkStockMovementService bulkStockMovementService;
+    private final StockReconciliationService stockReconciliationService;
+    private final IdempotencyService idempotencyService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/in")
-    public ResponseEntity<ApiResponse<StockMovementResponse>> stockIn(@RequestBody @Valid StockInRequest req) {
-        StockMovementResponse movement = inventoryService.stockIn(req);
+    public ResponseEntity<ApiResponse<StockMovementResponse>> stockIn(
+            @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @RequestBody @Valid StockInRequest req) {
+        StockMovementResponse movement = inventoryService.stockIn(req, idempotencyKey);
         return ResponseEntity.status(ApiStatus.CREATED.httpStatus())
                 .body(ApiResponse.created(movement));
     }
 
     @PostMapping("/out")
-    public ResponseEntity<ApiResponse<StockMovementResponse>> stockOut(@RequestBody @Valid StockOutRequest req) {
-        StockMovementResponse movement = inventoryService.stockOut(req);
+    public ResponseEntity<ApiResponse<StockMovementResponse>> stockOut(
+            @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @RequestBody @Valid StockOutRequest req) {
+        StockMovementResponse movement = inventoryService.stockOut(req, idempotencyKey);
         return ResponseEntity.status(ApiStatus.CREATED.httpStatus())
                 .body(ApiResponse.created(movement));
     }
 
     @PostMapping("/adjust")
-    public ResponseEntity<ApiResponse<StockMovementResponse>> stockAdjust(@RequestBody @Valid StockAdjustRequest req) {
-        StockMovementResponse movement = inventoryService.stockAdjust(req);
+    public ResponseEntity<ApiResponse<StockMovementResponse>> stockAdjust(
+            @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @RequestBody @Valid StockAdjustRequest req) {
+        StockMovementResponse movement = inventoryService.stockAdjust(req, idempotencyKey);
         return ResponseEntity.status(ApiStatus.CREATED.httpStatus())
                 .body(ApiResponse.created(movement));
     }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ApiResponse<BulkStockMovementResponse>> bulk(
+            @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @RequestBody List<StockMovementLineRequest> lines,
+            @RequestParam(required = false) String mode) {
+        return bulkResponse(applyBulk(idempotencyKey, lines, mode));
+    }
+
+    @PostMapping(value = "/bulk", consumes = APPLICATION_NDJSON)
+    public ResponseEntity<ApiResponse<BulkStockMovementResponse>> bulkNdjson(
+            HttpServletRequest request,
+            @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @RequestParam(required = false) String mode) throws IOException {
+        List<StockMovementLineRequest> lines;
+        try {
+            lines = NdjsonReader.readAll(objectMapper, request.getInputStream(), StockMovementLineRequest.class,
+                    bulkStockMovementService.maxLines() + 1);
+        } catch (JsonProcessingException ex) {
+            throw new HttpMessageNotReadableException("Invalid NDJSON payload", ex,
+                    new ServletServerHttpRequest(request));
+        }
+        return bulkResponse(applyBulk(idempotencyKey, lines, mode));
+    }
+
+    private BulkStockMovementResponse applyBulk(String idempotencyKey, List<StockMovementLineRequest> lines,
+            String mode) {
+        return idempotencyService.execute(
+                "inventory/bulk",
+                idempotencyKey,
+                new BulkFingerprint(mode == null ? "" : mode, lines),
+                BulkStockMovementResponse.class,
+                () -> bulkStockMovementService.apply(lines, mode),
+                BulkStockMovementResponse::applied);
+    }
+
+    private ResponseEntity<ApiResponse<BulkStockMovementResponse>> bulkResponse(BulkStockMovementResponse result) {
+        ApiStatus status = result.applied() ? ApiStatus.CREATED : ApiStatus.VALIDATION_ERROR;
+        return ResponseEntity.status(status.httpStatus())
+                .body(ApiResponse.of(status, result, null));
+    }
+
+    @PostMapping("/reconciliation")
+    public ResponseEntity<ApiResponse<ReconciliationStatusResponse>> startReconciliation(
+            @RequestParam(name = "auto_correct", defaultValue = "false") boolean autoCorrect) {
+        ReconciliationStatusResponse status = stockReconciliationService.start(autoCorrect);
+        return ResponseEntity.status(ApiStatus.SUCCESS.httpStatus()).body(ApiResponse.success(status));
+    }
+
+    @GetMapping("/reconciliation")
+    public ResponseEntity<ApiResponse<ReconciliationStatusResponse>> reconciliationStatus() {
+        ReconciliationStatusResponse status = stockReconciliationService.status();
+        if (status == null) {
+            throw new NotFoundException("No reconciliation has run yet");
+        }
+        return ResponseEntity.status(ApiStatus.SUCCESS.httpStatus()).body(ApiResponse.success(status));
+    }
+
+    /**
+     * Request body hashed for the idempotency check; a record serializes its
+     * components in a fixed order, unlike {@code Map.of}.
+     */
+    private record BulkFingerprint(String mode, List<StockMovementLineRequest> lines) {
+    }
 }
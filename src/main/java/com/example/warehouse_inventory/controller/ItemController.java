@@ -52,10 +52,14 @@ public class ItemController {
             @RequestParam(required = false) String search,
             @RequestParam(name = "sort_by", defaultValue = "id") String sortBy,
             @RequestParam(name = "sort_direction", defaultValue = "asc") String sortDirection,
+            @Parameter(description = "opaque next_cursor from the previous page; send empty to start cursor paging") @RequestParam(required = false) String cursor,
+            @Parameter(description = "exact (default), none or estimated") @RequestParam(name = "include_total", required = false) String includeTotal,
             @Parameter(example = "{\"filters[0][field]\":\"active\",\"filters[0][operator]\":\"=\",\"filters[0][value]\":\"false\",\"filters[1][field]\":\"name\",\"filters[1][operator]\":\"!=\",\"filters[1][value]\":\"string\"}") @RequestParam(required = true) Map<String, String> params) {
         List<FilterRequest> filters = FilterParamParser.parse(params);
         PaginatedResponse<ItemResponse> result = itemService.getAll(offset, limit, search, sortBy, sortDirection,
-                filters);
+                filters,
+                cursor,
+                includeTotal);
         return ResponseEntity.status(ApiStatus.SUCCESS.httpStatus())
                 .body(ApiResponse.success(result));
     }
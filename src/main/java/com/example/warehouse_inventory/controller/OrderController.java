@@ -4,32 +4,78 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.warehouse_inventory.dto.CreateOrderRequest;
+import com.example.warehouse_inventory.dto.FilterRequest;
 import com.example.warehouse_inventory.dto.OrderResponse;
 import com.example.warehouse_inventory.response.ApiResponse;
 import com.example.warehouse_inventory.response.ApiStatus;
+import com.example.warehouse_inventory.response.PaginatedResponse;
+import com.example.warehouse_inventory.service.IdempotencyService;
 import com.example.warehouse_inventory.service.OrderService;
+import com.example.warehouse_inventory.util.FilterParamParser;
+
+import io.swagger.v3.oas.annotations.Parameter;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
+import java.util.Map;
 
 @RequestMapping("/orders")
 @RestController
 @RequiredArgsConstructor
 public class OrderController {
     private final OrderService orderService;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping("/create")
-    public ResponseEntity<ApiResponse<OrderResponse>> create(@RequestBody @Valid CreateOrderRequest req) {
-        OrderResponse created = orderService.create(req);
+    public ResponseEntity<ApiResponse<OrderResponse>> create(
+            @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestBody @Valid CreateOrderRequest req) {
+        OrderResponse created = idempotencyService.execute("orders/create", idempotencyKey, req,
+                OrderResponse.class, () -> orderService.create(req));
         return ResponseEntity.status(ApiStatus.CREATED.httpStatus()).body(ApiResponse.created(created));
     }
 
+    @GetMapping("/getList")
+    public ResponseEntity<ApiResponse<PaginatedResponse<OrderResponse>>> getList(
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "10") int limit,
+            @Parameter(description = "order number prefix", example = "order_20240101") @RequestParam(required = false) String search,
+            @RequestParam(name = "sort_by", defaultValue = "created_at") String sortBy,
+            @RequestParam(name = "sort_direction", defaultValue = "desc") String sortDirection,
+            @Parameter(description = "opaque next_cursor from the previous page; send empty to start cursor paging") @RequestParam(required = false) String cursor,
+            @Parameter(description = "exact (default), none or estimated") @RequestParam(name = "include_total", required = false) String includeTotal,
+            @Parameter(example = "{\"filters[0][field]\":\"status\",\"filters[0][operator]\":\"=\",\"filters[0][value]\":\"NEW\",\"filters[1][field]\":\"created_at\",\"filters[1][operator]\":\"between\",\"filters[1][value]\":\"2024-01-01T00:00:00Z,2024-01-08T00:00:00Z\"}") @RequestParam(required = true) Map<String, String> params) {
+        List<FilterRequest> filters = FilterParamParser.parse(params);
+        PaginatedResponse<OrderResponse> result = orderService.getAll(offset, limit, search, sortBy, sortDirection,
+                filters,
+                cursor,
+                includeTotal);
+        return ResponseEntity.status(ApiStatus.SUCCESS.httpStatus()).body(ApiResponse.success(result));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<OrderResponse>> findById(@PathVariable Long id) {
+        OrderResponse result = orderService.findById(id);
+        return ResponseEntity.status(ApiStatus.SUCCESS.httpStatus()).body(ApiResponse.success(result));
+    }
+
+    @GetMapping("/no/{orderNo}")
+    public ResponseEntity<ApiResponse<OrderResponse>> findByOrderNo(@PathVariable String orderNo) {
+        OrderResponse result = orderService.findByOrderNo(orderNo);
+        return ResponseEntity.status(ApiStatus.SUCCESS.httpStatus()).body(ApiResponse.success(result));
+    }
+
     @PatchMapping("/pay/{id}")
     public ResponseEntity<ApiResponse<OrderResponse>> markPaid(@PathVariable Long id) {
         OrderResponse updated = orderService.markPaid(id);
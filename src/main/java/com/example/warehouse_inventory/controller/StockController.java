@@ -4,19 +4,34 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.warehouse_inventory.dto.FilterRequest;
+import com.example.warehouse_inventory.dto.StockAtResponse;
 import com.example.warehouse_inventory.dto.StockResponse;
+import com.example.warehouse_inventory.dto.UpdateReorderPointRequest;
+import com.example.warehouse_inventory.entity.Stock;
 import com.example.warehouse_inventory.response.ApiResponse;
 import com.example.warehouse_inventory.response.ApiStatus;
 import com.example.warehouse_inventory.response.PaginatedResponse;
+import com.example.warehouse_inventory.serialization.ExportFormat;
+import com.example.warehouse_inventory.service.LowStockAlerts;
 import com.example.warehouse_inventory.service.StockService;
+import com.example.warehouse_inventory.service.StockSnapshotService;
 import com.example.warehouse_inventory.util.FilterParamParser;
+import com.example.warehouse_inventory.util.FilterPlan;
 import io.swagger.v3.oas.annotations.Parameter;
 
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -26,6 +41,8 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class StockController {
         private final StockService stockService;
+        private final StockSnapshotService stockSnapshotService;
+        private final LowStockAlerts lowStockAlerts;
 
         @GetMapping("/getList")
         public ResponseEntity<ApiResponse<PaginatedResponse<StockResponse>>> getList(
@@ -34,12 +51,72 @@ public class StockController {
                         @RequestParam(required = false) String search,
                         @RequestParam(name = "sort_by", defaultValue = "id") String sortBy,
                         @RequestParam(name = "sort_direction", defaultValue = "asc") String sortDirection,
+                        @Parameter(description = "opaque next_cursor from the previous page; send empty to start cursor paging") @RequestParam(required = false) String cursor,
+                        @Parameter(description = "exact (default), none or estimated") @RequestParam(name = "include_total", required = false) String includeTotal,
                         @Parameter(example = "{\"filters[0][field]\":\"sku\",\"filters[0][operator]\":\"=\",\"filters[0][value]\":\"SKU-123\",\"filters[1][field]\":\"variant_id\",\"filters[1][operator]\":\"=\",\"filters[1][value]\":\"10\"}") @RequestParam(required = true) Map<String, String> params) {
                 List<FilterRequest> filters = FilterParamParser.parse(params);
                 PaginatedResponse<StockResponse> result = stockService.getAll(offset, limit, search, sortBy,
                                 sortDirection,
-                                filters);
+                                filters,
+                                cursor,
+                                includeTotal);
                 return ResponseEntity.status(ApiStatus.SUCCESS.httpStatus())
                                 .body(ApiResponse.success(result));
         }
+
+        @GetMapping("/export")
+        public ResponseEntity<StreamingResponseBody> export(
+                        @Parameter(description = "csv (default) or ndjson") @RequestParam(required = false) String format,
+                        @RequestParam(required = false) String search,
+                        @Parameter(example = "{\"filters[0][field]\":\"quantity\",\"filters[0][operator]\":\">\",\"filters[0][value]\":\"0\"}") @RequestParam(required = true) Map<String, String> params) {
+                ExportFormat exportFormat = ExportFormat.from(format);
+                FilterPlan<Stock> filterPlan = stockService.compileFilters(FilterParamParser.parse(params));
+                StreamingResponseBody body = out -> stockService.export(search, filterPlan, exportFormat, out);
+                return ResponseEntity.ok()
+                                .contentType(MediaType.parseMediaType(exportFormat.mediaType()))
+                                .header(HttpHeaders.CONTENT_DISPOSITION,
+                                                "attachment; filename=\"stock." + exportFormat.extension() + "\"")
+                                .body(body);
+        }
+
+        @GetMapping("/at")
+        public ResponseEntity<ApiResponse<StockAtResponse>> getAt(
+                        @Parameter(description = "ISO-8601 instant; movements up to and including it are counted", example = "2024-03-31T23:59:59Z") @RequestParam String at,
+                        @RequestParam(name = "variant_id", required = false) Long variantId) {
+                StockAtResponse result = stockSnapshotService.quantitiesAt(at, variantId);
+                return ResponseEntity.status(ApiStatus.SUCCESS.httpStatus())
+                                .body(ApiResponse.success(result));
+        }
+
+        @GetMapping("/low")
+        public ResponseEntity<ApiResponse<PaginatedResponse<StockResponse>>> getLow(
+                        @RequestParam(defaultValue = "0") int offset,
+                        @RequestParam(defaultValue = "50") int limit) {
+                PaginatedResponse<StockResponse> result = stockService.getLow(offset, limit);
+                return ResponseEntity.status(ApiStatus.SUCCESS.httpStatus())
+                                .body(ApiResponse.success(result));
+        }
+
+        @GetMapping(path = "/low/alerts", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+        public SseEmitter lowStockAlerts() {
+                return lowStockAlerts.subscribe();
+        }
+
+        @PatchMapping("/reorder-point/{variantId}")
+        public ResponseEntity<ApiResponse<StockResponse>> updateReorderPoint(
+                        @PathVariable Long variantId,
+                        @RequestBody @Valid UpdateReorderPointRequest req) {
+                StockResponse updated = stockService.updateReorderPoint(variantId, req.reorderPoint());
+                return ResponseEntity.status(ApiStatus.SUCCESS.httpStatus())
+                                .body(ApiResponse.success(updated));
+        }
+
+        @PatchMapping("/reorder-point/item/{itemId}")
+        public ResponseEntity<ApiResponse<Integer>> updateReorderPointForItem(
+                        @PathVariable Long itemId,
+                        @RequestBody @Valid UpdateReorderPointRequest req) {
+                int updated = stockService.updateReorderPointForItem(itemId, req.reorderPoint());
+                return ResponseEntity.status(ApiStatus.SUCCESS.httpStatus())
+                                .body(ApiResponse.success(updated));
+        }
 }
@@ -3,18 +3,30 @@ package com.example.warehouse_inventory.controller;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.warehouse_inventory.dto.FilterRequest;
 import com.example.warehouse_inventory.dto.StockMovementResponse;
+import com.example.warehouse_inventory.entity.StockMovement;
 import com.example.warehouse_inventory.response.ApiResponse;
 import com.example.warehouse_inventory.response.ApiStatus;
 import com.example.warehouse_inventory.response.PaginatedResponse;
+import com.example.warehouse_inventory.serialization.ExportFormat;
 import com.example.warehouse_inventory.service.StockMovementService;
+import com.example.warehouse_inventory.util.FilterParamParser;
+import com.example.warehouse_inventory.util.FilterPlan;
 import io.swagger.v3.oas.annotations.Parameter;
 
 import lombok.RequiredArgsConstructor;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+import java.util.Map;
 
 @RequestMapping("/stock-movements")
 @RestController
@@ -28,10 +40,52 @@ public class StockMovementController {
                         @RequestParam(defaultValue = "10") int limit,
                         @Parameter(description = "fill sku or order id", example = "SKU-123") @RequestParam(required = false) String search,
                         @RequestParam(name = "sort_by", defaultValue = "id") String sortBy,
-                        @RequestParam(name = "sort_direction", defaultValue = "desc") String sortDirection) {
+                        @RequestParam(name = "sort_direction", defaultValue = "desc") String sortDirection,
+                        @Parameter(description = "opaque next_cursor from the previous page; send empty to start cursor paging") @RequestParam(required = false) String cursor,
+                        @Parameter(description = "exact (default), none or estimated") @RequestParam(name = "include_total", required = false) String includeTotal,
+                        @Parameter(example = "{\"filters[0][field]\":\"variant_id\",\"filters[0][operator]\":\"=\",\"filters[0][value]\":\"10\",\"filters[1][field]\":\"movement_type\",\"filters[1][operator]\":\"=\",\"filters[1][value]\":\"OUT\",\"filters[2][field]\":\"created_at\",\"filters[2][operator]\":\"between\",\"filters[2][value]\":\"2024-01-01T00:00:00Z,2024-01-08T00:00:00Z\"}") @RequestParam(required = true) Map<String, String> params) {
+                List<FilterRequest> filters = FilterParamParser.parse(params);
                 PaginatedResponse<StockMovementResponse> result = stockMovementService.getAll(offset, limit, search,
                                 sortBy,
-                                sortDirection);
+                                sortDirection,
+                                filters,
+                                cursor,
+                                includeTotal);
+                return ResponseEntity.status(ApiStatus.SUCCESS.httpStatus())
+                                .body(ApiResponse.success(result));
+        }
+
+        @GetMapping("/export")
+        public ResponseEntity<StreamingResponseBody> export(
+                        @Parameter(description = "csv (default) or ndjson") @RequestParam(required = false) String format,
+                        @Parameter(description = "fill sku or order id", example = "SKU-123") @RequestParam(required = false) String search,
+                        @Parameter(example = "{\"filters[0][field]\":\"variant_id\",\"filters[0][operator]\":\"=\",\"filters[0][value]\":\"10\",\"filters[1][field]\":\"movement_type\",\"filters[1][operator]\":\"=\",\"filters[1][value]\":\"OUT\",\"filters[2][field]\":\"created_at\",\"filters[2][operator]\":\"between\",\"filters[2][value]\":\"2024-01-01T00:00:00Z,2024-01-08T00:00:00Z\"}") @RequestParam(required = true) Map<String, String> params) {
+                ExportFormat exportFormat = ExportFormat.from(format);
+                FilterPlan<StockMovement> filterPlan = stockMovementService
+                                .compileFilters(FilterParamParser.parse(params));
+                StreamingResponseBody body = out -> stockMovementService.export(search, filterPlan, exportFormat,
+                                out);
+                return ResponseEntity.ok()
+                                .contentType(MediaType.parseMediaType(exportFormat.mediaType()))
+                                .header(HttpHeaders.CONTENT_DISPOSITION,
+                                                "attachment; filename=\"stock-movements." + exportFormat.extension() + "\"")
+                                .body(body);
+        }
+
+        @GetMapping("/reference/{referenceId}")
+        public ResponseEntity<ApiResponse<List<StockMovementResponse>>> findByReferenceId(
+                        @PathVariable String referenceId) {
+                List<StockMovementResponse> result = stockMovementService.findByReferenceId(referenceId);
+                return ResponseEntity.status(ApiStatus.SUCCESS.httpStatus())
+                                .body(ApiResponse.success(result));
+        }
+
+        @GetMapping("/archive/{variantId}")
+        public ResponseEntity<ApiResponse<List<StockMovementResponse>>> findArchived(
+                        @PathVariable Long variantId,
+                        @Parameter(description = "inclusive ISO-8601 instant", example = "2024-01-01T00:00:00Z") @RequestParam(required = false) String from,
+                        @Parameter(description = "exclusive ISO-8601 instant", example = "2025-01-01T00:00:00Z") @RequestParam(required = false) String to) {
+                List<StockMovementResponse> result = stockMovementService.findArchived(variantId, from, to);
                 return ResponseEntity.status(ApiStatus.SUCCESS.httpStatus())
                                 .body(ApiResponse.success(result));
         }
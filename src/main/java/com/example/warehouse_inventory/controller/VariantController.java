@@ -7,6 +7,7 @@ import com.example.warehouse_inventory.dto.CreateVariantRequest;
 import com.example.warehouse_inventory.dto.FilterRequest;
 import com.example.warehouse_inventory.dto.UpdateVariantActiveRequest;
 import com.example.warehouse_inventory.dto.UpdateVariantRequest;
+import com.example.warehouse_inventory.dto.VariantFacetsResponse;
 import com.example.warehouse_inventory.dto.VariantResponse;
 import com.example.warehouse_inventory.response.ApiResponse;
 import com.example.warehouse_inventory.response.ApiStatus;
@@ -50,10 +51,23 @@ public class VariantController {
             @RequestParam(required = false) String search,
             @RequestParam(name = "sort_by", defaultValue = "id") String sortBy,
             @RequestParam(name = "sort_direction", defaultValue = "asc") String sortDirection,
+            @Parameter(description = "opaque next_cursor from the previous page; send empty to start cursor paging") @RequestParam(required = false) String cursor,
+            @Parameter(description = "exact (default), none or estimated") @RequestParam(name = "include_total", required = false) String includeTotal,
             @Parameter(example = "{\"filters[0][field]\":\"attributes\",\"filters[0][operator]\":\"=\",\"filters[0][value]\":\"{\\\"brand\\\":\\\"Belden\\\",\\\"length\\\":\\\"10m\\\"}\"}") @RequestParam(required = true) Map<String, String> params) {
         List<FilterRequest> filters = FilterParamParser.parse(params);
         PaginatedResponse<VariantResponse> result = variantService.getAll(offset, limit, search, sortBy, sortDirection,
-                filters);
+                filters,
+                cursor,
+                includeTotal);
+        return ResponseEntity.status(ApiStatus.SUCCESS.httpStatus())
+                .body(ApiResponse.success(result));
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<ApiResponse<VariantFacetsResponse>> facets(
+            @Parameter(example = "{\"filters[0][field]\":\"attributes\",\"filters[0][operator]\":\"=\",\"filters[0][value]\":\"{\\\"brand\\\":\\\"Belden\\\"}\"}") @RequestParam(required = false) Map<String, String> params) {
+        List<FilterRequest> filters = FilterParamParser.parse(params);
+        VariantFacetsResponse result = variantService.getFacets(filters);
         return ResponseEntity.status(ApiStatus.SUCCESS.httpStatus())
                 .body(ApiResponse.success(result));
     }
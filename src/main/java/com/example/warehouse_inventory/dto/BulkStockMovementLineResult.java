@@ -0,0 +1,14 @@
+package com.example.warehouse_inventory.dto;
+
+public record BulkStockMovementLineResult(
+        int line,
+        Status status,
+        StockMovementResponse movement,
+        String error) {
+
+    public enum Status {
+        APPLIED,
+        REJECTED,
+        SKIPPED
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.warehouse_inventory.dto;
+
+import com.example.warehouse_inventory.exception.InvalidRequestException;
+
+public enum BulkStockMovementMode {
+    ATOMIC,
+    BEST_EFFORT;
+
+    /**
+     * Returns {@code fallback} for a missing value and rejects unknown ones, so a
+     * typo does not silently run in the default mode.
+     */
+    public static BulkStockMovementMode from(String value, BulkStockMovementMode fallback) {
+        if (value == null || value.isBlank()) {
+            return fallback;
+        }
+        String normalized = value.trim().toUpperCase().replace('-', '_');
+        for (BulkStockMovementMode mode : values()) {
+            if (mode.name().equals(normalized)) {
+                return mode;
+            }
+        }
+        throw new InvalidRequestException("Unknown bulk mode '" + value.trim() + "' (use atomic or best_effort)");
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.warehouse_inventory.dto;
+
+import java.util.List;
+
+public record BulkStockMovementResponse(
+        BulkStockMovementMode mode,
+        boolean applied,
+        int accepted,
+        int rejected,
+        List<BulkStockMovementLineResult> lines) {
+}
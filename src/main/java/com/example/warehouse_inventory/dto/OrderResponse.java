@@ -11,5 +11,6 @@ public record OrderResponse(
         OrderStatus status,
         BigDecimal totalAmount,
         Instant createdAt,
+        Instant reservedUntil,
         List<OrderItemResponse> items) {
 }
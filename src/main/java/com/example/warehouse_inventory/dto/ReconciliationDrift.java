@@ -0,0 +1,9 @@
+package com.example.warehouse_inventory.dto;
+
+public record ReconciliationDrift(
+        Long variantId,
+        long quantity,
+        long ledgerQuantity,
+        long drift,
+        boolean corrected) {
+}
@@ -0,0 +1,19 @@
+package com.example.warehouse_inventory.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public record ReconciliationStatusResponse(
+        String runId,
+        boolean running,
+        boolean autoCorrect,
+        Instant startedAt,
+        Instant finishedAt,
+        int chunksTotal,
+        int chunksDone,
+        long variantsChecked,
+        long driftCount,
+        long corrected,
+        String error,
+        List<ReconciliationDrift> drifts) {
+}
@@ -0,0 +1,10 @@
+package com.example.warehouse_inventory.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public record StockAtResponse(
+        Instant at,
+        Instant snapshotTakenAt,
+        List<StockQuantityResponse> items) {
+}
@@ -0,0 +1,19 @@
+package com.example.warehouse_inventory.dto;
+
+import com.example.warehouse_inventory.entity.StockMovementType;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+public record StockMovementLineRequest(
+        @NotNull(message = "Variant ID is required")
+        Long variantId,
+
+        @NotNull(message = "Movement type is required")
+        StockMovementType movementType,
+
+        @NotNull(message = "Quantity is required")
+        Integer quantity,
+
+        @Size(max = 64, message = "Reference ID max 64 chars")
+        String referenceId) {
+}
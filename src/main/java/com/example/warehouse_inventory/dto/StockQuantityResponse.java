@@ -0,0 +1,7 @@
+package com.example.warehouse_inventory.dto;
+
+public record StockQuantityResponse(
+        Long variantId,
+        String sku,
+        long quantity) {
+}
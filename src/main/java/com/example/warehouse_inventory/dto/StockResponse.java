@@ -8,6 +8,10 @@ public record StockResponse(
                 Long variantId,
                 String sku,
                 Integer quantity,
+                Integer reserved,
+                Integer available,
+                Integer reorderPoint,
+                Boolean lowStock,
                 Instant updatedAt,
                 String price,
                 JsonNode attributes,
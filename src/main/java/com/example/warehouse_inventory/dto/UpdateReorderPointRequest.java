@@ -0,0 +1,12 @@
+package com.example.warehouse_inventory.dto;
+
+import jakarta.validation.constraints.Min;
+
+/**
+ * {@code null} clears the threshold.
+ */
+public record UpdateReorderPointRequest(
+        @Min(value = 0, message = "Reorder point must not be negative")
+        Integer reorderPoint
+) {
+}
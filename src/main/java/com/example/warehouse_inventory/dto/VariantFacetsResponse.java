@@ -0,0 +1,8 @@
+package com.example.warehouse_inventory.dto;
+
+import java.util.Map;
+
+public record VariantFacetsResponse(
+        long total,
+        Map<String, Map<String, Long>> facets) {
+}
@@ -0,0 +1,21 @@
+package com.example.warehouse_inventory.entity;
+
+/**
+ * Names shared by the table-backed id generators on the entities and by the JDBC
+ * batch writers, which draw from the same {@code id_sequences} rows.
+ */
+public final class IdSequences {
+    public static final String TABLE = "id_sequences";
+    public static final String NAME_COLUMN = "sequence_name";
+    public static final String VALUE_COLUMN = "next_val";
+    public static final int ALLOCATION_SIZE = 50;
+
+    public static final String ITEMS = "items";
+    public static final String VARIANTS = "variants";
+    public static final String STOCK_MOVEMENTS = "stock_movements";
+    public static final String ORDERS = "orders";
+    public static final String ORDER_ITEMS = "order_items";
+
+    private IdSequences() {
+    }
+}
@@ -13,7 +13,14 @@ import lombok.Setter;
 @Table(name = "items")
 public class Item {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "items_id")
+    @TableGenerator(
+            name = "items_id",
+            table = IdSequences.TABLE,
+            pkColumnName = IdSequences.NAME_COLUMN,
+            valueColumnName = IdSequences.VALUE_COLUMN,
+            pkColumnValue = IdSequences.ITEMS,
+            allocationSize = IdSequences.ALLOCATION_SIZE)
     @Setter(AccessLevel.NONE)
     private Long id;
 
@@ -8,6 +8,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 import java.math.BigDecimal;
 import java.time.Instant;
 import lombok.AccessLevel;
@@ -20,7 +21,14 @@ import lombok.Setter;
 @Table(name = "orders")
 public class Order {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "orders_id")
+    @TableGenerator(
+            name = "orders_id",
+            table = IdSequences.TABLE,
+            pkColumnName = IdSequences.NAME_COLUMN,
+            valueColumnName = IdSequences.VALUE_COLUMN,
+            pkColumnValue = IdSequences.ORDERS,
+            allocationSize = IdSequences.ALLOCATION_SIZE)
     @Setter(AccessLevel.NONE)
     private Long id;
 
@@ -34,6 +42,9 @@ public class Order {
     @Column(name = "total_amount", nullable = false, precision = 12, scale = 2)
     private BigDecimal totalAmount = BigDecimal.ZERO;
 
+    @Column(name = "reserved_until")
+    private Instant reservedUntil;
+
     @Column(name = "created_at", nullable = false, insertable = false, updatable = false)
     @Setter(AccessLevel.NONE)
     private Instant createdAt;
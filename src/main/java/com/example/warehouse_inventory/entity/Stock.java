@@ -29,6 +29,16 @@ public class Stock {
     @Column(nullable = false)
     private Integer quantity = 0;
 
+    @Column(nullable = false)
+    private Integer reserved = 0;
+
+    @Column(name = "reorder_point")
+    private Integer reorderPoint;
+
+    @Column(name = "low_stock", insertable = false, updatable = false)
+    @Setter(AccessLevel.NONE)
+    private Boolean lowStock;
+
     @Column(name = "updated_at", insertable = false, updatable = false)
     @Setter(AccessLevel.NONE)
     private Instant updatedAt;
@@ -11,6 +11,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 import java.time.Instant;
 import lombok.AccessLevel;
 import lombok.Getter;
@@ -22,7 +23,14 @@ import lombok.Setter;
 @Table(name = "stock_movements")
 public class StockMovement {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "stock_movements_id")
+    @TableGenerator(
+            name = "stock_movements_id",
+            table = IdSequences.TABLE,
+            pkColumnName = IdSequences.NAME_COLUMN,
+            valueColumnName = IdSequences.VALUE_COLUMN,
+            pkColumnValue = IdSequences.STOCK_MOVEMENTS,
+            allocationSize = IdSequences.ALLOCATION_SIZE)
     @Setter(AccessLevel.NONE)
     private Long id;
 
@@ -3,5 +3,14 @@ package com.example.warehouse_inventory.entity;
 public enum StockMovementType {
     IN,
     OUT,
-    ADJUST
+    ADJUST;
+
+    public int normalize(int changeQty) {
+        int absQty = Math.abs(changeQty);
+        return switch (this) {
+            case IN -> absQty;
+            case OUT -> -absQty;
+            case ADJUST -> changeQty;
+        };
+    }
 }
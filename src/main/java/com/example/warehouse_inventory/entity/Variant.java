@@ -6,9 +6,14 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
@@ -28,8 +33,28 @@ public class Variant {
             "width",
             "height");
 
+    /**
+     * Entity attribute of the indexed generated column that mirrors each JSON key
+     * ({@code size} -> {@code attrSize}), in {@link #ATTRIBUTE_KEYS} order.
+     */
+    public static final Map<String, String> ATTRIBUTE_FIELDS = ATTRIBUTE_KEYS.stream()
+            .collect(Collectors.collectingAndThen(
+                    Collectors.toMap(
+                            key -> key,
+                            key -> "attr" + Character.toUpperCase(key.charAt(0)) + key.substring(1),
+                            (left, right) -> left,
+                            LinkedHashMap::new),
+                    Collections::unmodifiableMap));
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "variants_id")
+    @TableGenerator(
+            name = "variants_id",
+            table = IdSequences.TABLE,
+            pkColumnName = IdSequences.NAME_COLUMN,
+            valueColumnName = IdSequences.VALUE_COLUMN,
+            pkColumnValue = IdSequences.VARIANTS,
+            allocationSize = IdSequences.ALLOCATION_SIZE)
     @Setter(AccessLevel.NONE)
     private Long id;
 
@@ -51,6 +76,38 @@ public class Variant {
     @Column(nullable = false)
     private Boolean active = true;
 
+    @Column(name = "attr_size", insertable = false, updatable = false)
+    @Setter(AccessLevel.NONE)
+    private String attrSize;
+
+    @Column(name = "attr_color", insertable = false, updatable = false)
+    @Setter(AccessLevel.NONE)
+    private String attrColor;
+
+    @Column(name = "attr_material", insertable = false, updatable = false)
+    @Setter(AccessLevel.NONE)
+    private String attrMaterial;
+
+    @Column(name = "attr_brand", insertable = false, updatable = false)
+    @Setter(AccessLevel.NONE)
+    private String attrBrand;
+
+    @Column(name = "attr_weight", insertable = false, updatable = false)
+    @Setter(AccessLevel.NONE)
+    private String attrWeight;
+
+    @Column(name = "attr_length", insertable = false, updatable = false)
+    @Setter(AccessLevel.NONE)
+    private String attrLength;
+
+    @Column(name = "attr_width", insertable = false, updatable = false)
+    @Setter(AccessLevel.NONE)
+    private String attrWidth;
+
+    @Column(name = "attr_height", insertable = false, updatable = false)
+    @Setter(AccessLevel.NONE)
+    private String attrHeight;
+
     @Column(name = "created_at", nullable = false, insertable = false, updatable = false)
     @Setter(AccessLevel.NONE)
     private Instant createdAt;
@@ -59,6 +59,12 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.withMessage(ApiStatus.UNKNOWN_ERROR, "Unexpected error", null, null));
     }
 
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<ApiResponse<Void>> handleInvalidRequest(InvalidRequestException ex) {
+        return ResponseEntity.status(ApiStatus.VALIDATION_ERROR.httpStatus())
+                .body(ApiResponse.withMessage(ApiStatus.VALIDATION_ERROR, ex.getMessage(), null, null));
+    }
+
     @ExceptionHandler(DataAlreadyExistsException.class)
     public ResponseEntity<ApiResponse<Void>> handleConflict(DataAlreadyExistsException ex) {
         return ResponseEntity.status(ApiStatus.DATA_ALREADY_EXISTS.httpStatus())
@@ -32,6 +32,7 @@ public class OrderMapper {
                 order.getStatus(),
                 order.getTotalAmount(),
                 order.getCreatedAt(),
+                order.getReservedUntil(),
                 itemResponses);
     }
 }
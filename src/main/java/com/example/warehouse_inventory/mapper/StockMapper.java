@@ -3,6 +3,7 @@ package com.example.warehouse_inventory.mapper;
 import com.example.warehouse_inventory.dto.StockResponse;
 import com.example.warehouse_inventory.entity.Stock;
 import com.example.warehouse_inventory.entity.Variant;
+import com.example.warehouse_inventory.repository.StockListRow;
 import com.fasterxml.jackson.databind.JsonNode;
 
 import java.math.BigDecimal;
@@ -24,11 +25,30 @@ public class StockMapper {
                 stock.getVariantId(),
                 sku,
                 stock.getQuantity(),
+                stock.getReserved(),
+                stock.getQuantity() - stock.getReserved(),
+                stock.getReorderPoint(),
+                stock.getLowStock(),
                 stock.getUpdatedAt(),
                 price,
                 attributes, variantName);
     }
 
+    public static StockResponse toResponse(StockListRow row) {
+        return new StockResponse(
+                row.variantId(),
+                row.sku(),
+                row.quantity(),
+                row.reserved(),
+                row.quantity() - row.reserved(),
+                row.reorderPoint(),
+                row.lowStock(),
+                row.updatedAt(),
+                formatPrice(row.price()),
+                VariantMapper.parseAttributes(row.attributes()),
+                row.variantName());
+    }
+
     private static String formatPrice(BigDecimal price) {
         if (price == null) {
             return null;
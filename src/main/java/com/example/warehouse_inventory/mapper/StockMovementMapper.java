@@ -12,6 +12,13 @@ public class StockMovementMapper {
         Variant variant = movement.getVariant();
         String sku = variant != null ? variant.getSku() : null;
         String variantName = variant != null ? variant.getVariantName() : null;
+        return toResponse(movement, sku, variantName);
+    }
+
+    /**
+     * For a freshly saved movement, whose lazy variant association is not populated.
+     */
+    public static StockMovementResponse toResponse(StockMovement movement, String sku, String variantName) {
         return new StockMovementResponse(
                 movement.getId(),
                 movement.getVariantId(),
@@ -0,0 +1,24 @@
+package com.example.warehouse_inventory.repository;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+import com.example.warehouse_inventory.util.FullTextSearch;
+
+/**
+ * Registers MySQL {@code MATCH ... AGAINST} for two-column FULLTEXT indexes so
+ * criteria queries can filter and rank on them. Loaded through
+ * {@code META-INF/services}.
+ */
+public class FullTextFunctionContributor implements FunctionContributor {
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        functionContributions.getFunctionRegistry().registerPattern(
+                FullTextSearch.MATCH_AGAINST,
+                "match (?1, ?2) against (?3 in boolean mode)",
+                functionContributions.getTypeConfiguration()
+                        .getBasicTypeRegistry()
+                        .resolve(StandardBasicTypes.DOUBLE));
+    }
+}
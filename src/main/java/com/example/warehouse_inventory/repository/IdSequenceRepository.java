@@ -0,0 +1,74 @@
+package com.example.warehouse_inventory.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.warehouse_inventory.entity.IdSequences;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hands out ids for rows written through plain JDBC. Blocks are reserved from the
+ * same {@code id_sequences} rows the Hibernate table generators use (pooled-lo:
+ * the stored value is the first id of the next free block), so both writers can
+ * never hand out the same id.
+ */
+@Repository
+public class IdSequenceRepository {
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate isolatedTransaction;
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+
+    public IdSequenceRepository(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.isolatedTransaction = new TransactionTemplate(transactionManager);
+        this.isolatedTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public List<Long> allocate(String sequenceName, int count) {
+        List<Long> ids = new ArrayList<>(count);
+        if (count <= 0) {
+            return ids;
+        }
+        Block block = blocks.computeIfAbsent(sequenceName, name -> new Block());
+        synchronized (block) {
+            while (ids.size() < count) {
+                if (block.next >= block.limit) {
+                    int size = Math.max(count - ids.size(), IdSequences.ALLOCATION_SIZE);
+                    block.next = reserve(sequenceName, size);
+                    block.limit = block.next + size;
+                }
+                ids.add(block.next++);
+            }
+        }
+        return ids;
+    }
+
+    private long reserve(String sequenceName, int size) {
+        Long first = isolatedTransaction.execute(status -> {
+            Long current = jdbcTemplate.queryForObject(
+                    "SELECT " + IdSequences.VALUE_COLUMN + " FROM " + IdSequences.TABLE
+                            + " WHERE " + IdSequences.NAME_COLUMN + " = ? FOR UPDATE",
+                    Long.class,
+                    sequenceName);
+            jdbcTemplate.update(
+                    "UPDATE " + IdSequences.TABLE + " SET " + IdSequences.VALUE_COLUMN + " = ? WHERE "
+                            + IdSequences.NAME_COLUMN + " = ?",
+                    current + size,
+                    sequenceName);
+            return current;
+        });
+        return first;
+    }
+
+    private static final class Block {
+        private long next;
+        private long limit;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.warehouse_inventory.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import lombok.RequiredArgsConstructor;
+
+@Repository
+@RequiredArgsConstructor
+public class IdempotencyKeyRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public record StoredResponse(String requestHash, String responseBody, Instant createdAt) {
+    }
+
+    /**
+     * Claims the key. Throws {@link org.springframework.dao.DuplicateKeyException}
+     * if it is already taken; while another transaction holds an uncommitted claim,
+     * this blocks on the primary key until that transaction ends.
+     */
+    public void claim(String scope, String key, String requestHash, Instant createdAt) {
+        jdbcTemplate.update("INSERT INTO idempotency_keys (scope, idempotency_key, request_hash, created_at) "
+                + "VALUES (?, ?, ?, ?)", scope, key, requestHash, Timestamp.from(createdAt));
+    }
+
+    public void complete(String scope, String key, String responseBody) {
+        jdbcTemplate.update("UPDATE idempotency_keys SET response_body = ? WHERE scope = ? AND idempotency_key = ?",
+                responseBody, scope, key);
+    }
+
+    public Optional<StoredResponse> find(String scope, String key) {
+        List<StoredResponse> rows = jdbcTemplate.query(
+                "SELECT request_hash, response_body, created_at FROM idempotency_keys "
+                        + "WHERE scope = ? AND idempotency_key = ?",
+                (rs, rowNum) -> new StoredResponse(
+                        rs.getString("request_hash"),
+                        rs.getString("response_body"),
+                        rs.getTimestamp("created_at").toInstant()),
+                scope,
+                key);
+        return rows.stream().findFirst();
+    }
+
+    public int deleteCreatedBefore(Instant before, int limit) {
+        return jdbcTemplate.update("DELETE FROM idempotency_keys WHERE created_at < ? ORDER BY created_at LIMIT ?",
+                Timestamp.from(before), limit);
+    }
+}
@@ -1,13 +1,35 @@
 package com.example.warehouse_inventory.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.example.warehouse_inventory.entity.Order;
 
-import java.util.Optional;
+import jakarta.persistence.LockModeType;
 
-public interface OrderRepository extends JpaRepository<Order, Long> {
-    boolean existsByOrderNo(String orderNo);
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
 
+public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecificationExecutor<Order> {
     Optional<Order> findByOrderNo(String orderNo);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id = :id")
+    Optional<Order> findByIdForUpdate(@Param("id") Long id);
+
+    @Query(value = "SELECT * FROM orders WHERE status = 'NEW' AND reserved_until < :now "
+            + "ORDER BY reserved_until LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Order> lockExpiredReservations(@Param("now") Instant now, @Param("limit") int limit);
+
+    /**
+     * Generated order numbers at or after {@code from} on the {@code order_no}
+     * unique key. Both bounds are index ranges, so only that tail is read.
+     */
+    @Query(value = "SELECT order_no FROM orders WHERE order_no >= :from AND order_no LIKE 'order\\_%'",
+            nativeQuery = true)
+    List<String> findOrderNosFrom(@Param("from") String from);
 }
@@ -0,0 +1,89 @@
+package com.example.warehouse_inventory.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import org.hibernate.jpa.HibernateHints;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+
+/**
+ * Runs a specification as a single SELECT of constructor-projected rows, so list
+ * endpoints read only the columns they return and never touch lazy associations.
+ */
+final class ProjectionQueries {
+    private ProjectionQueries() {
+    }
+
+    static <T, R> Slice<R> slice(
+            EntityManager entityManager,
+            Class<T> domainType,
+            Class<R> rowType,
+            Specification<T> spec,
+            Pageable pageable,
+            BiFunction<Root<T>, CriteriaBuilder, Selection<R>> selection) {
+        CriteriaQuery<R> query = build(entityManager, domainType, rowType, spec, pageable.getSort(), selection);
+        List<R> rows = entityManager.createQuery(query)
+                .setFirstResult(Math.toIntExact(pageable.getOffset()))
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    /**
+     * Streams every matching row from a forward-only MySQL result set
+     * ({@code fetchSize = Integer.MIN_VALUE}): rows are read off the socket one at a
+     * time instead of being buffered by the driver. The caller must consume and
+     * close the stream inside its transaction.
+     */
+    static <T, R> Stream<R> stream(
+            EntityManager entityManager,
+            Class<T> domainType,
+            Class<R> rowType,
+            Specification<T> spec,
+            Sort sort,
+            BiFunction<Root<T>, CriteriaBuilder, Selection<R>> selection) {
+        CriteriaQuery<R> query = build(entityManager, domainType, rowType, spec, sort, selection);
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, Integer.MIN_VALUE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private static <T, R> CriteriaQuery<R> build(
+            EntityManager entityManager,
+            Class<T> domainType,
+            Class<R> rowType,
+            Specification<T> spec,
+            Sort sort,
+            BiFunction<Root<T>, CriteriaBuilder, Selection<R>> selection) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<R> query = cb.createQuery(rowType);
+        Root<T> root = query.from(domainType);
+        query.select(selection.apply(root, cb));
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+        return query;
+    }
+}
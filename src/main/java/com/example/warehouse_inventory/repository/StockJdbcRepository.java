@@ -0,0 +1,311 @@
+package com.example.warehouse_inventory.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.example.warehouse_inventory.entity.IdSequences;
+import com.example.warehouse_inventory.entity.StockMovementType;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import lombok.RequiredArgsConstructor;
+
+@Repository
+@RequiredArgsConstructor
+public class StockJdbcRepository {
+    private final JdbcTemplate jdbcTemplate;
+    private final IdSequenceRepository idSequenceRepository;
+
+    public record StockMovementRow(
+            Long variantId,
+            int changeQty,
+            StockMovementType movementType,
+            String referenceId) {
+    }
+
+    public record InsertedMovement(Instant createdAt, String sku, String variantName) {
+    }
+
+    public record LowStockRow(Long variantId, int available, int reorderPoint) {
+    }
+
+    public record VariantLabel(String sku, String variantName) {
+    }
+
+    /**
+     * MySQL's {@code CURRENT_TIMESTAMP}, whole seconds. Snapshots take their
+     * {@code taken_at} from it, the same clock that stamps
+     * {@code stock_movements.created_at}, so app/DB clock skew cannot move a
+     * movement to the wrong side of a snapshot.
+     */
+    public Instant currentTimestamp() {
+        return jdbcTemplate.queryForObject("SELECT CURRENT_TIMESTAMP", Timestamp.class).toInstant();
+    }
+
+    /**
+     * SKU and name of the given variants, one {@code IN} query for all of them.
+     */
+    public Map<Long, VariantLabel> findVariantLabels(Collection<Long> variantIds) {
+        Map<Long, VariantLabel> labels = new LinkedHashMap<>();
+        if (variantIds == null || variantIds.isEmpty()) {
+            return labels;
+        }
+        jdbcTemplate.query("SELECT id, sku, variant_name FROM variants WHERE id IN ("
+                + placeholders(variantIds.size()) + ")", rs -> {
+                    labels.put(rs.getLong("id"), new VariantLabel(rs.getString("sku"), rs.getString("variant_name")));
+                }, variantIds.toArray());
+        return labels;
+    }
+
+    /**
+     * Variants among the given ones that are currently below their reorder point;
+     * a primary key lookup per id.
+     */
+    public List<LowStockRow> findLow(Collection<Long> variantIds) {
+        if (variantIds == null || variantIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return jdbcTemplate.query("SELECT variant_id, quantity - reserved AS available, reorder_point FROM stock "
+                + "WHERE variant_id IN (" + placeholders(variantIds.size()) + ") AND low_stock = 1",
+                (rs, rowNum) -> new LowStockRow(
+                        rs.getLong("variant_id"),
+                        rs.getInt("available"),
+                        rs.getInt("reorder_point")),
+                variantIds.toArray());
+    }
+
+    public List<Long> findVariantIdsByItemId(Long itemId) {
+        return jdbcTemplate.queryForList(
+                "SELECT s.variant_id FROM stock s JOIN variants v ON v.id = s.variant_id WHERE v.item_id = ?",
+                Long.class,
+                itemId);
+    }
+
+    public int updateReorderPoint(Collection<Long> variantIds, Integer reorderPoint) {
+        if (variantIds == null || variantIds.isEmpty()) {
+            return 0;
+        }
+        List<Object> args = new ArrayList<>(variantIds.size() + 1);
+        args.add(reorderPoint);
+        args.addAll(variantIds);
+        return jdbcTemplate.update("UPDATE stock SET reorder_point = ? WHERE variant_id IN ("
+                + placeholders(variantIds.size()) + ")", args.toArray());
+    }
+
+    /**
+     * Locks the stock rows of the given variants in ascending variant id order and
+     * returns their available quantity ({@code quantity - reserved}). Variants without
+     * a stock row are absent from the map.
+     */
+    public Map<Long, Integer> lockAvailable(Collection<Long> variantIds) {
+        if (variantIds == null || variantIds.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+        String sql = "SELECT variant_id, quantity - reserved AS available FROM stock WHERE variant_id IN ("
+                + placeholders(variantIds.size()) + ") ORDER BY variant_id FOR UPDATE";
+        Map<Long, Integer> available = new LinkedHashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            available.put(rs.getLong("variant_id"), rs.getInt("available"));
+        }, variantIds.toArray());
+        return available;
+    }
+
+    /**
+     * Locks the stock rows of the given variants in variant id order and returns
+     * their reserved quantity. Variants without a stock row are absent from the map.
+     */
+    public Map<Long, Integer> lockReserved(Collection<Long> variantIds) {
+        if (variantIds == null || variantIds.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+        String sql = "SELECT variant_id, reserved FROM stock WHERE variant_id IN ("
+                + placeholders(variantIds.size()) + ") ORDER BY variant_id FOR UPDATE";
+        Map<Long, Integer> reserved = new LinkedHashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            reserved.put(rs.getLong("variant_id"), rs.getInt("reserved"));
+        }, variantIds.toArray());
+        return reserved;
+    }
+
+    public void insertEmptyIfAbsent(Collection<Long> variantIds) {
+        if (variantIds == null || variantIds.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = variantIds.stream()
+                .map(variantId -> new Object[] { variantId })
+                .toList();
+        jdbcTemplate.batchUpdate("INSERT IGNORE INTO stock (variant_id, quantity) VALUES (?, 0)", args);
+    }
+
+    /**
+     * Applies one net delta per variant. Callers are expected to hold the row locks
+     * (see {@link #lockAvailable(Collection)}) and to have checked the result is not negative.
+     */
+    public void applyDeltas(Map<Long, Integer> deltaByVariantId) {
+        List<Object[]> args = new ArrayList<>();
+        for (Entry<Long, Integer> entry : deltaByVariantId.entrySet()) {
+            if (entry.getValue() != 0) {
+                args.add(new Object[] { entry.getValue(), entry.getKey() });
+            }
+        }
+        if (args.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("UPDATE stock SET quantity = quantity + ? WHERE variant_id = ?", args);
+    }
+
+    /**
+     * {@link #applyDeltas} with the {@code quantity + ? >= reserved} guard of
+     * {@code StockRepository.applyChangeIfSufficient} on every row. A row the
+     * delta would push below its holds is left unchanged and its variant id is
+     * returned, so the caller can roll back instead of relying on its own check.
+     */
+    public List<Long> applyDeltasIfSufficient(Map<Long, Integer> deltaByVariantId) {
+        List<Long> variantIds = new ArrayList<>();
+        List<Object[]> args = new ArrayList<>();
+        for (Entry<Long, Integer> entry : deltaByVariantId.entrySet()) {
+            if (entry.getValue() != 0) {
+                variantIds.add(entry.getKey());
+                args.add(new Object[] { entry.getValue(), entry.getKey(), entry.getValue() });
+            }
+        }
+        if (args.isEmpty()) {
+            return Collections.emptyList();
+        }
+        int[] counts = jdbcTemplate.batchUpdate("UPDATE stock SET quantity = quantity + ? "
+                + "WHERE variant_id = ? AND quantity + ? >= reserved", args);
+        List<Long> shortVariantIds = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                shortVariantIds.add(variantIds.get(i));
+            }
+        }
+        return shortVariantIds;
+    }
+
+    /**
+     * Moves quantity from available to reserved, one batched statement for all
+     * variants. Callers are expected to hold the row locks (see
+     * {@link #lockAvailable(Collection)}) and to have checked availability.
+     */
+    public void addReserved(Map<Long, Integer> quantityByVariantId) {
+        List<Object[]> args = new ArrayList<>();
+        for (Entry<Long, Integer> entry : quantityByVariantId.entrySet()) {
+            if (entry.getValue() > 0) {
+                args.add(new Object[] { entry.getValue(), entry.getKey() });
+            }
+        }
+        if (args.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("UPDATE stock SET reserved = reserved + ? WHERE variant_id = ?", args);
+    }
+
+    /**
+     * Turns holds into real deductions, one batched conditional statement for all
+     * variants. Returns {@code false} if any row no longer had the held quantity.
+     */
+    public boolean commitReserved(Map<Long, Integer> quantityByVariantId) {
+        List<Object[]> args = new ArrayList<>();
+        for (Entry<Long, Integer> entry : quantityByVariantId.entrySet()) {
+            if (entry.getValue() > 0) {
+                args.add(new Object[] { entry.getValue(), entry.getValue(), entry.getKey(), entry.getValue() });
+            }
+        }
+        if (args.isEmpty()) {
+            return true;
+        }
+        int[] counts = jdbcTemplate.batchUpdate("UPDATE stock SET quantity = quantity - ?, reserved = reserved - ? "
+                + "WHERE variant_id = ? AND reserved >= ?", args);
+        return Arrays.stream(counts).noneMatch(count -> count == 0);
+    }
+
+    /**
+     * Gives reserved quantity back to the available pool, one batched conditional
+     * statement for all variants. A row that holds less than the released quantity
+     * is left unchanged and its variant id is returned, so a double release or an
+     * accounting bug surfaces instead of being clamped away.
+     */
+    public List<Long> releaseReserved(Map<Long, Integer> quantityByVariantId) {
+        List<Long> variantIds = new ArrayList<>();
+        List<Object[]> args = new ArrayList<>();
+        for (Entry<Long, Integer> entry : quantityByVariantId.entrySet()) {
+            if (entry.getValue() > 0) {
+                variantIds.add(entry.getKey());
+                args.add(new Object[] { entry.getValue(), entry.getKey(), entry.getValue() });
+            }
+        }
+        if (args.isEmpty()) {
+            return Collections.emptyList();
+        }
+        int[] counts = jdbcTemplate.batchUpdate("UPDATE stock SET reserved = reserved - ? "
+                + "WHERE variant_id = ? AND reserved >= ?", args);
+        List<Long> shortVariantIds = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                shortVariantIds.add(variantIds.get(i));
+            }
+        }
+        return shortVariantIds;
+    }
+
+    /**
+     * Inserts the movements as one JDBC batch and returns their ids in input order.
+     * Ids come from the shared pooled sequence, so no generated-key round trip is needed.
+     * MySQL stamps {@code created_at}; {@link #findInserted} reads it back where a
+     * response needs it.
+     */
+    public List<Long> insertMovements(List<StockMovementRow> rows) {
+        if (rows == null || rows.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> ids = idSequenceRepository.allocate(IdSequences.STOCK_MOVEMENTS, rows.size());
+        List<Object[]> args = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            StockMovementRow row = rows.get(i);
+            args.add(new Object[] {
+                    ids.get(i),
+                    row.variantId(),
+                    row.changeQty(),
+                    row.movementType().name(),
+                    row.referenceId() });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO stock_movements (id, variant_id, change_qty, movement_type, "
+                + "reference_id, created_at) VALUES (?, ?, ?, ?, ?, CURRENT_TIMESTAMP)", args);
+        return ids;
+    }
+
+    /**
+     * {@code created_at} and variant label of movements inserted by the current
+     * transaction, one query for all of them. The one-day lower bound lets MySQL
+     * prune the lookup to the recent partitions.
+     */
+    public Map<Long, InsertedMovement> findInserted(Collection<Long> movementIds) {
+        Map<Long, InsertedMovement> inserted = new LinkedHashMap<>();
+        if (movementIds == null || movementIds.isEmpty()) {
+            return inserted;
+        }
+        jdbcTemplate.query("SELECT m.id, m.created_at, v.sku, v.variant_name FROM stock_movements m "
+                + "LEFT JOIN variants v ON v.id = m.variant_id WHERE m.id IN (" + placeholders(movementIds.size())
+                + ") AND m.created_at >= CURRENT_TIMESTAMP - INTERVAL 1 DAY", rs -> {
+                    inserted.put(rs.getLong("id"), new InsertedMovement(
+                            rs.getTimestamp("created_at").toInstant(),
+                            rs.getString("sku"),
+                            rs.getString("variant_name")));
+                }, movementIds.toArray());
+        return inserted;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.warehouse_inventory.repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Flat stock + variant row for the stock listing.
+ */
+public record StockListRow(
+        Long variantId,
+        Integer quantity,
+        Integer reserved,
+        Integer reorderPoint,
+        Boolean lowStock,
+        Instant updatedAt,
+        String sku,
+        String variantName,
+        BigDecimal price,
+        String attributes) {
+}
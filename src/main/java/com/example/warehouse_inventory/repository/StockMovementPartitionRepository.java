@@ -0,0 +1,112 @@
+package com.example.warehouse_inventory.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import com.example.warehouse_inventory.dto.StockMovementResponse;
+import com.example.warehouse_inventory.entity.StockMovementType;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Partition DDL for {@code stock_movements}, which is range-partitioned on
+ * {@code UNIX_TIMESTAMP(created_at)}. The last partition is always the
+ * {@code MAXVALUE} catch-all; new ranges are split off it.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StockMovementPartitionRepository {
+    public static final String TABLE = "stock_movements";
+    public static final String CATCH_ALL = "p_future";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param upperBound exclusive upper bound in epoch seconds, {@code null} for {@code MAXVALUE}
+     */
+    public record Partition(String name, Long upperBound) {
+    }
+
+    /**
+     * Partitions in range order; empty when the table is not partitioned.
+     */
+    public List<Partition> findPartitions() {
+        return jdbcTemplate.query(
+                "SELECT partition_name, partition_description FROM information_schema.partitions "
+                        + "WHERE table_schema = DATABASE() AND table_name = ? AND partition_name IS NOT NULL "
+                        + "ORDER BY partition_ordinal_position",
+                (rs, rowNum) -> {
+                    String description = rs.getString("partition_description");
+                    return new Partition(
+                            rs.getString("partition_name"),
+                            "MAXVALUE".equalsIgnoreCase(description) ? null : Long.parseLong(description));
+                },
+                TABLE);
+    }
+
+    /**
+     * Splits the catch-all partition into the given ranges, keeping the catch-all
+     * last. Cheap while the catch-all is empty, which is what running ahead of time
+     * ensures.
+     */
+    public void splitCatchAll(List<Partition> ranges) {
+        if (ranges.isEmpty()) {
+            return;
+        }
+        String definitions = ranges.stream()
+                .map(range -> "PARTITION " + range.name() + " VALUES LESS THAN (" + range.upperBound() + ")")
+                .collect(Collectors.joining(", "));
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " REORGANIZE PARTITION " + CATCH_ALL + " INTO ("
+                + definitions + ", PARTITION " + CATCH_ALL + " VALUES LESS THAN MAXVALUE)");
+    }
+
+    /**
+     * Streams one partition's rows ordered by variant id, created_at and id (the
+     * partition-local {@code (variant_id, created_at)} index) through MySQL's
+     * row-by-row result streaming.
+     */
+    public void streamPartition(String partitionName, Consumer<StockMovementResponse> consumer) {
+        String sql = "SELECT id, variant_id, change_qty, movement_type, reference_id, created_at FROM " + TABLE
+                + " PARTITION (" + partitionName + ") ORDER BY variant_id, created_at, id";
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(Integer.MIN_VALUE);
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(new StockMovementResponse(
+                rs.getLong("id"),
+                rs.getLong("variant_id"),
+                null,
+                null,
+                rs.getInt("change_qty"),
+                StockMovementType.valueOf(rs.getString("movement_type")),
+                rs.getString("reference_id"),
+                rs.getTimestamp("created_at").toInstant())));
+    }
+
+    public void dropPartition(String partitionName) {
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PARTITION " + partitionName);
+    }
+
+    /**
+     * Moves a partition's rows into a standalone {@code stock_movements_<name>}
+     * table with {@code EXCHANGE PARTITION} (a metadata swap, no row copy) and
+     * drops the emptied partition.
+     */
+    public String archive(String partitionName) {
+        String archiveTable = TABLE + "_" + partitionName;
+        jdbcTemplate.execute("CREATE TABLE " + archiveTable + " LIKE " + TABLE);
+        jdbcTemplate.execute("ALTER TABLE " + archiveTable + " REMOVE PARTITIONING");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " EXCHANGE PARTITION " + partitionName
+                + " WITH TABLE " + archiveTable);
+        dropPartition(partitionName);
+        return archiveTable;
+    }
+}
@@ -2,8 +2,23 @@ package com.example.warehouse_inventory.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.example.warehouse_inventory.dto.StockMovementResponse;
 import com.example.warehouse_inventory.entity.StockMovement;
 
-public interface StockMovementRepository extends JpaRepository<StockMovement, Long>, JpaSpecificationExecutor<StockMovement> {
+import java.util.List;
+
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long>, JpaSpecificationExecutor<StockMovement>,
+        StockMovementRepositoryCustom {
+    /**
+     * Exact match on {@code reference_id}; served by the
+     * {@code (reference_id, created_at)} index, which also yields the order.
+     */
+    @Query("SELECT new com.example.warehouse_inventory.dto.StockMovementResponse("
+            + "m.id, m.variantId, v.sku, v.variantName, m.changeQty, m.movementType, m.referenceId, m.createdAt) "
+            + "FROM StockMovement m LEFT JOIN m.variant v "
+            + "WHERE m.referenceId = :referenceId ORDER BY m.createdAt, m.id")
+    List<StockMovementResponse> findByReferenceId(@Param("referenceId") String referenceId);
 }
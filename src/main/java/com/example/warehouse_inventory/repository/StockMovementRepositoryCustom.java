@@ -0,0 +1,17 @@
+package com.example.warehouse_inventory.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.example.warehouse_inventory.dto.StockMovementResponse;
+import com.example.warehouse_inventory.entity.StockMovement;
+
+import java.util.stream.Stream;
+
+public interface StockMovementRepositoryCustom {
+    Slice<StockMovementResponse> findListRows(Specification<StockMovement> spec, Pageable pageable);
+
+    Stream<StockMovementResponse> streamListRows(Specification<StockMovement> spec, Sort sort);
+}
@@ -0,0 +1,52 @@
+package com.example.warehouse_inventory.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.example.warehouse_inventory.dto.StockMovementResponse;
+import com.example.warehouse_inventory.entity.StockMovement;
+import com.example.warehouse_inventory.entity.Variant;
+import com.example.warehouse_inventory.util.QueryJoins;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.util.stream.Stream;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+class StockMovementRepositoryCustomImpl implements StockMovementRepositoryCustom {
+    private final EntityManager entityManager;
+
+    @Override
+    public Slice<StockMovementResponse> findListRows(Specification<StockMovement> spec, Pageable pageable) {
+        return ProjectionQueries.slice(entityManager, StockMovement.class, StockMovementResponse.class, spec, pageable,
+                StockMovementRepositoryCustomImpl::select);
+    }
+
+    @Override
+    public Stream<StockMovementResponse> streamListRows(Specification<StockMovement> spec, Sort sort) {
+        return ProjectionQueries.stream(entityManager, StockMovement.class, StockMovementResponse.class, spec, sort,
+                StockMovementRepositoryCustomImpl::select);
+    }
+
+    private static Selection<StockMovementResponse> select(Root<StockMovement> root, CriteriaBuilder cb) {
+        Join<StockMovement, Variant> variant = QueryJoins.left(root, "variant");
+        return cb.construct(
+                StockMovementResponse.class,
+                root.get("id"),
+                root.get("variantId"),
+                variant.get("sku"),
+                variant.get("variantName"),
+                root.get("changeQty"),
+                root.get("movementType"),
+                root.get("referenceId"),
+                root.get("createdAt"));
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.warehouse_inventory.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Reads for the stock-vs-ledger reconciliation. Range reads stream rows
+ * (fetch size {@code Integer.MIN_VALUE}) and take no locks; only
+ * {@link #lockQuantities(Collection)} locks, and only the drifted rows.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StockReconciliationRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public record IdRange(long min, long max) {
+    }
+
+    public Optional<IdRange> findVariantIdRange() {
+        List<IdRange> ranges = jdbcTemplate.query(
+                "SELECT MIN(variant_id) AS min_id, MAX(variant_id) AS max_id FROM stock",
+                (rs, rowNum) -> rs.getObject("min_id") == null
+                        ? null
+                        : new IdRange(rs.getLong("min_id"), rs.getLong("max_id")));
+        return ranges.stream().filter(range -> range != null).findFirst();
+    }
+
+    public Map<Long, Long> findQuantities(long fromId, long toId) {
+        return streamPairs("SELECT variant_id, quantity AS value FROM stock WHERE variant_id BETWEEN ? AND ?",
+                fromId, toId);
+    }
+
+    public Map<Long, Long> sumMovements(long fromId, long toId) {
+        return streamPairs("SELECT variant_id, SUM(change_qty) AS value FROM stock_movements "
+                + "WHERE variant_id BETWEEN ? AND ? GROUP BY variant_id", fromId, toId);
+    }
+
+    /**
+     * Locks the given stock rows in variant id order and returns their quantity.
+     */
+    public Map<Long, Long> lockQuantities(Collection<Long> variantIds) {
+        Map<Long, Long> quantities = new HashMap<>();
+        jdbcTemplate.query("SELECT variant_id, quantity FROM stock WHERE variant_id IN ("
+                + placeholders(variantIds.size()) + ") ORDER BY variant_id FOR UPDATE",
+                (RowCallbackHandler) rs -> quantities.put(rs.getLong("variant_id"), rs.getLong("quantity")),
+                variantIds.toArray());
+        return quantities;
+    }
+
+    public Map<Long, Long> sumMovements(Collection<Long> variantIds) {
+        Map<Long, Long> sums = new HashMap<>();
+        jdbcTemplate.query("SELECT variant_id, SUM(change_qty) AS total FROM stock_movements WHERE variant_id IN ("
+                + placeholders(variantIds.size()) + ") GROUP BY variant_id",
+                (RowCallbackHandler) rs -> sums.put(rs.getLong("variant_id"), rs.getLong("total")),
+                variantIds.toArray());
+        return sums;
+    }
+
+    private Map<Long, Long> streamPairs(String sql, long fromId, long toId) {
+        Map<Long, Long> values = new HashMap<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(Integer.MIN_VALUE);
+            statement.setLong(1, fromId);
+            statement.setLong(2, toId);
+            return statement;
+        }, (RowCallbackHandler) rs -> values.put(rs.getLong("variant_id"), rs.getLong("value")));
+        return values;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
@@ -2,8 +2,19 @@ package com.example.warehouse_inventory.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.example.warehouse_inventory.entity.Stock;
 
-public interface StockRepository extends JpaRepository<Stock, Long>, JpaSpecificationExecutor<Stock> {
+public interface StockRepository extends JpaRepository<Stock, Long>, JpaSpecificationExecutor<Stock>, StockRepositoryCustom {
+    @Modifying
+    @Query(value = "UPDATE stock SET quantity = quantity + :changeQty "
+            + "WHERE variant_id = :variantId AND quantity + :changeQty >= reserved", nativeQuery = true)
+    int applyChangeIfSufficient(@Param("variantId") Long variantId, @Param("changeQty") int changeQty);
+
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO stock (variant_id, quantity) VALUES (:variantId, 0)", nativeQuery = true)
+    int insertEmptyIfAbsent(@Param("variantId") Long variantId);
 }
@@ -0,0 +1,16 @@
+package com.example.warehouse_inventory.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.example.warehouse_inventory.entity.Stock;
+
+import java.util.stream.Stream;
+
+public interface StockRepositoryCustom {
+    Slice<StockListRow> findListRows(Specification<Stock> spec, Pageable pageable);
+
+    Stream<StockListRow> streamListRows(Specification<Stock> spec, Sort sort);
+}
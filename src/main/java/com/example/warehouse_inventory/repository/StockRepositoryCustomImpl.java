@@ -0,0 +1,53 @@
+package com.example.warehouse_inventory.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.example.warehouse_inventory.entity.Stock;
+import com.example.warehouse_inventory.entity.Variant;
+import com.example.warehouse_inventory.util.QueryJoins;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.util.stream.Stream;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+class StockRepositoryCustomImpl implements StockRepositoryCustom {
+    private final EntityManager entityManager;
+
+    @Override
+    public Slice<StockListRow> findListRows(Specification<Stock> spec, Pageable pageable) {
+        return ProjectionQueries.slice(entityManager, Stock.class, StockListRow.class, spec, pageable,
+                StockRepositoryCustomImpl::select);
+    }
+
+    @Override
+    public Stream<StockListRow> streamListRows(Specification<Stock> spec, Sort sort) {
+        return ProjectionQueries.stream(entityManager, Stock.class, StockListRow.class, spec, sort,
+                StockRepositoryCustomImpl::select);
+    }
+
+    private static Selection<StockListRow> select(Root<Stock> root, CriteriaBuilder cb) {
+        Join<Stock, Variant> variant = QueryJoins.left(root, "variant");
+        return cb.construct(
+                StockListRow.class,
+                root.get("variantId"),
+                root.get("quantity"),
+                root.get("reserved"),
+                root.get("reorderPoint"),
+                root.get("lowStock"),
+                root.get("updatedAt"),
+                variant.get("sku"),
+                variant.get("variantName"),
+                variant.get("price"),
+                variant.get("attributes"));
+    }
+}
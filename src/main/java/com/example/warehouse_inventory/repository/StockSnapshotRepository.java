@@ -0,0 +1,133 @@
+package com.example.warehouse_inventory.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.ObjLongConsumer;
+
+import lombok.RequiredArgsConstructor;
+
+@Repository
+@RequiredArgsConstructor
+public class StockSnapshotRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public record StoredSnapshot(long id, Instant takenAt, Instant boundaryFrom, byte[] data) {
+    }
+
+    public record MovementDelta(long id, long variantId, int changeQty) {
+    }
+
+    /**
+     * Streams every stock row in variant id order.
+     */
+    public void forEachStockQuantity(ObjLongConsumer<Long> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "SELECT variant_id, quantity FROM stock ORDER BY variant_id",
+                    ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(Integer.MIN_VALUE);
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(rs.getLong("variant_id"), rs.getLong("quantity")));
+    }
+
+    public List<Long> findMovementIdsBetween(Instant from, Instant to) {
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM stock_movements WHERE created_at >= ? AND created_at <= ?",
+                Long.class,
+                Timestamp.from(from),
+                Timestamp.from(to));
+    }
+
+    public List<MovementDelta> findMovementDeltasBetween(Instant from, Instant to, Long variantId) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT id, variant_id, change_qty FROM stock_movements WHERE created_at >= ? AND created_at <= ?");
+        List<Object> args = new ArrayList<>(List.of(Timestamp.from(from), Timestamp.from(to)));
+        if (variantId != null) {
+            sql.append(" AND variant_id = ?");
+            args.add(variantId);
+        }
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new MovementDelta(
+                rs.getLong("id"),
+                rs.getLong("variant_id"),
+                rs.getInt("change_qty")), args.toArray());
+    }
+
+    /**
+     * Net change per variant for movements with {@code after < created_at <= to};
+     * {@code after} may be {@code null} for "since the beginning".
+     */
+    public Map<Long, Long> sumMovements(Instant after, Instant to, Long variantId) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT variant_id, SUM(change_qty) AS delta FROM stock_movements WHERE created_at <= ?");
+        List<Object> args = new ArrayList<>(List.of(Timestamp.from(to)));
+        if (after != null) {
+            sql.append(" AND created_at > ?");
+            args.add(Timestamp.from(after));
+        }
+        if (variantId != null) {
+            sql.append(" AND variant_id = ?");
+            args.add(variantId);
+        }
+        sql.append(" GROUP BY variant_id");
+        Map<Long, Long> deltas = new HashMap<>();
+        jdbcTemplate.query(sql.toString(), (RowCallbackHandler) rs -> deltas.put(rs.getLong("variant_id"),
+                rs.getLong("delta")), args.toArray());
+        return deltas;
+    }
+
+    public void insert(Instant takenAt, Instant boundaryFrom, int variantCount, byte[] data) {
+        jdbcTemplate.update(
+                "INSERT INTO stock_snapshots (taken_at, boundary_from, variant_count, data) VALUES (?, ?, ?, ?)",
+                Timestamp.from(takenAt),
+                Timestamp.from(boundaryFrom),
+                variantCount,
+                data);
+    }
+
+    /**
+     * Deletes snapshots taken more than {@code days} days before the database's
+     * current time.
+     */
+    public int deleteOlderThanDays(int days) {
+        return jdbcTemplate.update(
+                "DELETE FROM stock_snapshots WHERE taken_at < CURRENT_TIMESTAMP - INTERVAL ? DAY",
+                days);
+    }
+
+    public Optional<StoredSnapshot> findLatestAtOrBefore(Instant at) {
+        return jdbcTemplate.query(
+                "SELECT id, taken_at, boundary_from, data FROM stock_snapshots WHERE taken_at <= ? "
+                        + "ORDER BY taken_at DESC LIMIT 1",
+                (rs, rowNum) -> new StoredSnapshot(
+                        rs.getLong("id"),
+                        rs.getTimestamp("taken_at").toInstant(),
+                        rs.getTimestamp("boundary_from").toInstant(),
+                        rs.getBytes("data")),
+                Timestamp.from(at))
+                .stream()
+                .findFirst();
+    }
+
+    public Map<Long, String> findSkus(Long variantId) {
+        Map<Long, String> skus = new HashMap<>();
+        RowCallbackHandler handler = rs -> skus.put(rs.getLong("id"), rs.getString("sku"));
+        if (variantId == null) {
+            jdbcTemplate.query("SELECT id, sku FROM variants", handler);
+        } else {
+            jdbcTemplate.query("SELECT id, sku FROM variants WHERE id = ?", handler, variantId);
+        }
+        return skus;
+    }
+}
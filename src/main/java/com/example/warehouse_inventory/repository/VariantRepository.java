@@ -9,6 +9,8 @@ import org.springframework.data.repository.query.Param;
 
 import com.example.warehouse_inventory.entity.Variant;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface VariantRepository extends JpaRepository<Variant, Long>, JpaSpecificationExecutor<Variant> {
@@ -22,6 +24,9 @@ public interface VariantRepository extends JpaRepository<Variant, Long>, JpaSpec
 
     Optional<Variant> findBySkuIgnoreCase(String sku);
 
+    @Query("SELECT v.id FROM Variant v WHERE v.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
     @Query(value = "SELECT EXISTS(SELECT 1 FROM stock WHERE variant_id = :variantId)", nativeQuery = true)
     long existsStockByVariantId(@Param("variantId") Long variantId);
 
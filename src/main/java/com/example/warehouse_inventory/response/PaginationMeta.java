@@ -7,11 +7,44 @@ import com.fasterxml.jackson.databind.annotation.JsonNaming;
 public record PaginationMeta(
         long offset,
         int limit,
-        long total,
+        Long total,
         boolean hasNext,
         boolean hasPrevious,
         long currentOffset,
         long showingFrom,
-        long showingTo
+        long showingTo,
+        String nextCursor
 ) {
+    public static PaginationMeta ofOffset(long offset, int limit, Long total, long count, boolean hasNext) {
+        long showingFrom = count > 0 ? offset + 1 : 0;
+        long showingTo = offset + count;
+        return new PaginationMeta(
+                offset,
+                limit,
+                total,
+                hasNext,
+                offset > 0,
+                offset,
+                showingFrom,
+                showingTo,
+                null);
+    }
+
+    /**
+     * Cursor pages have no absolute position, so the total is omitted and the
+     * showing range is relative to the current page.
+     */
+    public static PaginationMeta ofKeyset(int limit, long count, boolean hasNext, boolean hasPrevious,
+            String nextCursor) {
+        return new PaginationMeta(
+                0,
+                limit,
+                null,
+                hasNext,
+                hasPrevious,
+                0,
+                count > 0 ? 1 : 0,
+                count,
+                nextCursor);
+    }
 }
@@ -88,7 +88,7 @@ public class DevDataSeeder implements CommandLineRunner {
             inventoryService.stockIn(factory.stockIn(
                     variant.id(),
                     baseQty,
-                    "PO-" + (++refIndex)));
+                    "PO-" + (++refIndex)), null);
             int currentQty = baseQty;
 
             if (currentQty > 0 && random.nextBoolean()) {
@@ -96,7 +96,7 @@ public class DevDataSeeder implements CommandLineRunner {
                 inventoryService.stockOut(factory.stockOut(
                         variant.id(),
                         outQty,
-                        "ORDER-" + (++refIndex)));
+                        "ORDER-" + (++refIndex)), null);
                 currentQty -= outQty;
             }
 
@@ -106,7 +106,7 @@ public class DevDataSeeder implements CommandLineRunner {
                     inventoryService.stockAdjust(factory.stockAdjust(
                             variant.id(),
                             adjust,
-                            "ADJ-" + (++refIndex)));
+                            "ADJ-" + (++refIndex)), null);
                 }
             }
         }
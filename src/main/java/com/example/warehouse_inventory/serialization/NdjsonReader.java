@@ -0,0 +1,30 @@
+package com.example.warehouse_inventory.serialization;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class NdjsonReader {
+    private NdjsonReader() {
+    }
+
+    /**
+     * Reads newline-delimited JSON objects one at a time from the stream, so the
+     * raw payload is never buffered as a whole. Stops after {@code maxValues}
+     * objects; callers pass one more than they accept to detect an oversized body
+     * without reading the rest of it.
+     */
+    public static <T> List<T> readAll(ObjectMapper objectMapper, InputStream body, Class<T> type, int maxValues)
+            throws IOException {
+        List<T> values = new ArrayList<>();
+        try (MappingIterator<T> iterator = objectMapper.readerFor(type).readValues(body)) {
+            while (values.size() < maxValues && iterator.hasNextValue()) {
+                values.add(iterator.nextValue());
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.warehouse_inventory.serialization;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compact encoding of a stock snapshot: quantities as (variant id delta varint,
+ * zigzag quantity varint) pairs in variant id order, then the sorted ids of
+ * boundary movements as delta varints, all deflated.
+ */
+public final class StockSnapshotCodec {
+
+    private StockSnapshotCodec() {
+    }
+
+    public record Snapshot(Map<Long, Long> quantities, Set<Long> boundaryMovementIds) {
+    }
+
+    public static final class Encoder {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final OutputStream out = new DeflaterOutputStream(bytes);
+        private long previousVariantId;
+        private int count;
+
+        /**
+         * Variant ids must be added in ascending order.
+         */
+        public void add(long variantId, long quantity) {
+            if (count > 0 && variantId <= previousVariantId) {
+                throw new IllegalStateException("Variant ids must be ascending");
+            }
+            writeVarLong(out, variantId - previousVariantId);
+            writeVarLong(out, zigzag(quantity));
+            previousVariantId = variantId;
+            count++;
+        }
+
+        public int count() {
+            return count;
+        }
+
+        public byte[] finish(Collection<Long> boundaryMovementIds) {
+            long[] ids = boundaryMovementIds.stream().mapToLong(Long::longValue).sorted().toArray();
+            // a zero delta cannot appear between variants, so it marks the boundary section
+            writeVarLong(out, 0);
+            writeVarLong(out, ids.length);
+            long previous = 0;
+            for (long id : ids) {
+                writeVarLong(out, id - previous);
+                previous = id;
+            }
+            try {
+                out.close();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            return bytes.toByteArray();
+        }
+    }
+
+    public static Snapshot decode(byte[] data) {
+        Map<Long, Long> quantities = new LinkedHashMap<>();
+        Set<Long> boundaryIds = new HashSet<>();
+        try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(data))) {
+            long variantId = 0;
+            long delta;
+            while ((delta = readVarLong(in)) != 0) {
+                variantId += delta;
+                quantities.put(variantId, unzigzag(readVarLong(in)));
+            }
+            long idCount = readVarLong(in);
+            long id = 0;
+            for (long i = 0; i < idCount; i++) {
+                id += readVarLong(in);
+                boundaryIds.add(id);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return new Snapshot(quantities, boundaryIds);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarLong(OutputStream out, long value) {
+        try {
+            while ((value & ~0x7FL) != 0) {
+                out.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.write((int) value);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static long readVarLong(InputStream in) throws IOException {
+        long value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in.read();
+            if (b < 0) {
+                throw new IOException("Truncated snapshot");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.warehouse_inventory.serialization;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+public final class StreamingExport {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private StreamingExport() {
+    }
+
+    /**
+     * Writes rows to the response as they arrive from the stream, through a fixed
+     * size buffer, so memory use does not depend on the number of rows.
+     */
+    public static <R> void write(
+            Stream<R> rows,
+            ExportFormat format,
+            OutputStream out,
+            ObjectMapper objectMapper,
+            List<String> header,
+            Function<R, List<?>> columns) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        ObjectWriter jsonWriter = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        if (format == ExportFormat.CSV) {
+            writeCsvLine(writer, header);
+        }
+        Iterator<R> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            R row = iterator.next();
+            if (format == ExportFormat.CSV) {
+                writeCsvLine(writer, columns.apply(row));
+            } else {
+                jsonWriter.writeValue(writer, row);
+                writer.write('\n');
+            }
+        }
+        writer.flush();
+    }
+
+    private static void writeCsvLine(Writer writer, List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = values.get(i);
+            if (value instanceof CharSequence text) {
+                writer.write(escapeCsv(neutralizeFormula(text.toString())));
+            } else if (value != null) {
+                writer.write(escapeCsv(value.toString()));
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * Spreadsheets evaluate a cell that starts with {@code = + - @} (or a tab or
+     * carriage return ahead of one) as a formula. Text cells that start that way
+     * get a leading apostrophe so they open as plain text. Numbers are written
+     * untouched, so negative quantities stay numeric.
+     */
+    static String neutralizeFormula(String value) {
+        if (value.isEmpty()) {
+            return value;
+        }
+        return switch (value.charAt(0)) {
+            case '=', '+', '-', '@', '\t', '\r' -> "'" + value;
+            default -> value;
+        };
+    }
+
+    private static String escapeCsv(String value) {
+        boolean quote = value.indexOf(',') >= 0
+                || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0
+                || value.indexOf('\r') >= 0;
+        return quote ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+}
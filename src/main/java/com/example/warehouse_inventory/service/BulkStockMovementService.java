@@ -0,0 +1,208 @@
+package com.example.warehouse_inventory.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.warehouse_inventory.dto.BulkStockMovementLineResult;
+import com.example.warehouse_inventory.dto.BulkStockMovementLineResult.Status;
+import com.example.warehouse_inventory.dto.BulkStockMovementMode;
+import com.example.warehouse_inventory.dto.BulkStockMovementResponse;
+import com.example.warehouse_inventory.dto.StockMovementLineRequest;
+import com.example.warehouse_inventory.dto.StockMovementResponse;
+import com.example.warehouse_inventory.entity.StockMovementType;
+import com.example.warehouse_inventory.exception.InvalidRequestException;
+import com.example.warehouse_inventory.repository.StockJdbcRepository;
+import com.example.warehouse_inventory.repository.StockJdbcRepository.InsertedMovement;
+import com.example.warehouse_inventory.repository.StockJdbcRepository.StockMovementRow;
+import com.example.warehouse_inventory.repository.VariantRepository;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+@Service
+public class BulkStockMovementService {
+    private final StockJdbcRepository stockJdbcRepository;
+    private final VariantRepository variantRepository;
+    private final Validator validator;
+    private final LowStockWatcher lowStockWatcher;
+    private final int maxLines;
+    private final BulkStockMovementMode defaultMode;
+
+    public BulkStockMovementService(
+            StockJdbcRepository stockJdbcRepository,
+            VariantRepository variantRepository,
+            Validator validator,
+            LowStockWatcher lowStockWatcher,
+            @Value("${inventory.bulk.max-lines:5000}") int maxLines,
+            @Value("${inventory.bulk.default-mode:atomic}") String defaultMode) {
+        this.stockJdbcRepository = stockJdbcRepository;
+        this.variantRepository = variantRepository;
+        this.validator = validator;
+        this.lowStockWatcher = lowStockWatcher;
+        this.maxLines = maxLines;
+        this.defaultMode = BulkStockMovementMode.from(defaultMode, BulkStockMovementMode.ATOMIC);
+    }
+
+    public int maxLines() {
+        return maxLines;
+    }
+
+    /**
+     * Applies a batch of IN/OUT/ADJUST lines in one transaction. In {@code ATOMIC} mode
+     * a single rejected line leaves stock untouched; in {@code BEST_EFFORT} mode the
+     * valid lines are applied and the rest are reported back per line.
+     */
+    @Transactional
+    public BulkStockMovementResponse apply(List<StockMovementLineRequest> lines, String requestedMode) {
+        if (lines == null || lines.isEmpty()) {
+            throw new InvalidRequestException("Movement lines are required");
+        }
+        if (lines.size() > maxLines) {
+            throw new InvalidRequestException("Too many movement lines (max " + maxLines + ")");
+        }
+        BulkStockMovementMode mode = BulkStockMovementMode.from(requestedMode, defaultMode);
+        String[] errors = new String[lines.size()];
+        int[] changeQty = new int[lines.size()];
+
+        Set<Long> requestedIds = new TreeSet<>();
+        for (int i = 0; i < lines.size(); i++) {
+            errors[i] = validate(lines.get(i));
+            if (errors[i] == null) {
+                StockMovementLineRequest line = lines.get(i);
+                changeQty[i] = line.movementType().normalize(line.quantity());
+                requestedIds.add(line.variantId());
+            }
+        }
+
+        Set<Long> existingIds = requestedIds.isEmpty()
+                ? Set.of()
+                : new HashSet<>(variantRepository.findExistingIds(requestedIds));
+        for (int i = 0; i < lines.size(); i++) {
+            if (errors[i] == null && !existingIds.contains(lines.get(i).variantId())) {
+                errors[i] = "Variant not found";
+            }
+        }
+        if (mode == BulkStockMovementMode.ATOMIC && hasErrors(errors)) {
+            return notApplied(mode, errors);
+        }
+
+        Set<Long> variantIds = new TreeSet<>(existingIds);
+        Map<Long, Integer> available = stockJdbcRepository.lockAvailable(variantIds);
+        if (available.size() < variantIds.size()) {
+            Set<Long> missing = new TreeSet<>(variantIds);
+            missing.removeAll(available.keySet());
+            stockJdbcRepository.insertEmptyIfAbsent(missing);
+            available.putAll(stockJdbcRepository.lockAvailable(missing));
+        }
+
+        Map<Long, Integer> deltas = new TreeMap<>();
+        for (int i = 0; i < lines.size(); i++) {
+            if (errors[i] != null) {
+                continue;
+            }
+            Long variantId = lines.get(i).variantId();
+            int updated = available.getOrDefault(variantId, 0) + changeQty[i];
+            if (updated < 0) {
+                errors[i] = "Stock is not enough";
+                continue;
+            }
+            available.put(variantId, updated);
+            deltas.merge(variantId, changeQty[i], Integer::sum);
+        }
+        if (mode == BulkStockMovementMode.ATOMIC && hasErrors(errors)) {
+            return notApplied(mode, errors);
+        }
+
+        List<Integer> appliedIndexes = new ArrayList<>();
+        List<StockMovementRow> rows = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            if (errors[i] == null) {
+                StockMovementLineRequest line = lines.get(i);
+                appliedIndexes.add(i);
+                rows.add(new StockMovementRow(
+                        line.variantId(),
+                        changeQty[i],
+                        line.movementType(),
+                        line.referenceId()));
+            }
+        }
+        stockJdbcRepository.applyDeltas(deltas);
+        lowStockWatcher.afterDeltas(deltas);
+        List<Long> ids = stockJdbcRepository.insertMovements(rows);
+        Map<Long, InsertedMovement> inserted = stockJdbcRepository.findInserted(ids);
+
+        StockMovementResponse[] movements = new StockMovementResponse[lines.size()];
+        for (int i = 0; i < appliedIndexes.size(); i++) {
+            StockMovementRow row = rows.get(i);
+            InsertedMovement movement = inserted.get(ids.get(i));
+            movements[appliedIndexes.get(i)] = new StockMovementResponse(
+                    ids.get(i),
+                    row.variantId(),
+                    movement.sku(),
+                    movement.variantName(),
+                    row.changeQty(),
+                    row.movementType(),
+                    row.referenceId(),
+                    movement.createdAt());
+        }
+
+        List<BulkStockMovementLineResult> results = new ArrayList<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            results.add(errors[i] == null
+                    ? new BulkStockMovementLineResult(i, Status.APPLIED, movements[i], null)
+                    : new BulkStockMovementLineResult(i, Status.REJECTED, null, errors[i]));
+        }
+        return new BulkStockMovementResponse(
+                mode,
+                true,
+                appliedIndexes.size(),
+                lines.size() - appliedIndexes.size(),
+                results);
+    }
+
+    private String validate(StockMovementLineRequest line) {
+        if (line == null) {
+            return "Line is required";
+        }
+        Set<ConstraintViolation<StockMovementLineRequest>> violations = validator.validate(line);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .findFirst()
+                    .orElse("Invalid line");
+        }
+        if (line.movementType() != StockMovementType.ADJUST && line.quantity() < 1) {
+            return "Quantity must be greater than zero";
+        }
+        return null;
+    }
+
+    private boolean hasErrors(String[] errors) {
+        return Arrays.stream(errors).anyMatch(error -> error != null);
+    }
+
+    private BulkStockMovementResponse notApplied(BulkStockMovementMode mode, String[] errors) {
+        List<BulkStockMovementLineResult> results = new ArrayList<>(errors.length);
+        int rejected = 0;
+        for (int i = 0; i < errors.length; i++) {
+            if (errors[i] != null) {
+                rejected++;
+                results.add(new BulkStockMovementLineResult(i, Status.REJECTED, null, errors[i]));
+            } else {
+                results.add(new BulkStockMovementLineResult(i, Status.SKIPPED, null, null));
+            }
+        }
+        return new BulkStockMovementResponse(mode, false, 0, rejected, results);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.warehouse_inventory.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class IdempotencyKeySweeper {
+    private final IdempotencyService idempotencyService;
+    private final int batchSize;
+
+    public IdempotencyKeySweeper(
+            IdempotencyService idempotencyService,
+            @Value("${inventory.idempotency.sweep-batch-size:1000}") int batchSize) {
+        this.idempotencyService = idempotencyService;
+        this.batchSize = Math.max(batchSize, 1);
+    }
+
+    @Scheduled(
+            initialDelayString = "${inventory.idempotency.sweep-interval-ms:600000}",
+            fixedDelayString = "${inventory.idempotency.sweep-interval-ms:600000}")
+    public void sweep() {
+        int deleted;
+        do {
+            deleted = idempotencyService.purgeExpired(batchSize);
+        } while (deleted == batchSize);
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.warehouse_inventory.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.warehouse_inventory.exception.DataAlreadyExistsException;
+import com.example.warehouse_inventory.exception.InvalidRequestException;
+import com.example.warehouse_inventory.repository.IdempotencyKeyRepository;
+import com.example.warehouse_inventory.repository.IdempotencyKeyRepository.StoredResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Runs a write at most once per {@code Idempotency-Key}. The key is claimed in
+ * the same transaction as the write and the response is stored with it, so a
+ * failed write releases the key and a committed one can be replayed. Replays
+ * are served from an in-memory LRU cache in front of the table; only a miss
+ * (another node, a restart or an evicted key) reads MySQL.
+ */
+@Service
+public class IdempotencyService {
+    private static final int MAX_KEY_LENGTH = 128;
+    private static final int STRIPES = 16;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transaction;
+    private final Duration ttl;
+    private final boolean referenceIdAsKey;
+    private final LruStripe[] stripes = new LruStripe[STRIPES];
+
+    public IdempotencyService(
+            IdempotencyKeyRepository idempotencyKeyRepository,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${inventory.idempotency.ttl-hours:24}") long ttlHours,
+            @Value("${inventory.idempotency.cache-max-entries:10000}") int cacheMaxEntries,
+            @Value("${inventory.idempotency.reference-id-as-key:false}") boolean referenceIdAsKey) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.objectMapper = objectMapper;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.ttl = Duration.ofHours(Math.max(ttlHours, 1));
+        this.referenceIdAsKey = referenceIdAsKey;
+        int perStripe = Math.max(cacheMaxEntries / STRIPES, 1);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new LruStripe(perStripe);
+        }
+    }
+
+    /**
+     * Key for a stock movement request: the header if present, otherwise the
+     * variant and reference id when {@code inventory.idempotency.reference-id-as-key}
+     * is on, otherwise {@code null}.
+     */
+    public String movementKey(String idempotencyKey, Long variantId, String referenceId) {
+        if (idempotencyKey != null && !idempotencyKey.isBlank()) {
+            return idempotencyKey;
+        }
+        if (referenceIdAsKey && variantId != null && referenceId != null && !referenceId.isBlank()) {
+            return variantId + ":" + referenceId.trim();
+        }
+        return null;
+    }
+
+    /**
+     * Returns the stored response of an earlier request with the same scope and
+     * key, or runs {@code action} in a new transaction and stores its response.
+     * Without a key, {@code action} simply runs.
+     */
+    public <T> T execute(String scope, String key, Object request, Class<T> responseType, Supplier<T> action) {
+        return execute(scope, key, request, responseType, action, response -> true);
+    }
+
+    /**
+     * Like {@link #execute(String, String, Object, Class, Supplier)}, but a
+     * response rejected by {@code store} rolls the transaction back instead of
+     * being stored, so the key stays free for a corrected retry.
+     */
+    public <T> T execute(String scope, String key, Object request, Class<T> responseType, Supplier<T> action,
+            Predicate<T> store) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        String normalizedKey = key.trim();
+        if (normalizedKey.length() > MAX_KEY_LENGTH) {
+            throw new InvalidRequestException("Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = hash(request);
+        String cacheKey = scope + "|" + normalizedKey;
+        LruStripe stripe = stripes[Math.floorMod(cacheKey.hashCode(), STRIPES)];
+        Instant now = Instant.now();
+
+        Cached cached = stripe.get(cacheKey);
+        if (cached != null && cached.expiresAt().isAfter(now)) {
+            return replay(cached.requestHash(), requestHash, responseType.cast(cached.response()));
+        }
+
+        T response;
+        try {
+            response = transaction.execute(status -> {
+                try {
+                    idempotencyKeyRepository.claim(scope, normalizedKey, requestHash, now);
+                } catch (DuplicateKeyException ex) {
+                    throw new KeyTakenException();
+                }
+                T result = action.get();
+                if (!store.test(result)) {
+                    status.setRollbackOnly();
+                    return result;
+                }
+                idempotencyKeyRepository.complete(scope, normalizedKey, write(result));
+                return result;
+            });
+        } catch (KeyTakenException ex) {
+            StoredResponse stored = idempotencyKeyRepository.find(scope, normalizedKey)
+                    .orElseThrow(() -> new DataAlreadyExistsException("Request with this Idempotency-Key is in progress"));
+            response = read(stored.responseBody(), responseType);
+            stripe.put(cacheKey, new Cached(stored.requestHash(), response, stored.createdAt().plus(ttl)));
+            return replay(stored.requestHash(), requestHash, response);
+        }
+        if (store.test(response)) {
+            stripe.put(cacheKey, new Cached(requestHash, response, now.plus(ttl)));
+        }
+        return response;
+    }
+
+    /**
+     * Deletes up to {@code limit} keys older than the retention period.
+     */
+    public int purgeExpired(int limit) {
+        return idempotencyKeyRepository.deleteCreatedBefore(Instant.now().minus(ttl), limit);
+    }
+
+    private static <T> T replay(String storedHash, String requestHash, T response) {
+        if (!storedHash.equals(requestHash)) {
+            throw new InvalidRequestException("Idempotency-Key was already used with a different request");
+        }
+        return response;
+    }
+
+    private String hash(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Cannot fingerprint request", ex);
+        }
+    }
+
+    private String write(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot store response", ex);
+        }
+    }
+
+    private <T> T read(String body, Class<T> responseType) {
+        try {
+            return objectMapper.readValue(body, responseType);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot read stored response", ex);
+        }
+    }
+
+    private static final class KeyTakenException extends RuntimeException {
+        private KeyTakenException() {
+            super(null, null, false, false);
+        }
+    }
+
+    private record Cached(String requestHash, Object response, Instant expiresAt) {
+    }
+
+    /**
+     * Access-ordered map that drops its least recently used entry once full.
+     * Striping keeps concurrent probes from serializing on a single lock.
+     */
+    private static final class LruStripe {
+        private final Map<String, Cached> entries;
+
+        private LruStripe(int maxEntries) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Cached> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+        }
+
+        private synchronized Cached get(String key) {
+            return entries.get(key);
+        }
+
+        private synchronized void put(String key, Cached value) {
+            entries.put(key, value);
+        }
+    }
+}
@@ -1,15 +1,12 @@
 package com.example.warehouse_inventory.service;
 
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import com.example.warehouse_inventory.dto.StockAdjustRequest;
 import com.example.warehouse_inventory.dto.StockInRequest;
 import com.example.warehouse_inventory.dto.StockMovementResponse;
 import com.example.warehouse_inventory.dto.StockOutRequest;
-import com.example.warehouse_inventory.entity.StockMovement;
 import com.example.warehouse_inventory.entity.StockMovementType;
-import com.example.warehouse_inventory.mapper.StockMovementMapper;
 
 import lombok.RequiredArgsConstructor;
 
@@ -17,34 +14,57 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class InventoryService {
     private final StockMovementService stockMovementService;
+    private final StockWriteCombiner stockWriteCombiner;
+    private final IdempotencyService idempotencyService;
 
-    @Transactional
-    public StockMovementResponse stockIn(StockInRequest req) {
-        StockMovement movement = stockMovementService.create(
+    public StockMovementResponse stockIn(StockInRequest req, String idempotencyKey) {
+        return record(
+                req,
+                idempotencyKey,
                 req.variantId(),
                 req.quantity(),
                 StockMovementType.IN,
                 req.referenceId());
-        return StockMovementMapper.toResponse(movement);
     }
 
-    @Transactional
-    public StockMovementResponse stockOut(StockOutRequest req) {
-        StockMovement movement = stockMovementService.create(
+    public StockMovementResponse stockOut(StockOutRequest req, String idempotencyKey) {
+        return record(
+                req,
+                idempotencyKey,
                 req.variantId(),
                 req.quantity(),
                 StockMovementType.OUT,
                 req.referenceId());
-        return StockMovementMapper.toResponse(movement);
     }
 
-    @Transactional
-    public StockMovementResponse stockAdjust(StockAdjustRequest req) {
-        StockMovement movement = stockMovementService.create(
+    public StockMovementResponse stockAdjust(StockAdjustRequest req, String idempotencyKey) {
+        return record(
+                req,
+                idempotencyKey,
                 req.variantId(),
                 req.changeQty(),
                 StockMovementType.ADJUST,
                 req.referenceId());
-        return StockMovementMapper.toResponse(movement);
+    }
+
+    /**
+     * Keyed requests bypass the write combiner: the movement has to commit in the
+     * same transaction that claims the key.
+     */
+    private StockMovementResponse record(Object request, String idempotencyKey, Long variantId, int changeQty,
+            StockMovementType movementType, String referenceId) {
+        String key = idempotencyService.movementKey(idempotencyKey, variantId, referenceId);
+        if (key != null) {
+            return idempotencyService.execute(
+                    "inventory/" + movementType.name().toLowerCase(),
+                    key,
+                    request,
+                    StockMovementResponse.class,
+                    () -> stockMovementService.record(variantId, changeQty, movementType, referenceId));
+        }
+        if (stockWriteCombiner.isEnabled()) {
+            return stockWriteCombiner.submit(variantId, changeQty, movementType, referenceId);
+        }
+        return stockMovementService.record(variantId, changeQty, movementType, referenceId);
     }
 }
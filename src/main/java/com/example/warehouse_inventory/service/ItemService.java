@@ -1,6 +1,5 @@
 package com.example.warehouse_inventory.service;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
@@ -17,18 +16,18 @@ import com.example.warehouse_inventory.mapper.ItemMapper;
 import com.example.warehouse_inventory.repository.ItemRepository;
 import com.example.warehouse_inventory.response.PaginatedResponse;
 import com.example.warehouse_inventory.response.PaginationMeta;
-import com.example.warehouse_inventory.util.FilterFieldResolver;
-import com.example.warehouse_inventory.util.FilterPredicateBuilder;
-import com.example.warehouse_inventory.util.FilterValueParser;
+import com.example.warehouse_inventory.service.PageFetcher.OffsetPage;
+import com.example.warehouse_inventory.util.FilterEngine;
+import com.example.warehouse_inventory.util.FilterFieldType;
+import com.example.warehouse_inventory.util.FilterPlan;
+import com.example.warehouse_inventory.util.FilterSchema;
+import com.example.warehouse_inventory.util.FullTextSearch;
+import com.example.warehouse_inventory.util.KeysetPager;
+import com.example.warehouse_inventory.util.KeysetPager.KeysetSlice;
 import com.example.warehouse_inventory.util.OffsetBasedPageRequest;
+import com.example.warehouse_inventory.util.TotalCountMode;
 
-import jakarta.persistence.criteria.Predicate;
-
-import java.time.Instant;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
 
 import lombok.RequiredArgsConstructor;
 
@@ -36,17 +35,16 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class ItemService {
     private final ItemRepository itemRepository;
+    private final PageFetcher pageFetcher;
 
-    private static final Map<String, String> FIELD_MAP = Map.of(
-            "id", "id",
-            "name", "name",
-            "description", "description",
-            "active", "active",
-            "createdat", "createdAt",
-            "created_at", "createdAt",
-            "updatedat", "updatedAt",
-            "updated_at", "updatedAt");
-    private static final Set<String> STRING_FIELDS = Set.of("name", "description");
+    private static final FilterEngine<Item> FILTERS = new FilterEngine<>(FilterSchema.builder()
+            .field("id", FilterFieldType.LONG)
+            .field("name", FilterFieldType.STRING)
+            .field("description", FilterFieldType.STRING)
+            .field("active", FilterFieldType.BOOLEAN)
+            .field("createdAt", FilterFieldType.INSTANT, "created_at")
+            .field("updatedAt", FilterFieldType.INSTANT, "updated_at")
+            .build());
 
     @Transactional
     public ItemResponse create(CreateItemRequest req) {
@@ -107,46 +105,64 @@ public class ItemService {
             String search,
             String sortBy,
             String sortDirection,
-            List<FilterRequest> filters) {
+            List<FilterRequest> filters,
+            String cursor,
+            String includeTotal) {
         String sortField = (sortBy == null || sortBy.isBlank()) ? "id" : sortBy;
         String safeSort = switch (sortField) {
             case "id", "name", "description", "active", "createdAt", "updatedAt" -> sortField;
             default -> "id";
         };
+        boolean relevance = "relevance".equals(sortField) && cursor == null;
         Sort.Direction direction = Sort.Direction.fromOptionalString(sortDirection).orElse(Sort.Direction.ASC);
         Sort sort = Sort.by(direction, safeSort);
 
-        OffsetBasedPageRequest pageable = new OffsetBasedPageRequest(offset, limit, sort);
         Specification<Item> spec = (root, query, cb) -> cb.conjunction();
         if (search != null && !search.isBlank()) {
-            String lowerPattern = "%" + search.toLowerCase() + "%";
-            String rawPattern = "%" + search + "%";
-            spec = spec.and((root, query, cb) -> cb.or(
-                    // cb.like(cb.lower(root.get("name")), lowerPattern)
-                    // // cb.like(cb.lower(root.get("description")), pattern)));
-                    // cb.like(root.get("description"), rawPattern)));
-                    cb.like(cb.lower(root.get("name")), lowerPattern)));
+            Specification<Item> textSpec = FullTextSearch.matching(search, "name", "description", relevance);
+            if (textSpec != null) {
+                spec = spec.and(textSpec);
+                if (relevance) {
+                    sort = Sort.unsorted();
+                }
+            } else {
+                String lowerPattern = "%" + search.toLowerCase() + "%";
+                spec = spec.and((root, query, cb) -> cb.like(cb.lower(root.get("name")), lowerPattern));
+            }
         }
-        spec = spec.and(buildFilterSpec(filters));
-        Page<Item> page = itemRepository.findAll(spec, pageable);
-
-        List<ItemResponse> items = page.getContent().stream()
+        OffsetBasedPageRequest pageable = new OffsetBasedPageRequest(offset, limit, sort);
+        FilterPlan<Item> filterPlan = FILTERS.compile(filters);
+        spec = spec.and(filterPlan);
+        if (cursor != null) {
+            KeysetSlice<Item> slice = KeysetPager.fetch(itemRepository, spec, safeSort, "id", direction, limit, cursor);
+            List<ItemResponse> items = slice.content().stream()
+                    .map(ItemMapper::toResponse)
+                    .toList();
+            PaginationMeta meta = PaginationMeta.ofKeyset(
+                    limit,
+                    items.size(),
+                    slice.hasNext(),
+                    !cursor.isBlank(),
+                    slice.nextCursor());
+            return new PaginatedResponse<>(items, meta);
+        }
+        OffsetPage<Item> page = pageFetcher.fetch(
+                itemRepository,
+                spec,
+                pageable,
+                TotalCountMode.from(includeTotal),
+                "items",
+                PageFetcher.filterKey(search, filterPlan.conditions()));
+
+        List<ItemResponse> items = page.content().stream()
                 .map(ItemMapper::toResponse)
                 .toList();
-        long total = page.getTotalElements();
-        long count = items.size();
-        long showingFrom = count > 0 ? (long) offset + 1 : 0;
-        long showingTo = (long) offset + count;
-
-        PaginationMeta meta = new PaginationMeta(
+        PaginationMeta meta = PaginationMeta.ofOffset(
                 offset,
                 limit,
-                total,
-                (offset + count) < total,
-                offset > 0,
-                offset,
-                showingFrom,
-                showingTo);
+                page.total(),
+                items.size(),
+                page.hasNext());
         return new PaginatedResponse<>(items, meta);
     }
 
@@ -155,98 +171,4 @@ public class ItemService {
         Item result = itemRepository.findById(id).orElseThrow(() -> new NotFoundException("Item not found"));
         return ItemMapper.toResponse(result);
     }
-
-    private Specification<Item> buildFilterSpec(List<FilterRequest> filters) {
-        if (filters == null || filters.isEmpty()) {
-            return (root, query, cb) -> cb.conjunction();
-        }
-        return (root, query, cb) -> {
-            List<Predicate> predicates = new ArrayList<>();
-            for (FilterRequest filter : filters) {
-                if (filter == null || filter.field() == null) {
-                    continue;
-                }
-                String field = FilterFieldResolver.resolve(FIELD_MAP, filter.field());
-                if (field == null) {
-                    continue;
-                }
-                String operator = (filter.operator() == null || filter.operator().isBlank())
-                        ? "="
-                        : filter.operator().trim().toLowerCase();
-                String rawValue = filter.value();
-                if (rawValue == null || rawValue.isBlank()) {
-                    continue;
-                }
-
-                switch (operator) {
-                    case "=" -> {
-                        Object value = convertValue(field, rawValue);
-                        if (value != null) {
-                            predicates.add(cb.equal(root.get(field), value));
-                        }
-                    }
-                    case "!=" -> {
-                        Object value = convertValue(field, rawValue);
-                        if (value != null) {
-                            predicates.add(cb.notEqual(root.get(field), value));
-                        }
-                    }
-                    case ">", "<", ">=", "<=" -> FilterPredicateBuilder.addComparablePredicate(
-                            predicates,
-                            root.get(field),
-                            operator,
-                            rawValue,
-                            cb,
-                            value -> convertValue(field, value));
-                    case "contains" -> {
-                        if (STRING_FIELDS.contains(field)) {
-                            String pattern = "%" + rawValue.toLowerCase() + "%";
-                            predicates.add(cb.like(cb.lower(root.get(field)), pattern));
-                        }
-                    }
-                    case "in" -> {
-                        List<Object> values = FilterValueParser.parseValues(
-                                rawValue,
-                                value -> convertValue(field, value));
-                        if (!values.isEmpty()) {
-                            predicates.add(root.get(field).in(values));
-                        }
-                    }
-                    case "between" -> {
-                        List<Object> values = FilterValueParser.parseValues(
-                                rawValue,
-                                value -> convertValue(field, value));
-                        if (values.size() == 2
-                                && values.get(0) instanceof Comparable
-                                && values.get(1) instanceof Comparable) {
-                            predicates.add(cb.between(
-                                    root.get(field).as(Comparable.class),
-                                    (Comparable) values.get(0),
-                                    (Comparable) values.get(1)));
-                        }
-                    }
-                    default -> {
-                    }
-                }
-            }
-            return predicates.isEmpty() ? cb.conjunction() : cb.and(predicates.toArray(new Predicate[0]));
-        };
-    }
-
-    private Object convertValue(String field, String rawValue) {
-        String trimmed = rawValue.trim();
-        if (trimmed.isEmpty()) {
-            return null;
-        }
-        try {
-            return switch (field) {
-                case "id" -> Long.parseLong(trimmed);
-                case "active" -> FilterValueParser.parseBoolean(trimmed);
-                case "createdAt", "updatedAt" -> Instant.parse(trimmed);
-                default -> trimmed;
-            };
-        } catch (RuntimeException ex) {
-            return null;
-        }
-    }
 }
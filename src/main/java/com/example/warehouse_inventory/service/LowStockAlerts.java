@@ -0,0 +1,120 @@
+package com.example.warehouse_inventory.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.annotation.PreDestroy;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes committed {@link LowStockEvent}s to every open server-sent events
+ * subscription. Events of rolled-back writes are never delivered.
+ *
+ * <p>The committing thread only offers the event to each subscriber's bounded
+ * queue; a virtual thread per busy subscriber does the network writes. A
+ * subscriber whose queue is full is too slow to keep up and is disconnected, so
+ * a stalled client can neither block a stock write nor hold events for the
+ * others.
+ */
+@Component
+public class LowStockAlerts {
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ExecutorService sender = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("low-stock-alerts-", 0).factory());
+    private final int queueCapacity;
+
+    public LowStockAlerts(@Value("${inventory.stock.low-alerts.queue-capacity:256}") int queueCapacity) {
+        this.queueCapacity = Math.max(queueCapacity, 1);
+    }
+
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter(0L));
+    }
+
+    SseEmitter subscribe(SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter, new ArrayBlockingQueue<>(queueCapacity));
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        return emitter;
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onLowStock(LowStockEvent event) {
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.queue.offer(event)) {
+                disconnect(subscriber);
+            } else if (subscriber.draining.compareAndSet(false, true)) {
+                sender.execute(() -> drain(subscriber));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.clear();
+        sender.shutdownNow();
+    }
+
+    /**
+     * Sends queued events until the queue is empty. The {@code draining} flag is
+     * released before the final emptiness check, so an event offered concurrently
+     * is either seen here or schedules a new drain.
+     */
+    private void drain(Subscriber subscriber) {
+        while (true) {
+            LowStockEvent event = subscriber.queue.poll();
+            if (event == null) {
+                subscriber.draining.set(false);
+                if (subscriber.queue.isEmpty() || !subscriber.draining.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+            try {
+                subscriber.emitter.send(SseEmitter.event().name("low-stock").data(event));
+            } catch (IOException | IllegalStateException ex) {
+                subscribers.remove(subscriber);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Completes the emitter on the sender executor: a stalled send still holds the
+     * emitter's lock, and the committing thread must not wait for it.
+     */
+    private void disconnect(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriber.queue.clear();
+            sender.execute(subscriber.emitter::complete);
+        }
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<LowStockEvent> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, BlockingQueue<LowStockEvent> queue) {
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.warehouse_inventory.service;
+
+import java.time.Instant;
+
+/**
+ * Published by {@link LowStockWatcher} inside the writing transaction when a
+ * variant's available quantity drops below its reorder point.
+ */
+public record LowStockEvent(Long variantId, int available, int reorderPoint, Instant at) {
+}
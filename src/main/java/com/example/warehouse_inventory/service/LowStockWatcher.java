@@ -0,0 +1,85 @@
+package com.example.warehouse_inventory.service;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import com.example.warehouse_inventory.repository.StockJdbcRepository;
+import com.example.warehouse_inventory.repository.StockJdbcRepository.LowStockRow;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Called by the stock write paths after they lowered available quantity. Reads
+ * the touched rows by primary key and publishes a {@link LowStockEvent} for each
+ * one whose update crossed its reorder point, so listeners hear about it once
+ * per crossing rather than on every write while the variant stays low.
+ */
+@Component
+@RequiredArgsConstructor
+public class LowStockWatcher {
+    private final StockJdbcRepository stockJdbcRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public void afterDecrease(Long variantId, int decrease) {
+        if (decrease > 0) {
+            afterDecrease(Map.of(variantId, decrease));
+        }
+    }
+
+    /**
+     * @param deltas signed available-quantity change per variant; only decreases are checked
+     */
+    public void afterDeltas(Map<Long, Integer> deltas) {
+        Map<Long, Integer> decreases = new TreeMap<>();
+        deltas.forEach((variantId, delta) -> {
+            if (delta < 0) {
+                decreases.put(variantId, -delta);
+            }
+        });
+        afterDecrease(decreases);
+    }
+
+    /**
+     * Publishes for variants that are low now but were not before a threshold change.
+     */
+    public void afterThresholdChange(Collection<Long> variantIds, Set<Long> lowBefore) {
+        Instant now = Instant.now();
+        for (LowStockRow row : stockJdbcRepository.findLow(variantIds)) {
+            if (!lowBefore.contains(row.variantId())) {
+                publish(row, now);
+            }
+        }
+    }
+
+    public Set<Long> lowNow(Collection<Long> variantIds) {
+        Set<Long> low = new HashSet<>();
+        stockJdbcRepository.findLow(variantIds).forEach(row -> low.add(row.variantId()));
+        return low;
+    }
+
+    private void afterDecrease(Map<Long, Integer> decreases) {
+        if (decreases.isEmpty()) {
+            return;
+        }
+        List<LowStockRow> low = stockJdbcRepository.findLow(decreases.keySet());
+        Instant now = Instant.now();
+        for (LowStockRow row : low) {
+            int before = row.available() + decreases.get(row.variantId());
+            if (before >= row.reorderPoint()) {
+                publish(row, now);
+            }
+        }
+    }
+
+    private void publish(LowStockRow row, Instant at) {
+        eventPublisher.publishEvent(new LowStockEvent(row.variantId(), row.available(), row.reorderPoint(), at));
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.warehouse_inventory.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.warehouse_inventory.repository.OrderRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Issues order numbers of the form {@code order_yyyyMMddHHmmss_<node>_<sequence>}
+ * without touching the database. The second and the per-second sequence live
+ * in one {@link AtomicLong}, so each number costs a single CAS. Numbers are
+ * unique per node as long as every instance is started with its own
+ * {@code inventory.orders.node-id}. The second never moves backwards: if the
+ * clock steps back, or one second runs out of sequence numbers, the generator
+ * keeps counting in the last second it issued and then borrows the next one.
+ *
+ * <p>On startup the state is seeded from the numbers this node already stored
+ * for the current second or later, so a restart within the same second (or
+ * after borrowing seconds ahead of the clock) continues after them instead of
+ * reissuing one.
+ */
+@Slf4j
+@Component
+public class OrderNumberGenerator {
+    private static final DateTimeFormatter SECOND_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmss")
+            .withZone(ZoneOffset.UTC);
+    private static final Pattern ORDER_NO = Pattern.compile("order_(\\d{14})_(\\d{3})_(\\d+)");
+    private static final int SEQUENCE_BITS = 20;
+    private static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
+    private static final int MAX_NODE_ID = 999;
+
+    private final String nodeId;
+    private final LongSupplier epochSeconds;
+    private final AtomicLong state = new AtomicLong();
+
+    @Autowired
+    public OrderNumberGenerator(
+            @Value("${inventory.orders.node-id:#{null}}") Integer nodeId,
+            OrderRepository orderRepository) {
+        this(nodeId == null ? 0 : nodeId, () -> Instant.now().getEpochSecond());
+        if (nodeId == null) {
+            log.warn("inventory.orders.node-id is not set, using 0; every instance sharing the database "
+                    + "needs its own node id or their order numbers will collide");
+        }
+        seedFromStored(orderRepository);
+    }
+
+    OrderNumberGenerator(int nodeId, LongSupplier epochSeconds) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalStateException("inventory.orders.node-id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeId = String.format("%03d", nodeId);
+        this.epochSeconds = epochSeconds;
+    }
+
+    public String next() {
+        long now = epochSeconds.getAsLong();
+        long previous;
+        long next;
+        do {
+            previous = state.get();
+            long second = previous >>> SEQUENCE_BITS;
+            long sequence = previous & MAX_SEQUENCE;
+            if (now > second) {
+                next = now << SEQUENCE_BITS;
+            } else if (sequence < MAX_SEQUENCE) {
+                next = previous + 1;
+            } else {
+                next = (second + 1) << SEQUENCE_BITS;
+            }
+        } while (!state.compareAndSet(previous, next));
+
+        return "order_"
+                + SECOND_FORMAT.format(Instant.ofEpochSecond(next >>> SEQUENCE_BITS))
+                + "_" + nodeId
+                + "_" + (next & MAX_SEQUENCE);
+    }
+
+    /**
+     * Seeds from the stored numbers of the current second onwards, read as an
+     * index range on {@code order_no}; other nodes' numbers are dropped by
+     * {@link #seed}. Older numbers cannot collide, because the state is also
+     * moved to the start of the current second, so a clock step back right
+     * after startup cannot return to a second issued before the restart.
+     */
+    void seedFromStored(OrderRepository orderRepository) {
+        long second = epochSeconds.getAsLong();
+        state.accumulateAndGet((second << SEQUENCE_BITS) - 1, Math::max);
+        orderRepository.findOrderNosFrom("order_" + SECOND_FORMAT.format(Instant.ofEpochSecond(second)))
+                .forEach(this::seed);
+    }
+
+    /**
+     * Makes the next number follow {@code orderNo}. Numbers of other nodes or
+     * in another format are ignored.
+     */
+    void seed(String orderNo) {
+        Matcher matcher = ORDER_NO.matcher(orderNo);
+        if (!matcher.matches() || !matcher.group(2).equals(nodeId)) {
+            return;
+        }
+        long second;
+        long sequence;
+        try {
+            second = Instant.from(SECOND_FORMAT.parse(matcher.group(1))).getEpochSecond();
+            sequence = Long.parseLong(matcher.group(3));
+        } catch (DateTimeParseException | NumberFormatException ex) {
+            return;
+        }
+        if (sequence > MAX_SEQUENCE) {
+            return;
+        }
+        long seeded = (second << SEQUENCE_BITS) | sequence;
+        state.accumulateAndGet(seeded, Math::max);
+    }
+}
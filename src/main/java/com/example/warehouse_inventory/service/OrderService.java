@@ -1,10 +1,14 @@
 package com.example.warehouse_inventory.service;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.example.warehouse_inventory.dto.CreateOrderItemRequest;
 import com.example.warehouse_inventory.dto.CreateOrderRequest;
+import com.example.warehouse_inventory.dto.FilterRequest;
 import com.example.warehouse_inventory.dto.OrderResponse;
 import com.example.warehouse_inventory.entity.Order;
 import com.example.warehouse_inventory.entity.OrderItem;
@@ -16,29 +20,75 @@ import com.example.warehouse_inventory.exception.NotFoundException;
 import com.example.warehouse_inventory.mapper.OrderMapper;
 import com.example.warehouse_inventory.repository.OrderItemRepository;
 import com.example.warehouse_inventory.repository.OrderRepository;
+import com.example.warehouse_inventory.repository.StockJdbcRepository;
 import com.example.warehouse_inventory.repository.VariantRepository;
+import com.example.warehouse_inventory.response.PaginatedResponse;
+import com.example.warehouse_inventory.response.PaginationMeta;
+import com.example.warehouse_inventory.service.PageFetcher.OffsetPage;
+import com.example.warehouse_inventory.util.FilterEngine;
+import com.example.warehouse_inventory.util.FilterFieldType;
+import com.example.warehouse_inventory.util.FilterPlan;
+import com.example.warehouse_inventory.util.FilterSchema;
+import com.example.warehouse_inventory.util.FilterValueParser;
+import com.example.warehouse_inventory.util.KeysetPager;
+import com.example.warehouse_inventory.util.KeysetPager.KeysetSlice;
+import com.example.warehouse_inventory.util.OffsetBasedPageRequest;
+import com.example.warehouse_inventory.util.TotalCountMode;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class OrderService {
-    private static final DateTimeFormatter ORDER_NO_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+    private static final FilterEngine<Order> FILTERS = new FilterEngine<>(FilterSchema.builder()
+            .field("id", FilterFieldType.LONG)
+            .field("orderNo", FilterFieldType.STRING, "order_no")
+            .field("totalAmount", FilterFieldType.DECIMAL, "total_amount")
+            .field("createdAt", FilterFieldType.INSTANT, "created_at")
+            .enumField("status", OrderStatus.class)
+            .build());
 
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
     private final VariantRepository variantRepository;
     private final StockMovementService stockMovementService;
     private final StockService stockService;
+    private final StockJdbcRepository stockJdbcRepository;
+    private final OrderNumberGenerator orderNumberGenerator;
+    private final PageFetcher pageFetcher;
+    private final Duration reservationTtl;
+
+    public OrderService(
+            OrderRepository orderRepository,
+            OrderItemRepository orderItemRepository,
+            VariantRepository variantRepository,
+            StockMovementService stockMovementService,
+            StockService stockService,
+            StockJdbcRepository stockJdbcRepository,
+            OrderNumberGenerator orderNumberGenerator,
+            PageFetcher pageFetcher,
+            @Value("${inventory.reservation.ttl-minutes:15}") long reservationTtlMinutes) {
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.variantRepository = variantRepository;
+        this.stockMovementService = stockMovementService;
+        this.stockService = stockService;
+        this.stockJdbcRepository = stockJdbcRepository;
+        this.orderNumberGenerator = orderNumberGenerator;
+        this.pageFetcher = pageFetcher;
+        this.reservationTtl = Duration.ofMinutes(reservationTtlMinutes);
+    }
 
     @Transactional
     public OrderResponse create(CreateOrderRequest req) {
@@ -47,23 +97,36 @@ public class OrderService {
         }
 
         Order order = new Order();
-        order.setOrderNo(generateOrderNo());
+        order.setOrderNo(orderNumberGenerator.next());
         order.setStatus(OrderStatus.NEW);
+        order.setReservedUntil(Instant.now().plus(reservationTtl));
+
+        // Duplicate lines for one variant become a single order item.
+        Map<Long, Integer> quantityByVariantId = new LinkedHashMap<>();
+        for (CreateOrderItemRequest itemReq : req.items()) {
+            quantityByVariantId.merge(itemReq.variantId(), itemReq.quantity(), Integer::sum);
+        }
+        Map<Long, Variant> variants = variantRepository.findAllById(quantityByVariantId.keySet()).stream()
+                .collect(Collectors.toMap(Variant::getId, Function.identity()));
+        if (variants.size() < quantityByVariantId.size()) {
+            throw new NotFoundException("Variant not found");
+        }
+
+        List<Long> shortVariantIds = stockService.reserveAll(quantityByVariantId);
+        if (!shortVariantIds.isEmpty()) {
+            throw new DataAlreadyExistsException("Stock is not enough for SKU "
+                    + variants.get(shortVariantIds.get(0)).getSku());
+        }
 
         BigDecimal totalAmount = BigDecimal.ZERO;
-        List<OrderItem> items = new ArrayList<>();
+        List<OrderItem> items = new ArrayList<>(quantityByVariantId.size());
         Map<Long, String> skuByVariantId = new LinkedHashMap<>();
-        for (CreateOrderItemRequest itemReq : req.items()) {
-            Variant variant = variantRepository.findById(itemReq.variantId())
-                    .orElseThrow(() -> new NotFoundException("Variant not found"));
-            int availableQty = stockService.getQuantityOrZero(variant.getId());
-            if (itemReq.quantity() > availableQty) {
-                throw new DataAlreadyExistsException("Stock is not enough for SKU " + variant.getSku());
-            }
+        for (Map.Entry<Long, Integer> entry : quantityByVariantId.entrySet()) {
+            Variant variant = variants.get(entry.getKey());
             BigDecimal price = variant.getPrice();
-            int quantity = itemReq.quantity();
+            int quantity = entry.getValue();
             totalAmount = totalAmount.add(price.multiply(BigDecimal.valueOf(quantity)));
-            skuByVariantId.putIfAbsent(variant.getId(), variant.getSku());
+            skuByVariantId.put(variant.getId(), variant.getSku());
 
             OrderItem item = new OrderItem();
             item.setVariantId(variant.getId());
@@ -82,9 +145,84 @@ public class OrderService {
         return OrderMapper.toResponse(savedOrder, savedItems, skuByVariantId);
     }
 
+    @Transactional(readOnly = true)
+    public PaginatedResponse<OrderResponse> getAll(
+            int offset,
+            int limit,
+            String search,
+            String sortBy,
+            String sortDirection,
+            List<FilterRequest> filters,
+            String cursor,
+            String includeTotal) {
+        String sortField = (sortBy == null || sortBy.isBlank()) ? "createdAt" : sortBy;
+        String safeSort = switch (sortField.trim().toLowerCase()) {
+            case "id" -> "id";
+            case "totalamount", "total_amount" -> "totalAmount";
+            default -> "createdAt";
+        };
+        Sort.Direction direction = Sort.Direction.fromOptionalString(sortDirection).orElse(Sort.Direction.DESC);
+        Sort sort = safeSort.equals("id")
+                ? Sort.by(direction, "id")
+                : Sort.by(direction, safeSort).and(Sort.by(direction, "id"));
+
+        Specification<Order> spec = (root, query, cb) -> cb.conjunction();
+        if (search != null && !search.isBlank()) {
+            String prefix = FilterValueParser.escapeLike(search.trim()) + "%";
+            spec = spec.and((root, query, cb) ->
+                    cb.like(root.get("orderNo"), prefix, FilterValueParser.LIKE_ESCAPE));
+        }
+        FilterPlan<Order> filterPlan = FILTERS.compile(filters);
+        spec = spec.and(filterPlan);
+        if (cursor != null) {
+            KeysetSlice<Order> slice = KeysetPager.fetch(orderRepository, spec, safeSort, "id", direction, limit,
+                    cursor);
+            List<OrderResponse> orders = toResponses(slice.content());
+            PaginationMeta meta = PaginationMeta.ofKeyset(
+                    limit,
+                    orders.size(),
+                    slice.hasNext(),
+                    !cursor.isBlank(),
+                    slice.nextCursor());
+            return new PaginatedResponse<>(orders, meta);
+        }
+        OffsetPage<Order> page = pageFetcher.fetch(
+                orderRepository,
+                spec,
+                new OffsetBasedPageRequest(offset, limit, sort),
+                TotalCountMode.from(includeTotal),
+                "orders",
+                PageFetcher.filterKey(search, filterPlan.conditions()));
+
+        List<OrderResponse> orders = toResponses(page.content());
+        PaginationMeta meta = PaginationMeta.ofOffset(
+                offset,
+                limit,
+                page.total(),
+                orders.size(),
+                page.hasNext());
+        return new PaginatedResponse<>(orders, meta);
+    }
+
+    @Transactional(readOnly = true)
+    public OrderResponse findById(Long id) {
+        Order order = orderRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Order not found"));
+        List<OrderItem> items = orderItemRepository.findByOrderId(order.getId());
+        return OrderMapper.toResponse(order, items, loadSkuByVariantId(items));
+    }
+
+    @Transactional(readOnly = true)
+    public OrderResponse findByOrderNo(String orderNo) {
+        Order order = orderRepository.findByOrderNo(orderNo.trim())
+                .orElseThrow(() -> new NotFoundException("Order not found"));
+        List<OrderItem> items = orderItemRepository.findByOrderId(order.getId());
+        return OrderMapper.toResponse(order, items, loadSkuByVariantId(items));
+    }
+
     @Transactional
     public OrderResponse markPaid(Long orderId) {
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findByIdForUpdate(orderId)
                 .orElseThrow(() -> new NotFoundException("Order not found"));
         List<OrderItem> items = orderItemRepository.findByOrderId(order.getId());
 
@@ -95,22 +233,21 @@ public class OrderService {
             throw new DataAlreadyExistsException("Order already cancelled");
         }
 
-        for (OrderItem item : items) {
-            stockMovementService.create(
-                    item.getVariantId(),
-                    item.getQuantity(),
-                    StockMovementType.OUT,
-                    order.getOrderNo());
+        if (order.getReservedUntil() != null) {
+            stockMovementService.createFromReservations(sumQuantityByVariantId(items), order.getOrderNo());
+        } else {
+            stockMovementService.createAll(sumQuantityByVariantId(items), StockMovementType.OUT, order.getOrderNo());
         }
 
         order.setStatus(OrderStatus.PAID);
+        order.setReservedUntil(null);
         Order saved = orderRepository.save(order);
         return OrderMapper.toResponse(saved, items, loadSkuByVariantId(items));
     }
 
     @Transactional
     public OrderResponse cancel(Long orderId) {
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findByIdForUpdate(orderId)
                 .orElseThrow(() -> new NotFoundException("Order not found"));
         List<OrderItem> items = orderItemRepository.findByOrderId(order.getId());
 
@@ -119,32 +256,76 @@ public class OrderService {
         }
 
         if (order.getStatus() == OrderStatus.PAID) {
-            for (OrderItem item : items) {
-                stockMovementService.create(
-                        item.getVariantId(),
-                        item.getQuantity(),
-                        StockMovementType.IN,
-                        order.getOrderNo());
-            }
+            stockMovementService.createAll(sumQuantityByVariantId(items), StockMovementType.IN, order.getOrderNo());
+        } else if (order.getReservedUntil() != null
+                && !stockJdbcRepository.releaseReserved(sumQuantityByVariantId(items)).isEmpty()) {
+            throw new DataAlreadyExistsException("Reserved stock is missing");
         }
 
         order.setStatus(OrderStatus.CANCELLED);
+        order.setReservedUntil(null);
         Order saved = orderRepository.save(order);
         return OrderMapper.toResponse(saved, items, loadSkuByVariantId(items));
     }
 
-    private String generateOrderNo() {
-        String base = "order_" + LocalDateTime.now().format(ORDER_NO_FORMAT);
-        if (!orderRepository.existsByOrderNo(base)) {
-            return base;
+    /**
+     * Cancels NEW orders whose stock hold has expired and returns the held quantity
+     * to the available pool. Rows locked by a concurrent pay/cancel are skipped and
+     * picked up by a later sweep. A variant whose row no longer holds the quantity
+     * keeps its {@code reserved} value and is logged; failing the sweep instead
+     * would block every later expiry behind it.
+     */
+    @Transactional
+    public int releaseExpiredReservations(int limit) {
+        List<Order> expired = orderRepository.lockExpiredReservations(Instant.now(), limit);
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        List<Long> orderIds = expired.stream()
+                .map(Order::getId)
+                .toList();
+        List<OrderItem> items = orderItemRepository.findByOrderIdIn(orderIds);
+        List<Long> shortVariantIds = stockJdbcRepository.releaseReserved(sumQuantityByVariantId(items));
+        if (!shortVariantIds.isEmpty()) {
+            log.error("Reserved stock is missing for variants {} while releasing expired orders {}",
+                    shortVariantIds, orderIds);
+        }
+        for (Order order : expired) {
+            order.setStatus(OrderStatus.CANCELLED);
+            order.setReservedUntil(null);
+        }
+        return expired.size();
+    }
+
+    /**
+     * Builds the responses for a page of orders with one {@code order_id IN (...)}
+     * query for the items and one variant query for the SKUs.
+     */
+    private List<OrderResponse> toResponses(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return List.of();
         }
-        int counter = 1;
-        String candidate = base + "_" + counter;
-        while (orderRepository.existsByOrderNo(candidate)) {
-            counter++;
-            candidate = base + "_" + counter;
+        List<Long> orderIds = orders.stream()
+                .map(Order::getId)
+                .toList();
+        List<OrderItem> items = orderItemRepository.findByOrderIdIn(orderIds);
+        Map<Long, String> skuByVariantId = loadSkuByVariantId(items);
+        Map<Long, List<OrderItem>> itemsByOrderId = items.stream()
+                .collect(Collectors.groupingBy(OrderItem::getOrderId));
+        return orders.stream()
+                .map(order -> OrderMapper.toResponse(
+                        order,
+                        itemsByOrderId.getOrDefault(order.getId(), List.of()),
+                        skuByVariantId))
+                .toList();
+    }
+
+    private Map<Long, Integer> sumQuantityByVariantId(List<OrderItem> items) {
+        Map<Long, Integer> quantityByVariantId = new TreeMap<>();
+        for (OrderItem item : items) {
+            quantityByVariantId.merge(item.getVariantId(), item.getQuantity(), Integer::sum);
         }
-        return candidate;
+        return quantityByVariantId;
     }
 
     private Map<Long, String> loadSkuByVariantId(List<OrderItem> items) {
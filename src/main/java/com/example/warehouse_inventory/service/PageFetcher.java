@@ -0,0 +1,144 @@
+package com.example.warehouse_inventory.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.example.warehouse_inventory.util.OffsetBasedPageRequest;
+import com.example.warehouse_inventory.util.SliceQuery;
+import com.example.warehouse_inventory.util.TotalCountMode;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs an offset page query and fills the total the way the caller asked for.
+ * The page is always read as {@code limit + 1} rows. {@code EXACT} adds a
+ * {@code COUNT(*)} unless the page is visibly the last one, {@code NONE} stops there,
+ * and {@code ESTIMATED} adds a total from table statistics (unfiltered listings) or
+ * from a short-lived cached count.
+ */
+@Component
+public class PageFetcher {
+    private final JdbcTemplate jdbcTemplate;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final Map<String, CachedCount> counts = new ConcurrentHashMap<>();
+
+    public PageFetcher(
+            JdbcTemplate jdbcTemplate,
+            @Value("${inventory.pagination.count-cache-ttl-seconds:30}") long ttlSeconds,
+            @Value("${inventory.pagination.count-cache-max-entries:1000}") int maxEntries) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttlNanos = Duration.ofSeconds(Math.max(ttlSeconds, 0)).toNanos();
+        this.maxEntries = Math.max(maxEntries, 1);
+    }
+
+    public record OffsetPage<T>(List<T> content, Long total, boolean hasNext) {
+    }
+
+    /**
+     * @param table     physical table name, used for statistics-based estimates
+     * @param filterKey stable description of the search and filters, or {@code null}
+     *                  when the listing is unfiltered
+     */
+    public <T> OffsetPage<T> fetch(
+            JpaSpecificationExecutor<T> repository,
+            Specification<T> spec,
+            OffsetBasedPageRequest pageable,
+            TotalCountMode mode,
+            String table,
+            String filterKey) {
+        return fetch(
+                repository,
+                (pageSpec, pageRequest) -> repository.findBy(pageSpec, query -> query.slice(pageRequest)),
+                spec,
+                pageable,
+                mode,
+                table,
+                filterKey);
+    }
+
+    /**
+     * @param repository counts the filtered rows for exact and cached totals
+     * @param rows       loads the page itself, e.g. as a projection
+     * @param table      physical table name, used for statistics-based estimates
+     * @param filterKey  stable description of the search and filters, or {@code null}
+     *                   when the listing is unfiltered
+     */
+    public <T, R> OffsetPage<R> fetch(
+            JpaSpecificationExecutor<T> repository,
+            SliceQuery<T, R> rows,
+            Specification<T> spec,
+            OffsetBasedPageRequest pageable,
+            TotalCountMode mode,
+            String table,
+            String filterKey) {
+        Slice<R> slice = rows.fetch(spec, pageable);
+        long seen = pageable.getOffset() + slice.getNumberOfElements();
+        if (mode == TotalCountMode.NONE) {
+            return new OffsetPage<>(slice.getContent(), null, slice.hasNext());
+        }
+        if (mode == TotalCountMode.EXACT) {
+            boolean lastPage = !slice.hasNext() && (slice.hasContent() || pageable.getOffset() == 0);
+            long total = lastPage ? seen : repository.count(spec);
+            return new OffsetPage<>(slice.getContent(), total, slice.hasNext());
+        }
+
+        long estimate = filterKey == null
+                ? cached(table + "|*", () -> tableRows(table))
+                : cached(table + "|" + filterKey, () -> repository.count(spec));
+        return new OffsetPage<>(slice.getContent(), Math.max(estimate, seen + (slice.hasNext() ? 1 : 0)),
+                slice.hasNext());
+    }
+
+    /**
+     * Cache key for the filtered count, or {@code null} when nothing narrows the listing.
+     */
+    public static String filterKey(String search, List<?> filters) {
+        boolean hasSearch = search != null && !search.isBlank();
+        boolean hasFilters = filters != null && !filters.isEmpty();
+        if (!hasSearch && !hasFilters) {
+            return null;
+        }
+        return (hasSearch ? search.trim().toLowerCase() : "") + "|" + (hasFilters ? filters : "");
+    }
+
+    private long tableRows(String table) {
+        Long rows = jdbcTemplate.queryForObject(
+                "SELECT table_rows FROM information_schema.tables WHERE table_schema = DATABASE() AND table_name = ?",
+                Long.class,
+                table);
+        return rows == null ? 0 : rows;
+    }
+
+    private long cached(String key, CountLoader loader) {
+        long now = System.nanoTime();
+        CachedCount cachedCount = counts.get(key);
+        if (cachedCount != null && now - cachedCount.loadedAt < ttlNanos) {
+            return cachedCount.value;
+        }
+        long value = loader.load();
+        if (counts.size() >= maxEntries) {
+            counts.entrySet().removeIf(entry -> now - entry.getValue().loadedAt >= ttlNanos);
+            if (counts.size() >= maxEntries) {
+                counts.clear();
+            }
+        }
+        counts.put(key, new CachedCount(value, now));
+        return value;
+    }
+
+    @FunctionalInterface
+    private interface CountLoader {
+        long load();
+    }
+
+    private record CachedCount(long value, long loadedAt) {
+    }
+}
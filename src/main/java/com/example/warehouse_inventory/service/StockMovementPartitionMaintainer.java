@@ -0,0 +1,118 @@
+package com.example.warehouse_inventory.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.warehouse_inventory.archive.MovementArchive;
+import com.example.warehouse_inventory.archive.MovementSegmentWriter;
+import com.example.warehouse_inventory.repository.StockMovementPartitionRepository;
+import com.example.warehouse_inventory.repository.StockMovementPartitionRepository.Partition;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps monthly {@code stock_movements} partitions (UTC months) created
+ * {@code months-ahead} into the future and, when {@code retention-months} is
+ * positive, archives whole months that fall out of retention: into segment files
+ * when a {@link MovementArchive} directory is configured, otherwise into
+ * standalone tables.
+ */
+@Component
+public class StockMovementPartitionMaintainer {
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private final StockMovementPartitionRepository partitionRepository;
+    private final MovementArchive movementArchive;
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    public StockMovementPartitionMaintainer(
+            StockMovementPartitionRepository partitionRepository,
+            MovementArchive movementArchive,
+            @Value("${inventory.movements.partitions.months-ahead:3}") int monthsAhead,
+            @Value("${inventory.movements.partitions.retention-months:0}") int retentionMonths) {
+        this.partitionRepository = partitionRepository;
+        this.movementArchive = movementArchive;
+        this.monthsAhead = Math.max(monthsAhead, 1);
+        this.retentionMonths = Math.max(retentionMonths, 0);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${inventory.movements.partitions.maintenance-cron:0 30 3 * * *}", zone = "UTC")
+    public void maintain() {
+        List<Partition> partitions = partitionRepository.findPartitions();
+        if (partitions.isEmpty()) {
+            return;
+        }
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        createAhead(partitions, current.plusMonths(monthsAhead));
+        if (retentionMonths > 0) {
+            archiveBefore(partitions, current.minusMonths(retentionMonths));
+        }
+    }
+
+    private void createAhead(List<Partition> partitions, YearMonth lastMonth) {
+        Long highestBound = null;
+        for (Partition partition : partitions) {
+            if (partition.upperBound() != null) {
+                highestBound = partition.upperBound();
+            }
+        }
+        if (highestBound == null) {
+            return;
+        }
+        List<Partition> ranges = new ArrayList<>();
+        YearMonth month = YearMonth.from(Instant.ofEpochSecond(highestBound).atOffset(ZoneOffset.UTC));
+        while (!month.isAfter(lastMonth)) {
+            ranges.add(new Partition(month.format(NAME_FORMAT), startOf(month.plusMonths(1))));
+            month = month.plusMonths(1);
+        }
+        partitionRepository.splitCatchAll(ranges);
+    }
+
+    private void archiveBefore(List<Partition> partitions, YearMonth firstKeptMonth) {
+        long cutoff = startOf(firstKeptMonth);
+        for (Partition partition : partitions) {
+            if (partition.upperBound() != null && partition.upperBound() <= cutoff) {
+                if (movementArchive.isEnabled()) {
+                    archiveToSegment(partition.name());
+                } else {
+                    partitionRepository.archive(partition.name());
+                }
+            }
+        }
+    }
+
+    /**
+     * The segment is fully written and synced before the partition is dropped, so a
+     * crash in between only means the month is archived again on the next run.
+     */
+    private void archiveToSegment(String partitionName) {
+        try (MovementSegmentWriter writer = movementArchive.newSegment(partitionName)) {
+            partitionRepository.streamPartition(partitionName, writer::append);
+            writer.finish();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        movementArchive.refresh();
+        partitionRepository.dropPartition(partitionName);
+    }
+
+    private static long startOf(YearMonth month) {
+        return month.atDay(1).atStartOfDay(ZoneOffset.UTC).toEpochSecond();
+    }
+}
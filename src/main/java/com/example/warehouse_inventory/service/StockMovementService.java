@@ -1,48 +1,115 @@
 package com.example.warehouse_inventory.service;
 
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.example.warehouse_inventory.archive.MovementArchive;
+import com.example.warehouse_inventory.dto.FilterRequest;
 import com.example.warehouse_inventory.dto.StockMovementResponse;
 import com.example.warehouse_inventory.entity.StockMovement;
 import com.example.warehouse_inventory.entity.StockMovementType;
+import com.example.warehouse_inventory.entity.Variant;
 import com.example.warehouse_inventory.exception.DataAlreadyExistsException;
+import com.example.warehouse_inventory.exception.InvalidRequestException;
 import com.example.warehouse_inventory.exception.NotFoundException;
-import com.example.warehouse_inventory.mapper.StockMovementMapper;
+import com.example.warehouse_inventory.repository.StockJdbcRepository;
+import com.example.warehouse_inventory.repository.StockJdbcRepository.StockMovementRow;
+import com.example.warehouse_inventory.repository.StockJdbcRepository.InsertedMovement;
 import com.example.warehouse_inventory.repository.StockMovementRepository;
 import com.example.warehouse_inventory.repository.VariantRepository;
 import com.example.warehouse_inventory.response.PaginatedResponse;
 import com.example.warehouse_inventory.response.PaginationMeta;
+import com.example.warehouse_inventory.serialization.ExportFormat;
+import com.example.warehouse_inventory.serialization.StreamingExport;
+import com.example.warehouse_inventory.service.PageFetcher.OffsetPage;
+import com.example.warehouse_inventory.util.FilterCondition;
+import com.example.warehouse_inventory.util.FilterEngine;
+import com.example.warehouse_inventory.util.FilterFieldType;
+import com.example.warehouse_inventory.util.FilterOperator;
+import com.example.warehouse_inventory.util.FilterPlan;
+import com.example.warehouse_inventory.util.FilterSchema;
+import com.example.warehouse_inventory.util.KeysetPager;
+import com.example.warehouse_inventory.util.KeysetPager.KeysetSlice;
 import com.example.warehouse_inventory.util.OffsetBasedPageRequest;
+import com.example.warehouse_inventory.util.QueryJoins;
+import com.example.warehouse_inventory.util.TotalCountMode;
 
-import lombok.RequiredArgsConstructor;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import jakarta.persistence.criteria.Join;
-import jakarta.persistence.criteria.JoinType;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Service
-@RequiredArgsConstructor
 public class StockMovementService {
     private final StockMovementRepository stockMovementRepository;
+    private final PageFetcher pageFetcher;
     private final VariantRepository variantRepository;
     private final StockService stockService;
+    private final ObjectMapper objectMapper;
+    private final MovementArchive movementArchive;
+    private final StockJdbcRepository stockJdbcRepository;
+    private final LowStockWatcher lowStockWatcher;
+    private final Duration defaultWindow;
+    private static final List<String> EXPORT_HEADER = List.of(
+            "id", "variant_id", "sku", "variant_name", "change_qty", "movement_type", "reference_id", "created_at");
+    private static final FilterEngine<StockMovement> FILTERS = new FilterEngine<>(FilterSchema.builder()
+            .field("id", FilterFieldType.LONG)
+            .field("variantId", FilterFieldType.LONG, "variant_id")
+            .field("changeQty", FilterFieldType.INTEGER, "change_qty")
+            .field("referenceId", FilterFieldType.STRING, "reference_id")
+            .field("createdAt", FilterFieldType.INSTANT, "created_at")
+            .field("variant.sku", FilterFieldType.STRING)
+            .enumField("movementType", StockMovementType.class, "movement_type")
+            .build());
+
+    public StockMovementService(
+            StockMovementRepository stockMovementRepository,
+            PageFetcher pageFetcher,
+            VariantRepository variantRepository,
+            StockService stockService,
+            ObjectMapper objectMapper,
+            MovementArchive movementArchive,
+            StockJdbcRepository stockJdbcRepository,
+            LowStockWatcher lowStockWatcher,
+            @Value("${inventory.movements.default-window-days:90}") int defaultWindowDays) {
+        this.stockMovementRepository = stockMovementRepository;
+        this.pageFetcher = pageFetcher;
+        this.variantRepository = variantRepository;
+        this.stockService = stockService;
+        this.objectMapper = objectMapper;
+        this.movementArchive = movementArchive;
+        this.stockJdbcRepository = stockJdbcRepository;
+        this.lowStockWatcher = lowStockWatcher;
+        this.defaultWindow = Duration.ofDays(Math.max(defaultWindowDays, 0));
+    }
 
     @Transactional
     public StockMovement create(Long variantId, int changeQty, StockMovementType movementType, String referenceId) {
-        if (!variantRepository.existsById(variantId)) {
-            throw new NotFoundException("Variant not found");
-        }
-        int normalizedQty = normalizeChangeQty(changeQty, movementType);
-        int currentQty = stockService.getQuantityOrZero(variantId);
-        if (currentQty + normalizedQty < 0) {
+        int normalizedQty = movementType.normalize(changeQty);
+        if (!stockService.applyChange(variantId, normalizedQty)) {
+            if (!variantRepository.existsById(variantId)) {
+                throw new NotFoundException("Variant not found");
+            }
             throw new DataAlreadyExistsException("Stock is not enough");
         }
-        stockService.applyChange(variantId, normalizedQty);
 
         StockMovement movement = new StockMovement();
         movement.setVariantId(variantId);
@@ -52,13 +119,96 @@ public class StockMovementService {
         return stockMovementRepository.save(movement);
     }
 
+    /**
+     * {@link #create} plus the variant's SKU and name and the {@code created_at}
+     * MySQL stamped, read back with one query, so the response matches the one
+     * the write combiner returns.
+     */
+    @Transactional
+    public StockMovementResponse record(Long variantId, int changeQty, StockMovementType movementType,
+            String referenceId) {
+        StockMovement movement = create(variantId, changeQty, movementType, referenceId);
+        stockMovementRepository.flush();
+        InsertedMovement inserted = stockJdbcRepository.findInserted(List.of(movement.getId())).get(movement.getId());
+        return new StockMovementResponse(
+                movement.getId(),
+                movement.getVariantId(),
+                inserted.sku(),
+                inserted.variantName(),
+                movement.getChangeQty(),
+                movement.getMovementType(),
+                movement.getReferenceId(),
+                inserted.createdAt());
+    }
+
+    /**
+     * Set-based {@link #create} for every line of an order. Existing stock rows are
+     * locked with one {@code IN ... FOR UPDATE} in variant id order, then updated
+     * with the same guard as {@link #create} and journaled with one JDBC batch each.
+     * Rows created here for incoming stock are locked after the others, outside id
+     * order, so two such calls can still deadlock; InnoDB then rolls one of them
+     * back. Either every line is applied or none is.
+     */
+    @Transactional
+    public void createAll(Map<Long, Integer> quantityByVariantId, StockMovementType movementType, String referenceId) {
+        Map<Long, Integer> deltas = new TreeMap<>();
+        quantityByVariantId.forEach((variantId, quantity) -> deltas.put(variantId, movementType.normalize(quantity)));
+
+        Map<Long, Integer> available = stockJdbcRepository.lockAvailable(deltas.keySet());
+        Set<Long> missing = new TreeSet<>();
+        deltas.forEach((variantId, delta) -> {
+            if (delta > 0 && !available.containsKey(variantId)) {
+                missing.add(variantId);
+            }
+        });
+        if (!missing.isEmpty()) {
+            stockJdbcRepository.insertEmptyIfAbsent(missing);
+            available.putAll(stockJdbcRepository.lockAvailable(missing));
+        }
+        for (Map.Entry<Long, Integer> entry : deltas.entrySet()) {
+            if (available.getOrDefault(entry.getKey(), 0) + entry.getValue() < 0) {
+                throw new DataAlreadyExistsException("Stock is not enough");
+            }
+        }
+
+        if (!stockJdbcRepository.applyDeltasIfSufficient(deltas).isEmpty()) {
+            throw new DataAlreadyExistsException("Stock is not enough");
+        }
+        lowStockWatcher.afterDeltas(deltas);
+        insertMovements(deltas, movementType, referenceId);
+    }
+
+    /**
+     * Turns the order's holds into {@code OUT} movements with one locking read,
+     * one batched conditional update and one batched insert.
+     */
+    @Transactional
+    public void createFromReservations(Map<Long, Integer> quantityByVariantId, String referenceId) {
+        Map<Long, Integer> reserved = stockJdbcRepository.lockReserved(new TreeSet<>(quantityByVariantId.keySet()));
+        for (Map.Entry<Long, Integer> entry : quantityByVariantId.entrySet()) {
+            if (reserved.getOrDefault(entry.getKey(), 0) < entry.getValue()) {
+                throw new DataAlreadyExistsException("Reserved stock is missing");
+            }
+        }
+        if (!stockJdbcRepository.commitReserved(quantityByVariantId)) {
+            throw new DataAlreadyExistsException("Reserved stock is missing");
+        }
+
+        Map<Long, Integer> deltas = new TreeMap<>();
+        quantityByVariantId.forEach((variantId, quantity) -> deltas.put(variantId, -quantity));
+        insertMovements(deltas, StockMovementType.OUT, referenceId);
+    }
+
     @Transactional(readOnly = true)
     public PaginatedResponse<StockMovementResponse> getAll(
             int offset,
             int limit,
             String search,
             String sortBy,
-            String sortDirection) {
+            String sortDirection,
+            List<FilterRequest> filters,
+            String cursor,
+            String includeTotal) {
         String sortField = (sortBy == null || sortBy.isBlank()) ? "id" : sortBy;
         String normalizedSort = sortField.trim().toLowerCase();
         String safeSort = switch (normalizedSort) {
@@ -74,45 +224,183 @@ public class StockMovementService {
         Sort sort = Sort.by(direction, safeSort);
 
         OffsetBasedPageRequest pageable = new OffsetBasedPageRequest(offset, limit, sort);
+        FilterPlan<StockMovement> filterPlan = withTimeBound(FILTERS.compile(filters));
+        Specification<StockMovement> spec = listSpec(search, filterPlan);
+        if (cursor != null) {
+            Function<StockMovementResponse, Object> sortKey = switch (safeSort) {
+                case "variantId" -> StockMovementResponse::variantId;
+                case "movementType" -> StockMovementResponse::movementType;
+                case "changeQty" -> StockMovementResponse::changeQty;
+                case "referenceId" -> StockMovementResponse::referenceId;
+                case "createdAt" -> StockMovementResponse::createdAt;
+                default -> StockMovementResponse::id;
+            };
+            KeysetSlice<StockMovementResponse> slice = KeysetPager.fetch(
+                    stockMovementRepository::findListRows,
+                    spec,
+                    safeSort,
+                    "id",
+                    direction,
+                    limit,
+                    cursor,
+                    sortKey,
+                    StockMovementResponse::id);
+            PaginationMeta meta = PaginationMeta.ofKeyset(
+                    limit,
+                    slice.content().size(),
+                    slice.hasNext(),
+                    !cursor.isBlank(),
+                    slice.nextCursor());
+            return new PaginatedResponse<>(slice.content(), meta);
+        }
+        OffsetPage<StockMovementResponse> page = pageFetcher.fetch(
+                stockMovementRepository,
+                stockMovementRepository::findListRows,
+                spec,
+                pageable,
+                TotalCountMode.from(includeTotal),
+                "stock_movements",
+                PageFetcher.filterKey(search, filterPlan.conditions()));
+
+        List<StockMovementResponse> movements = page.content();
+        PaginationMeta meta = PaginationMeta.ofOffset(
+                offset,
+                limit,
+                page.total(),
+                movements.size(),
+                page.hasNext());
+        return new PaginatedResponse<>(movements, meta);
+    }
+
+    @Transactional(readOnly = true)
+    public List<StockMovementResponse> findByReferenceId(String referenceId) {
+        List<StockMovementResponse> movements = stockMovementRepository.findByReferenceId(referenceId.trim());
+        if (movements.isEmpty()) {
+            throw new NotFoundException("Stock movement not found");
+        }
+        return movements;
+    }
+
+    /**
+     * Movements of one variant that were archived out of MySQL, read from the
+     * memory-mapped segment files. {@code from} is inclusive, {@code to} exclusive.
+     */
+    public List<StockMovementResponse> findArchived(Long variantId, String from, String to) {
+        Instant fromInstant = parseInstant("from", from);
+        Instant toInstant = parseInstant("to", to);
+        if (!movementArchive.isEnabled()) {
+            return List.of();
+        }
+        List<StockMovementResponse> movements = movementArchive.history(variantId, fromInstant, toInstant);
+        if (movements.isEmpty()) {
+            return movements;
+        }
+        Variant variant = variantRepository.findById(variantId).orElse(null);
+        if (variant == null) {
+            return movements;
+        }
+        return movements.stream()
+                .map(movement -> new StockMovementResponse(
+                        movement.id(),
+                        movement.variantId(),
+                        variant.getSku(),
+                        variant.getVariantName(),
+                        movement.changeQty(),
+                        movement.movementType(),
+                        movement.referenceId(),
+                        movement.createdAt()))
+                .toList();
+    }
+
+    /**
+     * Export filters: the list schema plus the default {@code created_at} window.
+     * Like {@link #getAll}, filters that do not compile are ignored.
+     */
+    public FilterPlan<StockMovement> compileFilters(List<FilterRequest> filters) {
+        return withTimeBound(FILTERS.compile(filters));
+    }
+
+    /**
+     * Streams every matching movement in id order. Runs on the response thread
+     * inside one read-only transaction.
+     */
+    @Transactional(readOnly = true)
+    public void export(String search, FilterPlan<StockMovement> filterPlan, ExportFormat format, OutputStream out)
+            throws IOException {
+        try (Stream<StockMovementResponse> rows = stockMovementRepository.streamListRows(
+                listSpec(search, filterPlan),
+                Sort.by("id"))) {
+            StreamingExport.write(
+                    rows,
+                    format,
+                    out,
+                    objectMapper,
+                    EXPORT_HEADER,
+                    movement -> Arrays.asList(
+                            movement.id(),
+                            movement.variantId(),
+                            movement.sku(),
+                            movement.variantName(),
+                            movement.changeQty(),
+                            movement.movementType(),
+                            movement.referenceId(),
+                            movement.createdAt()));
+        }
+    }
+
+    private Specification<StockMovement> listSpec(String search, FilterPlan<StockMovement> filterPlan) {
         Specification<StockMovement> spec = (root, query, cb) -> cb.conjunction();
         if (search != null && !search.isBlank()) {
             String pattern = "%" + search.toLowerCase() + "%";
             spec = spec.and((root, query, cb) -> {
-                Join<Object, Object> variantJoin = root.join("variant", JoinType.LEFT);
+                Join<StockMovement, Variant> variantJoin = QueryJoins.left(root, "variant");
                 return cb.or(
                         cb.like(cb.lower(variantJoin.get("sku")), pattern),
                         cb.like(cb.lower(root.get("referenceId")), pattern));
             });
         }
-        Page<StockMovement> page = stockMovementRepository.findAll(spec, pageable);
-
-        List<StockMovementResponse> movements = page.getContent().stream()
-                .map(StockMovementMapper::toResponse)
-                .toList();
-        long total = page.getTotalElements();
-        long count = movements.size();
-        long showingFrom = count > 0 ? (long) offset + 1 : 0;
-        long showingTo = (long) offset + count;
+        return spec.and(filterPlan);
+    }
 
-        PaginationMeta meta = new PaginationMeta(
-                offset,
-                limit,
-                total,
-                (offset + count) < total,
-                offset > 0,
-                offset,
-                showingFrom,
-                showingTo);
-        return new PaginatedResponse<>(movements, meta);
+    /**
+     * Adds {@code created_at >= today - window} unless the caller already bounds
+     * {@code created_at}, so MySQL only reads the recent partitions. The bound is
+     * day-aligned to keep count cache keys stable through the day.
+     */
+    private FilterPlan<StockMovement> withTimeBound(FilterPlan<StockMovement> filterPlan) {
+        if (defaultWindow.isZero()
+                || filterPlan.conditions().stream().anyMatch(condition -> "createdAt".equals(condition.path()))) {
+            return filterPlan;
+        }
+        Instant since = Instant.now().truncatedTo(ChronoUnit.DAYS).minus(defaultWindow);
+        List<FilterCondition> conditions = new ArrayList<>(filterPlan.conditions());
+        conditions.add(new FilterCondition(
+                "createdAt",
+                FilterFieldType.INSTANT,
+                FilterOperator.GREATER_OR_EQUAL,
+                List.of(since)));
+        return new FilterPlan<>(List.copyOf(conditions));
     }
 
-    private int normalizeChangeQty(int changeQty, StockMovementType movementType) {
-        int absQty = Math.abs(changeQty);
-        return switch (movementType) {
-            case IN -> absQty;
-            case OUT -> -absQty;
-            case ADJUST -> changeQty;
-        };
+    private static Instant parseInstant(String name, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Instant.parse(value.trim());
+        } catch (DateTimeParseException ex) {
+            throw new InvalidRequestException(name + " must be an ISO-8601 instant");
+        }
     }
 
+
+    private void insertMovements(Map<Long, Integer> deltas, StockMovementType movementType, String referenceId) {
+        List<StockMovementRow> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((variantId, changeQty) -> {
+            if (changeQty != 0) {
+                rows.add(new StockMovementRow(variantId, changeQty, movementType, referenceId));
+            }
+        });
+        stockJdbcRepository.insertMovements(rows);
+    }
 }
@@ -0,0 +1,25 @@
+package com.example.warehouse_inventory.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class StockReconciliationJob {
+    private final StockReconciliationService reconciliationService;
+    private final boolean autoCorrect;
+
+    public StockReconciliationJob(
+            StockReconciliationService reconciliationService,
+            @Value("${inventory.reconciliation.auto-correct:false}") boolean autoCorrect) {
+        this.reconciliationService = reconciliationService;
+        this.autoCorrect = autoCorrect;
+    }
+
+    @Scheduled(cron = "${inventory.reconciliation.cron:-}", zone = "UTC")
+    public void reconcile() {
+        if (!reconciliationService.isRunning()) {
+            reconciliationService.start(autoCorrect);
+        }
+    }
+}
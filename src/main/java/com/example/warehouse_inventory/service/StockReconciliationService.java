@@ -0,0 +1,250 @@
+package com.example.warehouse_inventory.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.warehouse_inventory.dto.ReconciliationDrift;
+import com.example.warehouse_inventory.dto.ReconciliationStatusResponse;
+import com.example.warehouse_inventory.entity.StockMovementType;
+import com.example.warehouse_inventory.exception.DataAlreadyExistsException;
+import com.example.warehouse_inventory.repository.StockJdbcRepository;
+import com.example.warehouse_inventory.repository.StockJdbcRepository.StockMovementRow;
+import com.example.warehouse_inventory.repository.StockReconciliationRepository;
+import com.example.warehouse_inventory.repository.StockReconciliationRepository.IdRange;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Compares {@code stock.quantity} with {@code SUM(change_qty)} of the ledger.
+ * The variant id space is split into chunks that a bounded pool checks in
+ * parallel. Each chunk reads stock and its movement sums in one short
+ * repeatable-read transaction, so both sides come from the same consistent view
+ * without any locks. With auto-correct, only drifted rows are locked, re-checked
+ * and fixed by an ADJUST movement that brings the ledger in line with stock.
+ */
+@Slf4j
+@Service
+public class StockReconciliationService {
+    private static final DateTimeFormatter RUN_ID_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmss")
+            .withZone(ZoneOffset.UTC);
+
+    private final StockReconciliationRepository reconciliationRepository;
+    private final StockJdbcRepository stockJdbcRepository;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate correctionTransaction;
+    private final int chunkSize;
+    private final int parallelism;
+    private final int maxReportedDrifts;
+    private final boolean ledgerArchived;
+    private final AtomicReference<Run> current = new AtomicReference<>();
+
+    public StockReconciliationService(
+            StockReconciliationRepository reconciliationRepository,
+            StockJdbcRepository stockJdbcRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${inventory.reconciliation.chunk-size:10000}") int chunkSize,
+            @Value("${inventory.reconciliation.parallelism:4}") int parallelism,
+            @Value("${inventory.reconciliation.max-reported-drifts:1000}") int maxReportedDrifts,
+            @Value("${inventory.movements.partitions.retention-months:0}") int retentionMonths) {
+        this.reconciliationRepository = reconciliationRepository;
+        this.stockJdbcRepository = stockJdbcRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.readTransaction.setReadOnly(true);
+        this.correctionTransaction = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(chunkSize, 1);
+        this.parallelism = Math.max(parallelism, 1);
+        this.maxReportedDrifts = Math.max(maxReportedDrifts, 0);
+        this.ledgerArchived = retentionMonths > 0;
+    }
+
+    /**
+     * Starts a run in the background and returns its initial status. Auto-correct
+     * is refused while movement retention is on, because archived months are no
+     * longer part of the ledger sums.
+     */
+    public ReconciliationStatusResponse start(boolean autoCorrect) {
+        if (autoCorrect && ledgerArchived) {
+            throw new DataAlreadyExistsException("Auto-correct is disabled while movement retention is enabled");
+        }
+        Run run = new Run(RUN_ID_FORMAT.format(Instant.now()), autoCorrect);
+        Run previous = current.get();
+        if ((previous != null && previous.finishedAt == null) || !current.compareAndSet(previous, run)) {
+            throw new DataAlreadyExistsException("Reconciliation already running");
+        }
+        Thread.ofPlatform().name("stock-reconciliation").daemon(true).start(() -> execute(run));
+        return run.toResponse();
+    }
+
+    public ReconciliationStatusResponse status() {
+        Run run = current.get();
+        return run == null ? null : run.toResponse();
+    }
+
+    public boolean isRunning() {
+        Run run = current.get();
+        return run != null && run.finishedAt == null;
+    }
+
+    private void execute(Run run) {
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism);
+        try {
+            IdRange range = reconciliationRepository.findVariantIdRange().orElse(null);
+            if (range == null) {
+                return;
+            }
+            List<Future<?>> chunks = new ArrayList<>();
+            for (long from = range.min(); from <= range.max(); from += chunkSize) {
+                long chunkFrom = from;
+                long to = Math.min(from + chunkSize - 1, range.max());
+                chunks.add(pool.submit(() -> checkChunk(run, chunkFrom, to)));
+                if (to == Long.MAX_VALUE) {
+                    break;
+                }
+            }
+            run.chunksTotal.set(chunks.size());
+            for (Future<?> chunk : chunks) {
+                chunk.get();
+            }
+        } catch (ExecutionException ex) {
+            run.error = ex.getCause().getMessage();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            run.error = "Interrupted";
+        } catch (RuntimeException ex) {
+            run.error = ex.getMessage();
+        } finally {
+            pool.shutdownNow();
+            run.finishedAt = Instant.now();
+        }
+    }
+
+    private void checkChunk(Run run, long fromId, long toId) {
+        ChunkRead read = readTransaction.execute(status -> new ChunkRead(
+                reconciliationRepository.findQuantities(fromId, toId),
+                reconciliationRepository.sumMovements(fromId, toId)));
+
+        TreeSet<Long> variantIds = new TreeSet<>(read.quantities().keySet());
+        variantIds.addAll(read.ledger().keySet());
+        Map<Long, long[]> drifted = new TreeMap<>();
+        for (Long variantId : variantIds) {
+            long quantity = read.quantities().getOrDefault(variantId, 0L);
+            long ledger = read.ledger().getOrDefault(variantId, 0L);
+            if (quantity != ledger) {
+                drifted.put(variantId, new long[] { quantity, ledger });
+            }
+        }
+        run.variantsChecked.addAndGet(variantIds.size());
+
+        Map<Long, Long> corrections = run.autoCorrect && !drifted.isEmpty()
+                ? correct(run, drifted.keySet())
+                : Map.of();
+        for (Map.Entry<Long, long[]> entry : drifted.entrySet()) {
+            long quantity = entry.getValue()[0];
+            long ledger = entry.getValue()[1];
+            boolean corrected = corrections.containsKey(entry.getKey());
+            run.report(new ReconciliationDrift(entry.getKey(), quantity, ledger, quantity - ledger, corrected),
+                    maxReportedDrifts);
+        }
+        run.corrected.addAndGet(corrections.size());
+        run.chunksDone.incrementAndGet();
+    }
+
+    /**
+     * Re-reads the drifted variants under row locks so a concurrent movement
+     * cannot be mistaken for drift, then writes one ADJUST per variant that still
+     * differs. A variant without a stock row, or whose change does not fit the INT
+     * {@code change_qty} column, is left alone and stays reported as uncorrected.
+     * Returns the applied change per variant.
+     */
+    private Map<Long, Long> correct(Run run, Set<Long> variantIds) {
+        return correctionTransaction.execute(status -> {
+            Map<Long, Long> quantities = reconciliationRepository.lockQuantities(variantIds);
+            Map<Long, Long> ledger = reconciliationRepository.sumMovements(quantities.keySet());
+            Map<Long, Long> applied = new TreeMap<>();
+            List<StockMovementRow> rows = new ArrayList<>();
+            for (Map.Entry<Long, Long> entry : quantities.entrySet()) {
+                long change = entry.getValue() - ledger.getOrDefault(entry.getKey(), 0L);
+                if (change < Integer.MIN_VALUE || change > Integer.MAX_VALUE) {
+                    log.warn("Reconciliation {} skipped variant {}: drift {} does not fit one ADJUST movement",
+                            run.id, entry.getKey(), change);
+                } else if (change != 0) {
+                    applied.put(entry.getKey(), change);
+                    rows.add(new StockMovementRow(
+                            entry.getKey(),
+                            (int) change,
+                            StockMovementType.ADJUST,
+                            "RECON-" + run.id));
+                }
+            }
+            stockJdbcRepository.insertMovements(rows);
+            return applied;
+        });
+    }
+
+    private record ChunkRead(Map<Long, Long> quantities, Map<Long, Long> ledger) {
+    }
+
+    private static final class Run {
+        private final String id;
+        private final boolean autoCorrect;
+        private final Instant startedAt = Instant.now();
+        private final AtomicInteger chunksTotal = new AtomicInteger();
+        private final AtomicInteger chunksDone = new AtomicInteger();
+        private final AtomicLong variantsChecked = new AtomicLong();
+        private final AtomicLong driftCount = new AtomicLong();
+        private final AtomicLong corrected = new AtomicLong();
+        private final Queue<ReconciliationDrift> drifts = new ConcurrentLinkedQueue<>();
+        private volatile Instant finishedAt;
+        private volatile String error;
+
+        private Run(String id, boolean autoCorrect) {
+            this.id = id;
+            this.autoCorrect = autoCorrect;
+        }
+
+        private void report(ReconciliationDrift drift, int maxReported) {
+            if (driftCount.incrementAndGet() <= maxReported) {
+                drifts.add(drift);
+            }
+        }
+
+        private ReconciliationStatusResponse toResponse() {
+            return new ReconciliationStatusResponse(
+                    id,
+                    finishedAt == null,
+                    autoCorrect,
+                    startedAt,
+                    finishedAt,
+                    chunksTotal.get(),
+                    chunksDone.get(),
+                    variantsChecked.get(),
+                    driftCount.get(),
+                    corrected.get(),
+                    error,
+                    List.copyOf(drifts));
+        }
+    }
+}
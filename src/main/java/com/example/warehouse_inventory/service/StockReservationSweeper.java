@@ -0,0 +1,28 @@
+package com.example.warehouse_inventory.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class StockReservationSweeper {
+    private final OrderService orderService;
+    private final int batchSize;
+
+    public StockReservationSweeper(
+            OrderService orderService,
+            @Value("${inventory.reservation.sweep-batch-size:200}") int batchSize) {
+        this.orderService = orderService;
+        this.batchSize = Math.max(batchSize, 1);
+    }
+
+    @Scheduled(
+            initialDelayString = "${inventory.reservation.sweep-interval-ms:30000}",
+            fixedDelayString = "${inventory.reservation.sweep-interval-ms:30000}")
+    public void sweep() {
+        int released;
+        do {
+            released = orderService.releaseExpiredReservations(batchSize);
+        } while (released == batchSize);
+    }
+}
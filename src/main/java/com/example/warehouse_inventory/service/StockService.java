@@ -1,32 +1,48 @@
 package com.example.warehouse_inventory.service;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.example.warehouse_inventory.entity.Stock;
+import com.example.warehouse_inventory.entity.Variant;
 import com.example.warehouse_inventory.dto.FilterRequest;
 import com.example.warehouse_inventory.dto.StockResponse;
+import com.example.warehouse_inventory.exception.NotFoundException;
 import com.example.warehouse_inventory.mapper.StockMapper;
+import com.example.warehouse_inventory.repository.StockJdbcRepository;
+import com.example.warehouse_inventory.repository.StockListRow;
 import com.example.warehouse_inventory.repository.StockRepository;
 import com.example.warehouse_inventory.response.PaginatedResponse;
 import com.example.warehouse_inventory.response.PaginationMeta;
-import com.example.warehouse_inventory.util.FilterFieldResolver;
-import com.example.warehouse_inventory.util.FilterPredicateBuilder;
-import com.example.warehouse_inventory.util.FilterValueParser;
+import com.example.warehouse_inventory.serialization.ExportFormat;
+import com.example.warehouse_inventory.serialization.StreamingExport;
+import com.example.warehouse_inventory.service.PageFetcher.OffsetPage;
+import com.example.warehouse_inventory.util.FilterEngine;
+import com.example.warehouse_inventory.util.FilterFieldType;
+import com.example.warehouse_inventory.util.FilterPlan;
+import com.example.warehouse_inventory.util.FilterSchema;
+import com.example.warehouse_inventory.util.KeysetPager;
+import com.example.warehouse_inventory.util.KeysetPager.KeysetSlice;
 import com.example.warehouse_inventory.util.OffsetBasedPageRequest;
+import com.example.warehouse_inventory.util.QueryJoins;
+import com.example.warehouse_inventory.util.TotalCountMode;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import jakarta.persistence.criteria.Join;
-import jakarta.persistence.criteria.JoinType;
-import jakarta.persistence.criteria.Predicate;
 
-import java.time.Instant;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 import lombok.RequiredArgsConstructor;
 
@@ -34,15 +50,22 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class StockService {
     private final StockRepository stockRepository;
-    private static final Map<String, String> FIELD_MAP = Map.ofEntries(
-            Map.entry("id", "variantId"),
-            Map.entry("variantid", "variantId"),
-            Map.entry("variant_id", "variantId"),
-            Map.entry("quantity", "quantity"),
-            Map.entry("sku", "sku"),
-            Map.entry("updatedat", "updatedAt"),
-            Map.entry("updated_at", "updatedAt"));
-    private static final Set<String> STRING_FIELDS = Set.of("sku");
+    private final PageFetcher pageFetcher;
+    private final ObjectMapper objectMapper;
+    private final LowStockWatcher lowStockWatcher;
+    private final StockJdbcRepository stockJdbcRepository;
+    private static final List<String> EXPORT_HEADER = List.of(
+            "variant_id", "sku", "variant_name", "quantity", "reserved", "available", "reorder_point", "price",
+            "updated_at", "attributes");
+    private static final FilterEngine<Stock> FILTERS = new FilterEngine<>(FilterSchema.builder()
+            .field("variantId", FilterFieldType.LONG, "id", "variant_id")
+            .field("quantity", FilterFieldType.INTEGER)
+            .field("reserved", FilterFieldType.INTEGER)
+            .field("reorderPoint", FilterFieldType.INTEGER, "reorder_point")
+            .field("lowStock", FilterFieldType.BOOLEAN, "low_stock")
+            .field("variant.sku", FilterFieldType.STRING)
+            .field("updatedAt", FilterFieldType.INSTANT, "updated_at")
+            .build());
 
     @Transactional
     public void createForVariant(Long variantId) {
@@ -62,7 +85,9 @@ public class StockService {
             String search,
             String sortBy,
             String sortDirection,
-            List<FilterRequest> filters) {
+            List<FilterRequest> filters,
+            String cursor,
+            String includeTotal) {
         String sortField = (sortBy == null || sortBy.isBlank()) ? "id" : sortBy;
         String normalizedSort = sortField.trim().toLowerCase();
         String safeSort = switch (normalizedSort) {
@@ -76,39 +101,94 @@ public class StockService {
         Sort sort = Sort.by(direction, safeSort);
 
         OffsetBasedPageRequest pageable = new OffsetBasedPageRequest(offset, limit, sort);
-        Specification<Stock> spec = (root, query, cb) -> cb.conjunction();
-        if (search != null && !search.isBlank()) {
-            String pattern = "%" + search.toLowerCase() + "%";
-            spec = spec.and((root, query, cb) -> {
-                Join<Object, Object> variantJoin = root.join("variant", JoinType.LEFT);
-                return cb.or(
-                        cb.like(cb.lower(variantJoin.get("sku")), pattern),
-                        cb.like(cb.lower(variantJoin.get("variantName")), pattern));
-            });
+        FilterPlan<Stock> filterPlan = FILTERS.compile(filters);
+        Specification<Stock> spec = listSpec(search, filterPlan);
+        if (cursor != null) {
+            Function<StockListRow, Object> sortKey = switch (safeSort) {
+                case "quantity" -> StockListRow::quantity;
+                case "variant.sku" -> StockListRow::sku;
+                case "updatedAt" -> StockListRow::updatedAt;
+                default -> StockListRow::variantId;
+            };
+            KeysetSlice<StockListRow> slice = KeysetPager.fetch(
+                    stockRepository::findListRows,
+                    spec,
+                    safeSort,
+                    "variantId",
+                    direction,
+                    limit,
+                    cursor,
+                    sortKey,
+                    StockListRow::variantId);
+            List<StockResponse> stocks = slice.content().stream()
+                    .map(StockMapper::toResponse)
+                    .toList();
+            PaginationMeta meta = PaginationMeta.ofKeyset(
+                    limit,
+                    stocks.size(),
+                    slice.hasNext(),
+                    !cursor.isBlank(),
+                    slice.nextCursor());
+            return new PaginatedResponse<>(stocks, meta);
         }
-        spec = spec.and(buildFilterSpec(filters));
-        Page<Stock> page = stockRepository.findAll(spec, pageable);
+        OffsetPage<StockListRow> page = pageFetcher.fetch(
+                stockRepository,
+                stockRepository::findListRows,
+                spec,
+                pageable,
+                TotalCountMode.from(includeTotal),
+                "stock",
+                PageFetcher.filterKey(search, filterPlan.conditions()));
 
-        List<StockResponse> stocks = page.getContent().stream()
+        List<StockResponse> stocks = page.content().stream()
                 .map(StockMapper::toResponse)
                 .toList();
-        long total = page.getTotalElements();
-        long count = stocks.size();
-        long showingFrom = count > 0 ? (long) offset + 1 : 0;
-        long showingTo = (long) offset + count;
-
-        PaginationMeta meta = new PaginationMeta(
+        PaginationMeta meta = PaginationMeta.ofOffset(
                 offset,
                 limit,
-                total,
-                (offset + count) < total,
-                offset > 0,
-                offset,
-                showingFrom,
-                showingTo);
+                page.total(),
+                stocks.size(),
+                page.hasNext());
         return new PaginatedResponse<>(stocks, meta);
     }
 
+    /**
+     * Compiles export filters with the same schema as {@link #getAll}. Filters
+     * that do not compile are dropped, not rejected, exactly as on the list.
+     */
+    public FilterPlan<Stock> compileFilters(List<FilterRequest> filters) {
+        return FILTERS.compile(filters);
+    }
+
+    /**
+     * Streams the whole filtered stock list in variant id order. Runs on the
+     * response thread inside one read-only transaction.
+     */
+    @Transactional(readOnly = true)
+    public void export(String search, FilterPlan<Stock> filterPlan, ExportFormat format, OutputStream out)
+            throws IOException {
+        Specification<Stock> spec = listSpec(search, filterPlan);
+        try (Stream<StockListRow> rows = stockRepository.streamListRows(spec, Sort.by("variantId"))) {
+            StreamingExport.write(
+                    rows.map(StockMapper::toResponse),
+                    format,
+                    out,
+                    objectMapper,
+                    EXPORT_HEADER,
+                    stock -> Arrays.asList(
+                            stock.variantId(),
+                            stock.sku(),
+                            stock.variantName(),
+                            stock.quantity(),
+                            stock.reserved(),
+                            stock.available(),
+                            stock.reorderPoint(),
+                            stock.price(),
+                            stock.updatedAt(),
+                            stock.attributes()));
+        }
+    }
+
     @Transactional(readOnly = true)
     public int getQuantityOrZero(Long variantId) {
         return stockRepository.findById(variantId)
@@ -116,133 +196,121 @@ public class StockService {
                 .orElse(0);
     }
 
+    /**
+     * Variants whose available quantity is below their reorder point, read
+     * through the {@code (low_stock, variant_id)} index.
+     */
+    @Transactional(readOnly = true)
+    public PaginatedResponse<StockResponse> getLow(int offset, int limit) {
+        OffsetBasedPageRequest pageable = new OffsetBasedPageRequest(offset, limit, Sort.by("variantId"));
+        Specification<Stock> spec = (root, query, cb) -> cb.isTrue(root.get("lowStock"));
+        OffsetPage<StockListRow> page = pageFetcher.fetch(
+                stockRepository,
+                stockRepository::findListRows,
+                spec,
+                pageable,
+                TotalCountMode.EXACT,
+                "stock",
+                "low_stock");
+        List<StockResponse> stocks = page.content().stream()
+                .map(StockMapper::toResponse)
+                .toList();
+        PaginationMeta meta = PaginationMeta.ofOffset(
+                offset,
+                limit,
+                page.total(),
+                stocks.size(),
+                page.hasNext());
+        return new PaginatedResponse<>(stocks, meta);
+    }
+
     @Transactional
-    public int applyChange(Long variantId, int changeQty) {
-        Stock stock = stockRepository.findById(variantId)
-                .orElseGet(() -> {
-                    Stock created = new Stock();
-                    created.setVariantId(variantId);
-                    created.setQuantity(0);
-                    return created;
-                });
-        int updatedQuantity = stock.getQuantity() + changeQty;
-        stock.setQuantity(updatedQuantity);
-        stockRepository.save(stock);
-        return updatedQuantity;
+    public StockResponse updateReorderPoint(Long variantId, Integer reorderPoint) {
+        if (!stockRepository.existsById(variantId)) {
+            throw new NotFoundException("Stock not found");
+        }
+        applyReorderPoint(List.of(variantId), reorderPoint);
+        return stockRepository.findById(variantId)
+                .map(StockMapper::toResponse)
+                .orElseThrow(() -> new NotFoundException("Stock not found"));
     }
 
+    /**
+     * Sets the same reorder point on every variant of the item; returns how many
+     * stock rows changed.
+     */
     @Transactional
-    public void deleteByVariantId(Long variantId) {
-        if (stockRepository.existsById(variantId)) {
-            stockRepository.deleteById(variantId);
+    public int updateReorderPointForItem(Long itemId, Integer reorderPoint) {
+        List<Long> variantIds = stockJdbcRepository.findVariantIdsByItemId(itemId);
+        if (variantIds.isEmpty()) {
+            throw new NotFoundException("Stock not found");
         }
+        return applyReorderPoint(variantIds, reorderPoint);
     }
 
-    private Specification<Stock> buildFilterSpec(List<FilterRequest> filters) {
-        if (filters == null || filters.isEmpty()) {
-            return (root, query, cb) -> cb.conjunction();
+    @Transactional
+    public boolean applyChange(Long variantId, int changeQty) {
+        if (stockRepository.applyChangeIfSufficient(variantId, changeQty) > 0) {
+            lowStockWatcher.afterDecrease(variantId, -changeQty);
+            return true;
+        }
+        if (changeQty < 0) {
+            return false;
         }
-        return (root, query, cb) -> {
-            List<Predicate> predicates = new ArrayList<>();
-            for (FilterRequest filter : filters) {
-                if (filter == null || filter.field() == null) {
-                    continue;
-                }
-                String field = FilterFieldResolver.resolve(FIELD_MAP, filter.field());
-                if (field == null) {
-                    continue;
-                }
-                String operator = (filter.operator() == null || filter.operator().isBlank())
-                        ? "="
-                        : filter.operator().trim().toLowerCase();
-                String rawValue = filter.value();
-                if (rawValue == null || rawValue.isBlank()) {
-                    continue;
-                }
-
-                if ("sku".equals(field)) {
-                    Join<Object, Object> variantJoin = root.join("variant", JoinType.LEFT);
-                    String value = rawValue.trim();
-                    switch (operator) {
-                        case "=" -> predicates.add(cb.equal(variantJoin.get("sku"), value));
-                        case "!=" -> predicates.add(cb.notEqual(variantJoin.get("sku"), value));
-                        case "contains" -> predicates.add(cb.like(cb.lower(variantJoin.get("sku")),
-                                "%" + value.toLowerCase() + "%"));
-                        default -> {
-                        }
-                    }
-                    continue;
-                }
-
-                switch (operator) {
-                    case "=" -> {
-                        Object value = convertValue(field, rawValue);
-                        if (value != null) {
-                            predicates.add(cb.equal(root.get(field), value));
-                        }
-                    }
-                    case "!=" -> {
-                        Object value = convertValue(field, rawValue);
-                        if (value != null) {
-                            predicates.add(cb.notEqual(root.get(field), value));
-                        }
-                    }
-                    case ">", "<", ">=", "<=" -> FilterPredicateBuilder.addComparablePredicate(
-                            predicates,
-                            root.get(field),
-                            operator,
-                            rawValue,
-                            cb,
-                            value -> convertValue(field, value));
-                    case "contains" -> {
-                        if (STRING_FIELDS.contains(field)) {
-                            String pattern = "%" + rawValue.toLowerCase() + "%";
-                            predicates.add(cb.like(cb.lower(root.get(field)), pattern));
-                        }
-                    }
-                    case "in" -> {
-                        List<Object> values = FilterValueParser.parseValues(
-                                rawValue,
-                                value -> convertValue(field, value));
-                        if (!values.isEmpty()) {
-                            predicates.add(root.get(field).in(values));
-                        }
-                    }
-                    case "between" -> {
-                        List<Object> values = FilterValueParser.parseValues(
-                                rawValue,
-                                value -> convertValue(field, value));
-                        if (values.size() == 2
-                                && values.get(0) instanceof Comparable
-                                && values.get(1) instanceof Comparable) {
-                            predicates.add(cb.between(
-                                    root.get(field).as(Comparable.class),
-                                    (Comparable) values.get(0),
-                                    (Comparable) values.get(1)));
-                        }
-                    }
-                    default -> {
-                    }
-                }
+        stockRepository.insertEmptyIfAbsent(variantId);
+        return stockRepository.applyChangeIfSufficient(variantId, changeQty) > 0;
+    }
+
+    /**
+     * Reserves every quantity or none. The stock rows are locked with one
+     * {@code IN} query in variant id order and held with one batched update.
+     * Returns the variant ids without enough available stock, in which case
+     * nothing is reserved.
+     */
+    @Transactional
+    public List<Long> reserveAll(Map<Long, Integer> quantityByVariantId) {
+        Map<Long, Integer> available = stockJdbcRepository.lockAvailable(quantityByVariantId.keySet());
+        List<Long> shortVariantIds = new ArrayList<>();
+        Map<Long, Integer> deltas = new TreeMap<>();
+        for (Map.Entry<Long, Integer> entry : quantityByVariantId.entrySet()) {
+            if (available.getOrDefault(entry.getKey(), 0) < entry.getValue()) {
+                shortVariantIds.add(entry.getKey());
             }
-            return predicates.isEmpty() ? cb.conjunction() : cb.and(predicates.toArray(new Predicate[0]));
-        };
+            deltas.put(entry.getKey(), -entry.getValue());
+        }
+        if (!shortVariantIds.isEmpty()) {
+            return shortVariantIds;
+        }
+        stockJdbcRepository.addReserved(quantityByVariantId);
+        lowStockWatcher.afterDeltas(deltas);
+        return List.of();
     }
 
-    private Object convertValue(String field, String rawValue) {
-        String trimmed = rawValue.trim();
-        if (trimmed.isEmpty()) {
-            return null;
+    @Transactional
+    public void deleteByVariantId(Long variantId) {
+        if (stockRepository.existsById(variantId)) {
+            stockRepository.deleteById(variantId);
         }
-        try {
-            return switch (field) {
-                case "variantId" -> Long.parseLong(trimmed);
-                case "quantity" -> Integer.parseInt(trimmed);
-                case "updatedAt" -> Instant.parse(trimmed);
-                default -> trimmed;
-            };
-        } catch (RuntimeException ex) {
-            return null;
+    }
+
+    private int applyReorderPoint(List<Long> variantIds, Integer reorderPoint) {
+        Set<Long> lowBefore = lowStockWatcher.lowNow(variantIds);
+        int updated = stockJdbcRepository.updateReorderPoint(variantIds, reorderPoint);
+        lowStockWatcher.afterThresholdChange(variantIds, lowBefore);
+        return updated;
+    }
+
+    private Specification<Stock> listSpec(String search, FilterPlan<Stock> filterPlan) {
+        Specification<Stock> spec = (root, query, cb) -> cb.conjunction();
+        if (search != null && !search.isBlank()) {
+            String pattern = "%" + search.toLowerCase() + "%";
+            spec = spec.and((root, query, cb) -> {
+                Join<Stock, Variant> variantJoin = QueryJoins.left(root, "variant");
+                return cb.or(
+                        cb.like(cb.lower(variantJoin.get("sku")), pattern),
+                        cb.like(cb.lower(variantJoin.get("variantName")), pattern));
+            });
         }
+        return spec.and(filterPlan);
     }
 }
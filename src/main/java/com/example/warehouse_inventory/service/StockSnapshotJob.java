@@ -0,0 +1,18 @@
+package com.example.warehouse_inventory.service;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+@Component
+@RequiredArgsConstructor
+public class StockSnapshotJob {
+    private final StockSnapshotService stockSnapshotService;
+
+    @Scheduled(cron = "${inventory.stock.snapshots.cron:0 0 * * * *}", zone = "UTC")
+    public void snapshot() {
+        stockSnapshotService.takeSnapshot();
+        stockSnapshotService.pruneSnapshots();
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.warehouse_inventory.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.warehouse_inventory.dto.StockAtResponse;
+import com.example.warehouse_inventory.dto.StockQuantityResponse;
+import com.example.warehouse_inventory.exception.InvalidRequestException;
+import com.example.warehouse_inventory.repository.StockJdbcRepository;
+import com.example.warehouse_inventory.repository.StockSnapshotRepository;
+import com.example.warehouse_inventory.repository.StockSnapshotRepository.MovementDelta;
+import com.example.warehouse_inventory.repository.StockSnapshotRepository.StoredSnapshot;
+import com.example.warehouse_inventory.serialization.StockSnapshotCodec;
+import com.example.warehouse_inventory.serialization.StockSnapshotCodec.Snapshot;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Periodic snapshots of {@code stock.quantity} and point-in-time quantities
+ * rebuilt from the nearest earlier snapshot plus the movements after it.
+ *
+ * <p>A snapshot reads {@code stock} in a repeatable-read view and only then takes
+ * {@code taken_at}, so no movement with {@code created_at > taken_at} can be in it.
+ * Movements with an earlier {@code created_at} may still have committed after the
+ * view was opened; the ids of those that are visible in the last
+ * {@code boundary-seconds} are stored with the snapshot so that replay counts each
+ * movement exactly once.
+ */
+@Service
+public class StockSnapshotService {
+    private final StockSnapshotRepository snapshotRepository;
+    private final StockJdbcRepository stockJdbcRepository;
+    private final TransactionTemplate snapshotTransaction;
+    private final Duration boundary;
+    private final int retentionDays;
+
+    public StockSnapshotService(
+            StockSnapshotRepository snapshotRepository,
+            StockJdbcRepository stockJdbcRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${inventory.stock.snapshots.boundary-seconds:60}") long boundarySeconds,
+            @Value("${inventory.stock.snapshots.retention-days:30}") int retentionDays) {
+        this.snapshotRepository = snapshotRepository;
+        this.stockJdbcRepository = stockJdbcRepository;
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTransaction.setReadOnly(true);
+        this.boundary = Duration.ofSeconds(Math.max(boundarySeconds, 1));
+        this.retentionDays = Math.max(retentionDays, 0);
+    }
+
+    public Instant takeSnapshot() {
+        PendingSnapshot pending = snapshotTransaction.execute(status -> {
+            StockSnapshotCodec.Encoder encoder = new StockSnapshotCodec.Encoder();
+            snapshotRepository.forEachStockQuantity(encoder::add);
+            Instant takenAt = stockJdbcRepository.currentTimestamp();
+            Instant boundaryFrom = takenAt.minus(boundary);
+            List<Long> visible = snapshotRepository.findMovementIdsBetween(boundaryFrom, takenAt);
+            return new PendingSnapshot(takenAt, boundaryFrom, encoder.count(), encoder.finish(visible));
+        });
+        snapshotRepository.insert(pending.takenAt(), pending.boundaryFrom(), pending.variantCount(), pending.data());
+        return pending.takenAt();
+    }
+
+    /**
+     * Drops snapshots older than {@code inventory.stock.snapshots.retention-days}
+     * ({@code 0} keeps them all). Queries before the oldest remaining snapshot fall
+     * back to summing the ledger.
+     */
+    public int pruneSnapshots() {
+        return retentionDays == 0 ? 0 : snapshotRepository.deleteOlderThanDays(retentionDays);
+    }
+
+    /**
+     * Quantities as of {@code at} (movements with {@code created_at <= at}), for
+     * every variant or only {@code variantId}. Reads one snapshot and the movements
+     * after it; without an earlier snapshot it replays the whole ledger.
+     */
+    public StockAtResponse quantitiesAt(String at, Long variantId) {
+        Instant instant = parseInstant(at);
+        Map<Long, Long> quantities = new TreeMap<>();
+        StoredSnapshot stored = snapshotRepository.findLatestAtOrBefore(instant).orElse(null);
+        if (stored == null) {
+            quantities.putAll(snapshotRepository.sumMovements(null, instant, variantId));
+        } else {
+            Snapshot snapshot = StockSnapshotCodec.decode(stored.data());
+            if (variantId == null) {
+                quantities.putAll(snapshot.quantities());
+            } else if (snapshot.quantities().containsKey(variantId)) {
+                quantities.put(variantId, snapshot.quantities().get(variantId));
+            }
+            Set<Long> included = snapshot.boundaryMovementIds();
+            for (MovementDelta delta : snapshotRepository.findMovementDeltasBetween(stored.boundaryFrom(),
+                    stored.takenAt(), variantId)) {
+                if (!included.contains(delta.id())) {
+                    quantities.merge(delta.variantId(), (long) delta.changeQty(), Long::sum);
+                }
+            }
+            snapshotRepository.sumMovements(stored.takenAt(), instant, variantId)
+                    .forEach((id, delta) -> quantities.merge(id, delta, Long::sum));
+        }
+
+        Map<Long, String> skus = snapshotRepository.findSkus(variantId);
+        List<StockQuantityResponse> items = new ArrayList<>(quantities.size());
+        quantities.forEach((id, quantity) -> items.add(new StockQuantityResponse(id, skus.get(id), quantity)));
+        return new StockAtResponse(instant, stored == null ? null : stored.takenAt(), items);
+    }
+
+    private static Instant parseInstant(String value) {
+        if (value == null || value.isBlank()) {
+            throw new InvalidRequestException("at is required");
+        }
+        try {
+            return Instant.parse(value.trim());
+        } catch (DateTimeParseException ex) {
+            throw new InvalidRequestException("at must be an ISO-8601 instant");
+        }
+    }
+
+    private record PendingSnapshot(Instant takenAt, Instant boundaryFrom, int variantCount, byte[] data) {
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.warehouse_inventory.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.warehouse_inventory.dto.StockMovementResponse;
+import com.example.warehouse_inventory.entity.StockMovementType;
+import com.example.warehouse_inventory.exception.DataAlreadyExistsException;
+import com.example.warehouse_inventory.exception.NotFoundException;
+import com.example.warehouse_inventory.repository.StockJdbcRepository;
+import com.example.warehouse_inventory.repository.StockJdbcRepository.InsertedMovement;
+import com.example.warehouse_inventory.repository.StockJdbcRepository.StockMovementRow;
+import com.example.warehouse_inventory.repository.VariantRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Combines concurrent stock movements that hash to the same stripe into one
+ * transaction: one locking read, one net update per variant and one batched
+ * movement insert. The first caller to take the stripe lock becomes the leader,
+ * waits a short window for followers to queue up, then applies everything that
+ * is queued. Each caller still receives its own accepted movement or error.
+ */
+@Component
+public class StockWriteCombiner {
+    private final StockJdbcRepository stockJdbcRepository;
+    private final VariantRepository variantRepository;
+    private final LowStockWatcher lowStockWatcher;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final Stripe[] stripes;
+
+    public StockWriteCombiner(
+            StockJdbcRepository stockJdbcRepository,
+            VariantRepository variantRepository,
+            LowStockWatcher lowStockWatcher,
+            PlatformTransactionManager transactionManager,
+            @Value("${inventory.stock.write-combining.enabled:false}") boolean enabled,
+            @Value("${inventory.stock.write-combining.window-micros:500}") long windowMicros,
+            @Value("${inventory.stock.write-combining.stripes:64}") int stripeCount,
+            @Value("${inventory.stock.write-combining.max-batch-size:256}") int maxBatchSize) {
+        this.stockJdbcRepository = stockJdbcRepository;
+        this.variantRepository = variantRepository;
+        this.lowStockWatcher = lowStockWatcher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.windowNanos = TimeUnit.MICROSECONDS.toNanos(Math.max(windowMicros, 0));
+        this.maxBatchSize = Math.max(maxBatchSize, 1);
+        this.stripes = new Stripe[Math.max(stripeCount, 1)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public StockMovementResponse submit(Long variantId, int changeQty, StockMovementType movementType,
+            String referenceId) {
+        PendingMovement pending = new PendingMovement(
+                variantId,
+                movementType.normalize(changeQty),
+                movementType,
+                referenceId);
+        Stripe stripe = stripeFor(variantId);
+        stripe.queue.add(pending);
+
+        while (!pending.result.isDone()) {
+            if (stripe.lock.tryLock()) {
+                try {
+                    if (!pending.result.isDone()) {
+                        if (windowNanos > 0) {
+                            LockSupport.parkNanos(windowNanos);
+                        }
+                        combine(stripe);
+                    }
+                } finally {
+                    stripe.lock.unlock();
+                }
+            } else {
+                awaitQuietly(pending);
+            }
+        }
+        return unwrap(pending);
+    }
+
+    private void combine(Stripe stripe) {
+        List<PendingMovement> batch = new ArrayList<>();
+        PendingMovement next;
+        while (batch.size() < maxBatchSize && (next = stripe.queue.poll()) != null) {
+            batch.add(next);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> applyBatch(batch));
+        } catch (RuntimeException ex) {
+            batch.forEach(pending -> pending.outcome = ex);
+        }
+        batch.forEach(PendingMovement::complete);
+    }
+
+    private void applyBatch(List<PendingMovement> batch) {
+        Set<Long> variantIds = new TreeSet<>();
+        batch.forEach(pending -> variantIds.add(pending.variantId));
+
+        Map<Long, Integer> available = stockJdbcRepository.lockAvailable(variantIds);
+        if (available.size() < variantIds.size()) {
+            Set<Long> missing = new TreeSet<>(variantIds);
+            missing.removeAll(available.keySet());
+            List<Long> existing = variantRepository.findExistingIds(missing);
+            stockJdbcRepository.insertEmptyIfAbsent(existing);
+            available.putAll(stockJdbcRepository.lockAvailable(existing));
+        }
+
+        Map<Long, Integer> deltas = new TreeMap<>();
+        List<PendingMovement> accepted = new ArrayList<>();
+        List<StockMovementRow> rows = new ArrayList<>();
+        for (PendingMovement pending : batch) {
+            Integer current = available.get(pending.variantId);
+            if (current == null) {
+                pending.outcome = new NotFoundException("Variant not found");
+                continue;
+            }
+            int updated = current + pending.changeQty;
+            if (updated < 0) {
+                pending.outcome = new DataAlreadyExistsException("Stock is not enough");
+                continue;
+            }
+            available.put(pending.variantId, updated);
+            deltas.merge(pending.variantId, pending.changeQty, Integer::sum);
+            accepted.add(pending);
+            rows.add(new StockMovementRow(
+                    pending.variantId,
+                    pending.changeQty,
+                    pending.movementType,
+                    pending.referenceId));
+        }
+
+        stockJdbcRepository.applyDeltas(deltas);
+        lowStockWatcher.afterDeltas(deltas);
+        List<Long> ids = stockJdbcRepository.insertMovements(rows);
+        Map<Long, InsertedMovement> inserted = stockJdbcRepository.findInserted(ids);
+        for (int i = 0; i < accepted.size(); i++) {
+            PendingMovement pending = accepted.get(i);
+            InsertedMovement movement = inserted.get(ids.get(i));
+            pending.outcome = new StockMovementResponse(
+                    ids.get(i),
+                    pending.variantId,
+                    movement.sku(),
+                    movement.variantName(),
+                    pending.changeQty,
+                    pending.movementType,
+                    pending.referenceId,
+                    movement.createdAt());
+        }
+    }
+
+    private Stripe stripeFor(Long variantId) {
+        return stripes[Math.floorMod(Long.hashCode(variantId * 0x9E3779B97F4A7C15L), stripes.length)];
+    }
+
+    private void awaitQuietly(PendingMovement pending) {
+        try {
+            pending.result.get(Math.max(windowNanos, TimeUnit.MICROSECONDS.toNanos(100)), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | ExecutionException ex) {
+            // checked again by the caller loop
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for stock movement", ex);
+        }
+    }
+
+    private StockMovementResponse unwrap(PendingMovement pending) {
+        Object outcome = pending.result.join();
+        if (outcome instanceof RuntimeException ex) {
+            throw ex;
+        }
+        return (StockMovementResponse) outcome;
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Queue<PendingMovement> queue = new ConcurrentLinkedQueue<>();
+    }
+
+    private static final class PendingMovement {
+        private final Long variantId;
+        private final int changeQty;
+        private final StockMovementType movementType;
+        private final String referenceId;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        private Object outcome;
+
+        private PendingMovement(Long variantId, int changeQty, StockMovementType movementType, String referenceId) {
+            this.variantId = variantId;
+            this.changeQty = changeQty;
+            this.movementType = movementType;
+            this.referenceId = referenceId;
+        }
+
+        private void complete() {
+            result.complete(outcome);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.warehouse_inventory.service;
+
+import com.example.warehouse_inventory.entity.Variant;
+
+/**
+ * Published by {@link VariantService} whenever a variant's facet-relevant state
+ * (attributes, active flag, existence) may have changed.
+ */
+public record VariantChangedEvent(Long variantId, String attributes, boolean active, boolean deleted) {
+    public static VariantChangedEvent of(Variant variant) {
+        return new VariantChangedEvent(
+                variant.getId(),
+                variant.getAttributes(),
+                Boolean.TRUE.equals(variant.getActive()),
+                false);
+    }
+
+    public static VariantChangedEvent deleted(Long variantId) {
+        return new VariantChangedEvent(variantId, null, false, true);
+    }
+}
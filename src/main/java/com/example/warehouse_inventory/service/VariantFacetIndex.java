@@ -0,0 +1,269 @@
+package com.example.warehouse_inventory.service;
+
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.warehouse_inventory.dto.VariantFacetsResponse;
+import com.example.warehouse_inventory.entity.Variant;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory facet index over {@link Variant#ATTRIBUTE_KEYS} and {@code active}: one
+ * compressed 64-bit bitmap of variant ids per attribute value, so ids past the int
+ * range are indexed like any other. Facet counts are bitmap intersections, so they
+ * do not touch the database. The index is rebuilt from the generated {@code attr_*}
+ * columns at startup and kept current by {@link VariantChangedEvent}s after each
+ * commit. Those events are local to this JVM: changes committed on another node
+ * only show up after the next scheduled rebuild
+ * ({@code inventory.variants.facets.rebuild-interval-ms}). Values are keyed trimmed and
+ * lower-cased, matching the case-insensitive column collation the list filters
+ * compare with; each facet is reported under the first spelling indexed.
+ */
+@Component
+public class VariantFacetIndex {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final int MAX_VALUE_LENGTH = 255;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private State state = new State();
+    private List<VariantChangedEvent> changesDuringRebuild;
+
+    public VariantFacetIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(
+            initialDelayString = "${inventory.variants.facets.rebuild-interval-ms:600000}",
+            fixedDelayString = "${inventory.variants.facets.rebuild-interval-ms:600000}")
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        State rebuilt = new State();
+        try {
+            String columns = Variant.ATTRIBUTE_KEYS.stream()
+                    .map(key -> "attr_" + key)
+                    .collect(Collectors.joining(", "));
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                        "SELECT id, active, " + columns + " FROM variants",
+                        ResultSet.TYPE_FORWARD_ONLY,
+                        ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(Integer.MIN_VALUE);
+                return statement;
+            }, rs -> {
+                String[] values = new String[Variant.ATTRIBUTE_KEYS.size()];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = rs.getString(3 + i);
+                }
+                rebuilt.put(rs.getLong("id"), values, rs.getBoolean("active"));
+            });
+        } catch (RuntimeException ex) {
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw ex;
+        }
+
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild.forEach(change -> apply(rebuilt, change));
+            changesDuringRebuild = null;
+            state = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onVariantChanged(VariantChangedEvent change) {
+        lock.writeLock().lock();
+        try {
+            apply(state, change);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Counts variants per attribute value and per active flag. Each facet is counted
+     * under every constraint except its own, so sibling values stay selectable.
+     *
+     * @param attributeFilters required attribute values, by attribute key
+     * @param activeFilter     required active flag, or {@code null} for both
+     */
+    public VariantFacetsResponse count(Map<String, String> attributeFilters, Boolean activeFilter) {
+        lock.readLock().lock();
+        try {
+            State current = state;
+            Map<String, Roaring64Bitmap> selected = new HashMap<>();
+            attributeFilters.forEach((key, value) -> selected.put(key, current.bitmap(key, normalize(value))));
+            Roaring64Bitmap activeScope = activeFilter == null
+                    ? current.all
+                    : activeFilter ? current.active : Roaring64Bitmap.andNot(current.all, current.active);
+
+            Roaring64Bitmap matching = intersect(activeScope, selected, null);
+            Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+            for (String key : Variant.ATTRIBUTE_KEYS) {
+                Roaring64Bitmap scope = selected.containsKey(key) ? intersect(activeScope, selected, key) : matching;
+                Map<String, Facet> values = current.byKey.getOrDefault(key, Map.of());
+                List<Entry<String, Long>> counts = new ArrayList<>(values.size());
+                for (Facet facet : values.values()) {
+                    long count = Roaring64Bitmap.andCardinality(scope, facet.ids);
+                    if (count > 0) {
+                        counts.add(Map.entry(facet.label, count));
+                    }
+                }
+                counts.sort(Entry.<String, Long>comparingByValue().reversed().thenComparing(Entry.comparingByKey()));
+                Map<String, Long> ordered = new LinkedHashMap<>();
+                counts.forEach(entry -> ordered.put(entry.getKey(), entry.getValue()));
+                facets.put(key, ordered);
+            }
+
+            Roaring64Bitmap activeFacetScope = intersect(current.all, selected, null);
+            long activeCount = Roaring64Bitmap.andCardinality(activeFacetScope, current.active);
+            Map<String, Long> activeCounts = new LinkedHashMap<>();
+            activeCounts.put("true", activeCount);
+            activeCounts.put("false", activeFacetScope.getLongCardinality() - activeCount);
+            facets.put("active", activeCounts);
+
+            return new VariantFacetsResponse(matching.getLongCardinality(), facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Roaring64Bitmap intersect(Roaring64Bitmap base, Map<String, Roaring64Bitmap> selected, String skipKey) {
+        Roaring64Bitmap result = base.clone();
+        for (Entry<String, Roaring64Bitmap> entry : selected.entrySet()) {
+            if (!entry.getKey().equals(skipKey)) {
+                result.and(entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    private static void apply(State target, VariantChangedEvent change) {
+        long id = change.variantId();
+        if (change.deleted()) {
+            target.remove(id);
+        } else {
+            target.put(id, attributeValues(change.attributes()), change.active());
+        }
+    }
+
+    private static String[] attributeValues(String attributes) {
+        String[] values = new String[Variant.ATTRIBUTE_KEYS.size()];
+        if (attributes == null || attributes.isBlank()) {
+            return values;
+        }
+        try {
+            JsonNode node = OBJECT_MAPPER.readTree(attributes);
+            for (int i = 0; i < values.length; i++) {
+                JsonNode value = node.get(Variant.ATTRIBUTE_KEYS.get(i));
+                if (value != null && !value.isNull()) {
+                    String text = (value.isValueNode() ? value.asText() : value.toString()).trim();
+                    values[i] = text.length() > MAX_VALUE_LENGTH ? text.substring(0, MAX_VALUE_LENGTH) : text;
+                }
+            }
+        } catch (Exception ex) {
+            return new String[Variant.ATTRIBUTE_KEYS.size()];
+        }
+        return values;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Facet {
+        private final String label;
+        private final Roaring64Bitmap ids = new Roaring64Bitmap();
+
+        private Facet(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final class State {
+        private final Map<String, Map<String, Facet>> byKey = new HashMap<>();
+        private final Roaring64Bitmap all = new Roaring64Bitmap();
+        private final Roaring64Bitmap active = new Roaring64Bitmap();
+        private final Map<Long, String[]> valuesById = new HashMap<>();
+
+        private Roaring64Bitmap bitmap(String key, String normalizedValue) {
+            Facet facet = byKey.getOrDefault(key, Map.of()).get(normalizedValue);
+            return facet != null ? facet.ids : new Roaring64Bitmap();
+        }
+
+        private void put(long id, String[] values, boolean isActive) {
+            remove(id);
+            all.addLong(id);
+            if (isActive) {
+                active.addLong(id);
+            }
+            String[] normalized = new String[values.length];
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) {
+                    String label = values[i].trim();
+                    normalized[i] = normalize(label);
+                    byKey.computeIfAbsent(Variant.ATTRIBUTE_KEYS.get(i), key -> new HashMap<>())
+                            .computeIfAbsent(normalized[i], value -> new Facet(label))
+                            .ids.addLong(id);
+                }
+            }
+            valuesById.put(id, normalized);
+        }
+
+        private void remove(long id) {
+            String[] previous = valuesById.remove(id);
+            all.remove(id);
+            active.remove(id);
+            if (previous == null) {
+                return;
+            }
+            for (int i = 0; i < previous.length; i++) {
+                if (previous[i] == null) {
+                    continue;
+                }
+                Map<String, Facet> values = byKey.get(Variant.ATTRIBUTE_KEYS.get(i));
+                Facet facet = values.get(previous[i]);
+                facet.ids.remove(id);
+                if (facet.ids.isEmpty()) {
+                    values.remove(previous[i]);
+                }
+            }
+        }
+    }
+}
@@ -1,6 +1,6 @@
 package com.example.warehouse_inventory.service;
 
-import org.springframework.data.domain.Page;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
@@ -9,31 +9,37 @@ import org.springframework.transaction.annotation.Transactional;
 import com.example.warehouse_inventory.dto.CreateVariantRequest;
 import com.example.warehouse_inventory.dto.FilterRequest;
 import com.example.warehouse_inventory.dto.UpdateVariantRequest;
+import com.example.warehouse_inventory.dto.VariantFacetsResponse;
 import com.example.warehouse_inventory.dto.VariantResponse;
 import com.example.warehouse_inventory.entity.Variant;
 import com.example.warehouse_inventory.exception.DataAlreadyExistsException;
+import com.example.warehouse_inventory.exception.InvalidRequestException;
 import com.example.warehouse_inventory.exception.NotFoundException;
 import com.example.warehouse_inventory.mapper.VariantMapper;
 import com.example.warehouse_inventory.repository.ItemRepository;
 import com.example.warehouse_inventory.repository.VariantRepository;
 import com.example.warehouse_inventory.response.PaginatedResponse;
 import com.example.warehouse_inventory.response.PaginationMeta;
-import com.example.warehouse_inventory.util.FilterFieldResolver;
-import com.example.warehouse_inventory.util.FilterPredicateBuilder;
-import com.example.warehouse_inventory.util.FilterValueParser;
+import com.example.warehouse_inventory.service.PageFetcher.OffsetPage;
+import com.example.warehouse_inventory.util.FilterCondition;
+import com.example.warehouse_inventory.util.FilterEngine;
+import com.example.warehouse_inventory.util.FilterFieldType;
+import com.example.warehouse_inventory.util.FilterOperator;
+import com.example.warehouse_inventory.util.FilterPlan;
+import com.example.warehouse_inventory.util.FilterSchema;
+import com.example.warehouse_inventory.util.FullTextSearch;
+import com.example.warehouse_inventory.util.KeysetPager;
+import com.example.warehouse_inventory.util.KeysetPager.KeysetSlice;
 import com.example.warehouse_inventory.util.OffsetBasedPageRequest;
+import com.example.warehouse_inventory.util.TotalCountMode;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
-import jakarta.persistence.criteria.Predicate;
-
-import java.math.BigDecimal;
-import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.UUID;
 
 import lombok.RequiredArgsConstructor;
@@ -42,24 +48,23 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class VariantService {
     private final VariantRepository variantRepository;
+    private final PageFetcher pageFetcher;
     private final ItemRepository itemRepository;
     private final StockService stockService;
+    private final VariantFacetIndex variantFacetIndex;
+    private final ApplicationEventPublisher eventPublisher;
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
-    private static final Map<String, String> FIELD_MAP = Map.ofEntries(
-            Map.entry("id", "id"),
-            Map.entry("itemid", "itemId"),
-            Map.entry("item_id", "itemId"),
-            Map.entry("sku", "sku"),
-            Map.entry("variantname", "variantName"),
-            Map.entry("variant_name", "variantName"),
-            Map.entry("price", "price"),
-            Map.entry("active", "active"),
-            Map.entry("createdat", "createdAt"),
-            Map.entry("created_at", "createdAt"),
-            Map.entry("updatedat", "updatedAt"),
-            Map.entry("updated_at", "updatedAt"),
-            Map.entry("attributes", "attributes"));
-    private static final Set<String> STRING_FIELDS = Set.of("sku", "variantName");
+    private static final FilterEngine<Variant> FILTERS = new FilterEngine<>(FilterSchema.builder()
+            .field("id", FilterFieldType.LONG)
+            .field("itemId", FilterFieldType.LONG, "item_id")
+            .field("sku", FilterFieldType.STRING)
+            .field("variantName", FilterFieldType.STRING, "variant_name")
+            .field("price", FilterFieldType.DECIMAL)
+            .field("active", FilterFieldType.BOOLEAN)
+            .field("createdAt", FilterFieldType.INSTANT, "created_at")
+            .field("updatedAt", FilterFieldType.INSTANT, "updated_at")
+            .expand("attributes", VariantService::attributeConditions)
+            .build());
 
     @Transactional
     public VariantResponse create(CreateVariantRequest req) {
@@ -79,6 +84,7 @@ public class VariantService {
 
         Variant saved = variantRepository.save(variant);
         stockService.createForVariant(saved.getId());
+        eventPublisher.publishEvent(VariantChangedEvent.of(saved));
         return VariantMapper.toResponse(saved);
     }
 
@@ -89,7 +95,9 @@ public class VariantService {
             String search,
             String sortBy,
             String sortDirection,
-            List<FilterRequest> filters) {
+            List<FilterRequest> filters,
+            String cursor,
+            String includeTotal) {
         String sortField = (sortBy == null || sortBy.isBlank()) ? "id" : sortBy;
         String normalizedSort = sortField.trim().toLowerCase();
         String safeSort = switch (normalizedSort) {
@@ -103,37 +111,58 @@ public class VariantService {
             case "updatedat", "updated_at" -> "updatedAt";
             default -> "id";
         };
+        boolean relevance = "relevance".equals(normalizedSort) && cursor == null;
         Sort.Direction direction = Sort.Direction.fromOptionalString(sortDirection).orElse(Sort.Direction.ASC);
         Sort sort = Sort.by(direction, safeSort);
 
-        OffsetBasedPageRequest pageable = new OffsetBasedPageRequest(offset, limit, sort);
         Specification<Variant> spec = (root, query, cb) -> cb.conjunction();
         if (search != null && !search.isBlank()) {
-            String pattern = "%" + search.toLowerCase() + "%";
-            spec = spec.and((root, query, cb) -> cb.or(
-                    cb.like(cb.lower(root.get("sku")), pattern),
-                    cb.like(cb.lower(root.get("variantName")), pattern)));
+            Specification<Variant> textSpec = FullTextSearch.matching(search, "sku", "variantName", relevance);
+            if (textSpec != null) {
+                spec = spec.and(textSpec);
+                if (relevance) {
+                    sort = Sort.unsorted();
+                }
+            } else {
+                String pattern = "%" + search.toLowerCase() + "%";
+                spec = spec.and((root, query, cb) -> cb.or(
+                        cb.like(cb.lower(root.get("sku")), pattern),
+                        cb.like(cb.lower(root.get("variantName")), pattern)));
+            }
+        }
+        OffsetBasedPageRequest pageable = new OffsetBasedPageRequest(offset, limit, sort);
+        FilterPlan<Variant> filterPlan = FILTERS.compile(filters);
+        spec = spec.and(filterPlan);
+        if (cursor != null) {
+            KeysetSlice<Variant> slice = KeysetPager.fetch(variantRepository, spec, safeSort, "id", direction, limit, cursor);
+            List<VariantResponse> variants = slice.content().stream()
+                    .map(VariantMapper::toResponse)
+                    .toList();
+            PaginationMeta meta = PaginationMeta.ofKeyset(
+                    limit,
+                    variants.size(),
+                    slice.hasNext(),
+                    !cursor.isBlank(),
+                    slice.nextCursor());
+            return new PaginatedResponse<>(variants, meta);
         }
-        spec = spec.and(buildFilterSpec(filters));
-        Page<Variant> page = variantRepository.findAll(spec, pageable);
+        OffsetPage<Variant> page = pageFetcher.fetch(
+                variantRepository,
+                spec,
+                pageable,
+                TotalCountMode.from(includeTotal),
+                "variants",
+                PageFetcher.filterKey(search, filterPlan.conditions()));
 
-        List<VariantResponse> variants = page.getContent().stream()
+        List<VariantResponse> variants = page.content().stream()
                 .map(VariantMapper::toResponse)
                 .toList();
-        long total = page.getTotalElements();
-        long count = variants.size();
-        long showingFrom = count > 0 ? (long) offset + 1 : 0;
-        long showingTo = (long) offset + count;
-
-        PaginationMeta meta = new PaginationMeta(
+        PaginationMeta meta = PaginationMeta.ofOffset(
                 offset,
                 limit,
-                total,
-                (offset + count) < total,
-                offset > 0,
-                offset,
-                showingFrom,
-                showingTo);
+                page.total(),
+                variants.size(),
+                page.hasNext());
         return new PaginatedResponse<>(variants, meta);
     }
 
@@ -154,6 +183,7 @@ public class VariantService {
         }
         stockService.deleteByVariantId(id);
         variantRepository.deleteById(id);
+        eventPublisher.publishEvent(VariantChangedEvent.deleted(id));
     }
 
     @Transactional
@@ -171,6 +201,7 @@ public class VariantService {
         variant.setActive(req.active());
 
         Variant saved = variantRepository.save(variant);
+        eventPublisher.publishEvent(VariantChangedEvent.of(saved));
         return VariantMapper.toResponse(saved);
     }
 
@@ -180,9 +211,31 @@ public class VariantService {
                 .orElseThrow(() -> new NotFoundException("Variant not found"));
         variant.setActive(active);
         Variant saved = variantRepository.save(variant);
+        eventPublisher.publishEvent(VariantChangedEvent.of(saved));
         return VariantMapper.toResponse(saved);
     }
 
+    /**
+     * Facet counts from {@link VariantFacetIndex}. Only the filters the index can
+     * answer are accepted: {@code attributes} and {@code active}, both with {@code =}.
+     */
+    public VariantFacetsResponse getFacets(List<FilterRequest> filters) {
+        Map<String, String> attributeFilters = new HashMap<>();
+        Boolean activeFilter = null;
+        for (FilterCondition condition : FILTERS.compile(filters).conditions()) {
+            String attributeKey = attributeKeyOf(condition.path());
+            if (condition.operator() != FilterOperator.EQUAL || (attributeKey == null && !"active".equals(condition.path()))) {
+                throw new InvalidRequestException("Facet filters support attributes and active with = only");
+            }
+            if (attributeKey != null) {
+                attributeFilters.put(attributeKey, (String) condition.values().get(0));
+            } else {
+                activeFilter = (Boolean) condition.values().get(0);
+            }
+        }
+        return variantFacetIndex.count(attributeFilters, activeFilter);
+    }
+
     @Transactional(readOnly = true)
     public VariantResponse findById(Long id) {
         Variant variant = variantRepository.findById(id)
@@ -197,88 +250,6 @@ public class VariantService {
         return VariantMapper.toResponse(variant);
     }
 
-    private Specification<Variant> buildFilterSpec(List<FilterRequest> filters) {
-        if (filters == null || filters.isEmpty()) {
-            return (root, query, cb) -> cb.conjunction();
-        }
-        return (root, query, cb) -> {
-            List<Predicate> predicates = new ArrayList<>();
-            for (FilterRequest filter : filters) {
-                if (filter == null || filter.field() == null) {
-                    continue;
-                }
-                String field = FilterFieldResolver.resolve(FIELD_MAP, filter.field());
-                if (field == null) {
-                    continue;
-                }
-                String operator = (filter.operator() == null || filter.operator().isBlank())
-                        ? "="
-                        : filter.operator().trim().toLowerCase();
-                String rawValue = filter.value();
-                if (rawValue == null || rawValue.isBlank()) {
-                    continue;
-                }
-
-                if ("attributes".equals(field)) {
-                    addAttributePredicates(predicates, root.get("attributes"), operator, rawValue, cb);
-                    continue;
-                }
-
-                switch (operator) {
-                    case "=" -> {
-                        Object value = convertValue(field, rawValue);
-                        if (value != null) {
-                            predicates.add(cb.equal(root.get(field), value));
-                        }
-                    }
-                    case "!=" -> {
-                        Object value = convertValue(field, rawValue);
-                        if (value != null) {
-                            predicates.add(cb.notEqual(root.get(field), value));
-                        }
-                    }
-                    case ">", "<", ">=", "<=" -> FilterPredicateBuilder.addComparablePredicate(
-                            predicates,
-                            root.get(field),
-                            operator,
-                            rawValue,
-                            cb,
-                            value -> convertValue(field, value));
-                    case "contains" -> {
-                        if (STRING_FIELDS.contains(field)) {
-                            String pattern = "%" + rawValue.toLowerCase() + "%";
-                            predicates.add(cb.like(cb.lower(root.get(field)), pattern));
-                        }
-                    }
-                    case "in" -> {
-                        List<Object> values = FilterValueParser.parseValues(
-                                rawValue,
-                                value -> convertValue(field, value));
-                        if (!values.isEmpty()) {
-                            predicates.add(root.get(field).in(values));
-                        }
-                    }
-                    case "between" -> {
-                        List<Object> values = FilterValueParser.parseValues(
-                                rawValue,
-                                value -> convertValue(field, value));
-                        if (values.size() == 2
-                                && values.get(0) instanceof Comparable
-                                && values.get(1) instanceof Comparable) {
-                            predicates.add(cb.between(
-                                    root.get(field).as(Comparable.class),
-                                    (Comparable) values.get(0),
-                                    (Comparable) values.get(1)));
-                        }
-                    }
-                    default -> {
-                    }
-                }
-            }
-            return predicates.isEmpty() ? cb.conjunction() : cb.and(predicates.toArray(new Predicate[0]));
-        };
-    }
-
     private String generateSku() {
         String sku = UUID.randomUUID().toString();
         while (variantRepository.existsBySkuIgnoreCase(sku)) {
@@ -310,85 +281,44 @@ public class VariantService {
         }
     }
 
-    private void addAttributePredicates(
-            List<Predicate> predicates,
-            jakarta.persistence.criteria.Path<String> attributesPath,
-            String operator,
-            String rawValue,
-            jakarta.persistence.criteria.CriteriaBuilder cb) {
+    /**
+     * Expands an {@code attributes} filter such as {@code {"brand":"Belden"}} into one
+     * condition per allowed key on its indexed generated column.
+     */
+    private static List<FilterCondition> attributeConditions(FilterOperator operator, String rawValue) {
+        JsonNode node;
         try {
-            JsonNode node = OBJECT_MAPPER.readTree(rawValue);
-            if (!node.isObject()) {
-                return;
-            }
-            ObjectNode objectNode = (ObjectNode) node;
-            objectNode.fieldNames().forEachRemaining(name -> {
-                String normalized = name.trim().toLowerCase();
-                if (!Variant.ATTRIBUTE_KEYS.contains(normalized)) {
-                    return;
-                }
-                JsonNode valueNode = objectNode.get(name);
-                if (valueNode == null || !valueNode.isValueNode()) {
-                    return;
-                }
-                String valueText = valueNode.asText();
-                Predicate predicate = switch (operator) {
-                    case "=" -> cb.equal(
-                            cb.function(
-                                    "json_unquote",
-                                    String.class,
-                                    cb.function(
-                                            "json_extract",
-                                            String.class,
-                                            attributesPath,
-                                            cb.literal("$." + normalized))),
-                            valueText);
-                    case "!=" -> cb.notEqual(
-                            cb.function(
-                                    "json_unquote",
-                                    String.class,
-                                    cb.function(
-                                            "json_extract",
-                                            String.class,
-                                            attributesPath,
-                                            cb.literal("$." + normalized))),
-                            valueText);
-                    case "contains" -> cb.like(
-                            cb.lower(cb.function(
-                                    "json_unquote",
-                                    String.class,
-                                    cb.function(
-                                            "json_extract",
-                                            String.class,
-                                            attributesPath,
-                                            cb.literal("$." + normalized)))),
-                            "%" + valueText.toLowerCase() + "%");
-                    default -> null;
-                };
-                if (predicate != null) {
-                    predicates.add(predicate);
-                }
-            });
+            node = OBJECT_MAPPER.readTree(rawValue);
         } catch (Exception ex) {
-            return;
+            return List.of();
+        }
+        if (node == null || !node.isObject()) {
+            return List.of();
         }
+        List<FilterCondition> conditions = new ArrayList<>();
+        node.fields().forEachRemaining(entry -> {
+            String attributeField = Variant.ATTRIBUTE_FIELDS.get(entry.getKey().trim().toLowerCase());
+            if (attributeField == null || !entry.getValue().isValueNode()) {
+                return;
+            }
+            FilterCondition condition = FilterCondition.of(
+                    attributeField,
+                    FilterFieldType.STRING,
+                    operator,
+                    entry.getValue().asText());
+            if (condition != null) {
+                conditions.add(condition);
+            }
+        });
+        return conditions;
     }
 
-    private Object convertValue(String field, String rawValue) {
-        String trimmed = rawValue.trim();
-        if (trimmed.isEmpty()) {
-            return null;
-        }
-        try {
-            return switch (field) {
-                case "id", "itemId" -> Long.parseLong(trimmed);
-                case "price" -> new BigDecimal(trimmed);
-                case "active" -> FilterValueParser.parseBoolean(trimmed);
-                case "createdAt", "updatedAt" -> Instant.parse(trimmed);
-                default -> trimmed;
-            };
-        } catch (RuntimeException ex) {
-            return null;
+    private static String attributeKeyOf(String path) {
+        for (Map.Entry<String, String> entry : Variant.ATTRIBUTE_FIELDS.entrySet()) {
+            if (entry.getValue().equals(path)) {
+                return entry.getKey();
+            }
         }
+        return null;
     }
 }
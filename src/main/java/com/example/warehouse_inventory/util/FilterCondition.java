@@ -0,0 +1,58 @@
+package com.example.warehouse_inventory.util;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.List;
+
+/**
+ * One compiled filter: a typed property path, a validated operator and already
+ * parsed values. Immutable, so a compiled plan can be shared between requests.
+ */
+public record FilterCondition(String path, FilterFieldType type, FilterOperator operator, List<Object> values) {
+
+    /**
+     * Compiles a raw value for the given field, or returns {@code null} when the
+     * operator does not apply to the type or the value does not parse.
+     */
+    public static FilterCondition of(String path, FilterFieldType type, FilterOperator operator, String rawValue) {
+        if (operator == null || rawValue == null || rawValue.isBlank()) {
+            return null;
+        }
+        String trimmed = rawValue.trim();
+        List<Object> values = switch (operator) {
+            case CONTAINS -> type == FilterFieldType.STRING
+                    ? List.of("%" + trimmed.toLowerCase() + "%")
+                    : List.of();
+            case IN -> FilterValueParser.parseValues(trimmed, type::parse);
+            case BETWEEN -> {
+                List<Object> bounds = FilterValueParser.parseValues(trimmed, type::parse);
+                yield bounds.size() == 2 ? bounds : List.of();
+            }
+            default -> {
+                Object value = type.parse(trimmed);
+                yield value == null ? List.of() : List.of(value);
+            }
+        };
+        return values.isEmpty() ? null : new FilterCondition(path, type, operator, values);
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public Predicate toPredicate(Root<?> root, CriteriaBuilder cb) {
+        Path<Comparable> target = (Path<Comparable>) QueryJoins.path(root, path);
+        Comparable first = (Comparable) values.get(0);
+        return switch (operator) {
+            case EQUAL -> cb.equal(target, first);
+            case NOT_EQUAL -> cb.notEqual(target, first);
+            case GREATER -> cb.greaterThan(target, first);
+            case GREATER_OR_EQUAL -> cb.greaterThanOrEqualTo(target, first);
+            case LESS -> cb.lessThan(target, first);
+            case LESS_OR_EQUAL -> cb.lessThanOrEqualTo(target, first);
+            case CONTAINS -> cb.like(cb.lower(target.as(String.class)), (String) first);
+            case IN -> target.in(values);
+            case BETWEEN -> cb.between(target, first, (Comparable) values.get(1));
+        };
+    }
+}
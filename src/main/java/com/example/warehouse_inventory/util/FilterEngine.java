@@ -0,0 +1,61 @@
+package com.example.warehouse_inventory.util;
+
+import com.example.warehouse_inventory.dto.FilterRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiles request filters against a {@link FilterSchema} once and caches the
+ * resulting {@link FilterPlan} by the normalized filter text, so repeated
+ * dashboard queries skip field resolution and value parsing entirely.
+ */
+public final class FilterEngine<T> {
+    private static final int MAX_CACHED_PLANS = 512;
+
+    private final FilterSchema schema;
+    private final Map<String, FilterPlan<T>> plans = new ConcurrentHashMap<>();
+
+    public FilterEngine(FilterSchema schema) {
+        this.schema = schema;
+    }
+
+    public FilterPlan<T> compile(List<FilterRequest> filters) {
+        if (filters == null || filters.isEmpty()) {
+            return new FilterPlan<>(List.of());
+        }
+        String key = normalize(filters);
+        FilterPlan<T> cached = plans.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        List<FilterCondition> conditions = new ArrayList<>();
+        for (FilterRequest filter : filters) {
+            if (filter != null) {
+                conditions.addAll(schema.compile(filter.field(), filter.operator(), filter.value()));
+            }
+        }
+        FilterPlan<T> plan = new FilterPlan<>(List.copyOf(conditions));
+        if (plans.size() >= MAX_CACHED_PLANS) {
+            plans.clear();
+        }
+        plans.put(key, plan);
+        return plan;
+    }
+
+    private static String normalize(List<FilterRequest> filters) {
+        StringBuilder key = new StringBuilder();
+        for (FilterRequest filter : filters) {
+            if (filter == null) {
+                continue;
+            }
+            key.append(filter.field() == null ? "" : filter.field().trim().toLowerCase()).append('\u0001')
+                    .append(filter.operator() == null ? "" : filter.operator().trim().toLowerCase()).append('\u0001')
+                    .append(filter.value() == null ? "" : filter.value().trim()).append('\u0002');
+        }
+        return key.toString();
+    }
+}
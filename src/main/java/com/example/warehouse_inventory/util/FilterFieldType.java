@@ -0,0 +1,32 @@
+package com.example.warehouse_inventory.util;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public enum FilterFieldType {
+    LONG,
+    INTEGER,
+    DECIMAL,
+    BOOLEAN,
+    INSTANT,
+    STRING;
+
+    /**
+     * Parses a trimmed, non-empty raw value, or returns {@code null} when it does
+     * not fit the type.
+     */
+    public Object parse(String value) {
+        try {
+            return switch (this) {
+                case LONG -> Long.parseLong(value);
+                case INTEGER -> Integer.parseInt(value);
+                case DECIMAL -> new BigDecimal(value);
+                case BOOLEAN -> FilterValueParser.parseBoolean(value);
+                case INSTANT -> Instant.parse(value);
+                case STRING -> value;
+            };
+        } catch (RuntimeException ex) {
+            return null;
+        }
+    }
+}
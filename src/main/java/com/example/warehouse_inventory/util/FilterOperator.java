@@ -0,0 +1,39 @@
+package com.example.warehouse_inventory.util;
+
+public enum FilterOperator {
+    EQUAL("="),
+    NOT_EQUAL("!="),
+    GREATER(">"),
+    GREATER_OR_EQUAL(">="),
+    LESS("<"),
+    LESS_OR_EQUAL("<="),
+    CONTAINS("contains"),
+    IN("in"),
+    BETWEEN("between");
+
+    private final String symbol;
+
+    FilterOperator(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public String symbol() {
+        return symbol;
+    }
+
+    /**
+     * A missing operator means {@code =}; an unknown one returns {@code null}.
+     */
+    public static FilterOperator from(String raw) {
+        if (raw == null || raw.isBlank()) {
+            return EQUAL;
+        }
+        String normalized = raw.trim().toLowerCase();
+        for (FilterOperator operator : values()) {
+            if (operator.symbol.equals(normalized)) {
+                return operator;
+            }
+        }
+        return null;
+    }
+}
@@ -23,6 +23,9 @@ public final class FilterParamParser {
 
         Map<Integer, FilterParts> byIndex = new TreeMap<>();
         for (Map.Entry<String, String> entry : params.entrySet()) {
+            if (!entry.getKey().startsWith("filters[")) {
+                continue;
+            }
             Matcher matcher = FILTER_PARAM_PATTERN.matcher(entry.getKey());
             if (!matcher.matches()) {
                 continue;
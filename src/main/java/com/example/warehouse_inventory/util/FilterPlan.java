@@ -0,0 +1,34 @@
+package com.example.warehouse_inventory.util;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.List;
+
+/**
+ * A compiled, immutable list of conditions. Applying it only builds the Criteria
+ * tree; values are bound as parameters, so equal filter shapes produce the same
+ * SQL and hit Hibernate's query plan cache.
+ */
+public record FilterPlan<T>(List<FilterCondition> conditions) implements Specification<T> {
+
+    public boolean isEmpty() {
+        return conditions.isEmpty();
+    }
+
+    @Override
+    public Predicate toPredicate(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+        if (conditions.isEmpty()) {
+            return cb.conjunction();
+        }
+        Predicate[] predicates = new Predicate[conditions.size()];
+        for (int i = 0; i < predicates.length; i++) {
+            predicates[i] = conditions.get(i).toPredicate(root, cb);
+        }
+        return cb.and(predicates);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.warehouse_inventory.util;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Typed filter metadata for one entity: which request field names are accepted,
+ * which property path each one targets and how its values are parsed. Fields
+ * that are not a single column (e.g. variant attributes) register an expander
+ * that turns the request into conditions on real columns.
+ */
+public final class FilterSchema {
+    private final Map<String, Field> fields;
+    private final Map<String, Expander> expanders;
+
+    private FilterSchema(Map<String, Field> fields, Map<String, Expander> expanders) {
+        this.fields = Map.copyOf(fields);
+        this.expanders = Map.copyOf(expanders);
+    }
+
+    public record Field(String path, FilterFieldType type) {
+    }
+
+    @FunctionalInterface
+    public interface Expander {
+        List<FilterCondition> expand(FilterOperator operator, String rawValue);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Compiles one request filter; unknown fields, unsupported operators and
+     * unparsable values yield no condition, as the list endpoints always did.
+     */
+    List<FilterCondition> compile(String field, String rawOperator, String rawValue) {
+        if (field == null) {
+            return List.of();
+        }
+        String name = field.trim().toLowerCase();
+        FilterOperator operator = FilterOperator.from(rawOperator);
+        if (operator == null) {
+            return List.of();
+        }
+        Expander expander = expanders.get(name);
+        if (expander != null) {
+            return rawValue == null || rawValue.isBlank() ? List.of() : expander.expand(operator, rawValue);
+        }
+        Field target = fields.get(name);
+        if (target == null) {
+            return List.of();
+        }
+        FilterCondition condition = FilterCondition.of(target.path(), target.type(), operator, rawValue);
+        return condition == null ? List.of() : List.of(condition);
+    }
+
+    private static <E extends Enum<E>> List<FilterCondition> enumConditions(
+            String path, Class<E> enumType, FilterOperator operator, String rawValue) {
+        if (operator != FilterOperator.EQUAL && operator != FilterOperator.NOT_EQUAL
+                && operator != FilterOperator.IN) {
+            return List.of();
+        }
+        List<Object> constants = FilterValueParser.parseValues(rawValue.trim(), value -> {
+            try {
+                return Enum.valueOf(enumType, value.toUpperCase());
+            } catch (IllegalArgumentException ex) {
+                return null;
+            }
+        });
+        if (constants.isEmpty() || (operator != FilterOperator.IN && constants.size() > 1)) {
+            return List.of();
+        }
+        return List.of(new FilterCondition(path, FilterFieldType.STRING, operator, constants));
+    }
+
+    public static final class Builder {
+        private final Map<String, Field> fields = new HashMap<>();
+        private final Map<String, Expander> expanders = new HashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Registers a property; its lower-cased path is always accepted as a name.
+         */
+        public Builder field(String path, FilterFieldType type, String... aliases) {
+            Field field = new Field(path, type);
+            String simpleName = path.substring(path.lastIndexOf('.') + 1);
+            fields.put(simpleName.toLowerCase(), field);
+            for (String alias : aliases) {
+                fields.put(alias.toLowerCase(), field);
+            }
+            return this;
+        }
+
+        /**
+         * Registers an enum property. Values are matched to constants ignoring
+         * case, and only {@code =}, {@code !=} and {@code in} apply.
+         */
+        public <E extends Enum<E>> Builder enumField(String path, Class<E> enumType, String... aliases) {
+            Expander expander = (operator, rawValue) -> enumConditions(path, enumType, operator, rawValue);
+            expand(path.substring(path.lastIndexOf('.') + 1), expander);
+            for (String alias : aliases) {
+                expand(alias, expander);
+            }
+            return this;
+        }
+
+        public Builder expand(String name, Expander expander) {
+            expanders.put(name.toLowerCase(), expander);
+            return this;
+        }
+
+        public FilterSchema build() {
+            return new FilterSchema(fields, expanders);
+        }
+    }
+}
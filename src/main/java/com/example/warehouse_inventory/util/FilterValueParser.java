@@ -6,6 +6,8 @@ import java.util.Objects;
 import java.util.function.Function;
 
 public final class FilterValueParser {
+    public static final char LIKE_ESCAPE = '\\';
+
     private FilterValueParser() {
     }
 
@@ -30,4 +32,20 @@ public final class FilterValueParser {
         }
         return Boolean.parseBoolean(value);
     }
+
+    /**
+     * Escapes a backslash, {@code %} and {@code _} so that {@code value} matches
+     * literally in a {@code LIKE} pattern using {@link #LIKE_ESCAPE}.
+     */
+    public static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == LIKE_ESCAPE || c == '%' || c == '_') {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
 }
@@ -0,0 +1,70 @@
+package com.example.warehouse_inventory.util;
+
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.jpa.domain.Specification;
+
+import jakarta.persistence.criteria.Expression;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Search over a two-column MySQL FULLTEXT index in boolean mode. Every term is
+ * required and matched as a prefix, so {@code "belden cab"} finds "Belden Cable".
+ */
+public final class FullTextSearch {
+    public static final String MATCH_AGAINST = "match_against";
+
+    /**
+     * InnoDB does not index tokens shorter than {@code innodb_ft_min_token_size} (3).
+     */
+    public static final int MIN_TOKEN_LENGTH = 3;
+
+    private FullTextSearch() {
+    }
+
+    /**
+     * Returns the matching specification, or {@code null} when no term is long
+     * enough to be in the index and the caller has to fall back to {@code LIKE}.
+     * The query string is bound as a JDBC parameter, so every search shares one
+     * statement text instead of inlining user input as a SQL literal.
+     *
+     * @param orderByRelevance sort by match score (best first, then id) on row queries
+     */
+    public static <T> Specification<T> matching(
+            String search,
+            String firstColumn,
+            String secondColumn,
+            boolean orderByRelevance) {
+        String booleanQuery = booleanQuery(search);
+        if (booleanQuery == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            Expression<Double> score = cb.function(
+                    MATCH_AGAINST,
+                    Double.class,
+                    root.get(firstColumn),
+                    root.get(secondColumn),
+                    ((HibernateCriteriaBuilder) cb).value(booleanQuery));
+            Class<?> resultType = query.getResultType();
+            if (orderByRelevance && resultType != Long.class && resultType != long.class) {
+                query.orderBy(cb.desc(score), cb.asc(root.get("id")));
+            }
+            return cb.greaterThan(score, 0.0);
+        };
+    }
+
+    static String booleanQuery(String search) {
+        if (search == null) {
+            return null;
+        }
+        List<String> terms = new ArrayList<>();
+        for (String token : search.split("[^\\p{L}\\p{N}_]+")) {
+            if (token.length() >= MIN_TOKEN_LENGTH) {
+                terms.add("+" + token + "*");
+            }
+        }
+        return terms.isEmpty() ? null : String.join(" ", terms);
+    }
+}
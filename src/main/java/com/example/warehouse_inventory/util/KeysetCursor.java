@@ -0,0 +1,115 @@
+package com.example.warehouse_inventory.util;
+
+import org.springframework.data.domain.Sort;
+
+import com.example.warehouse_inventory.exception.InvalidRequestException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Opaque position of the last row a client has seen: the sort it was read with,
+ * its sort key and its id. Encoded as base64url JSON so clients can pass it back
+ * untouched. The sort is kept so a cursor cannot be replayed against another
+ * order, where its key would mean a different position.
+ */
+public record KeysetCursor(String sort, Sort.Direction direction, String value, Long id) {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    public static KeysetCursor of(String sort, Sort.Direction direction, Object sortValue, Object id) {
+        return new KeysetCursor(sort, direction, format(sortValue), ((Number) id).longValue());
+    }
+
+    public static KeysetCursor decode(String token) {
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(token.trim());
+            JsonNode node = OBJECT_MAPPER.readTree(json);
+            JsonNode id = node.get("id");
+            if (id == null || !id.canConvertToLong()) {
+                throw new InvalidRequestException("Invalid cursor");
+            }
+            JsonNode sort = node.get("s");
+            JsonNode direction = node.get("d");
+            JsonNode value = node.get("v");
+            return new KeysetCursor(
+                    sort == null || sort.isNull() ? null : sort.asText(),
+                    direction == null || direction.isNull() ? null : Sort.Direction.fromString(direction.asText()),
+                    value == null || value.isNull() ? null : value.asText(),
+                    id.asLong());
+        } catch (InvalidRequestException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        ObjectNode node = OBJECT_MAPPER.createObjectNode();
+        node.put("s", sort);
+        node.put("d", direction == null ? null : direction.name());
+        node.put("v", value);
+        node.put("id", id);
+        byte[] json = node.toString().getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+    }
+
+    /**
+     * Rejects a cursor that was issued for a different sort property or direction.
+     */
+    public void requireSort(String sortProperty, Sort.Direction sortDirection) {
+        if (!sortProperty.equals(sort) || sortDirection != direction) {
+            throw new InvalidRequestException("Cursor does not match sort");
+        }
+    }
+
+    /**
+     * Converts the stored sort key back to the Java type of the sorted attribute.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public Comparable<?> typedValue(Class<?> type) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            if (type == Long.class || type == long.class) {
+                return Long.parseLong(value);
+            }
+            if (type == Integer.class || type == int.class) {
+                return Integer.parseInt(value);
+            }
+            if (type == BigDecimal.class) {
+                return new BigDecimal(value);
+            }
+            if (type == Instant.class) {
+                return Instant.parse(value);
+            }
+            if (type == Boolean.class || type == boolean.class) {
+                return Boolean.parseBoolean(value);
+            }
+            if (type.isEnum()) {
+                return Enum.valueOf((Class<? extends Enum>) type, value);
+            }
+            return value;
+        } catch (RuntimeException ex) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+    }
+
+    private static String format(Object sortValue) {
+        if (sortValue == null) {
+            return null;
+        }
+        if (sortValue instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        if (sortValue instanceof Enum<?> enumValue) {
+            return enumValue.name();
+        }
+        return sortValue.toString();
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.warehouse_inventory.util;
+
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Seek-based paging: instead of skipping {@code offset} rows, the query continues
+ * strictly after the (sort key, id) of the last row of the previous page, so every
+ * page costs the same index range scan no matter how deep the client has scrolled.
+ * The id is always the tie-breaker, which keeps the order total.
+ */
+public final class KeysetPager {
+    private KeysetPager() {
+    }
+
+    public record KeysetSlice<T>(List<T> content, boolean hasNext, String nextCursor) {
+    }
+
+    public static <T> KeysetSlice<T> fetch(
+            JpaSpecificationExecutor<T> repository,
+            Specification<T> spec,
+            String sortProperty,
+            String idProperty,
+            Sort.Direction direction,
+            int limit,
+            String cursor) {
+        return fetch(
+                (pageSpec, pageable) -> repository.findBy(pageSpec, query -> query.slice(pageable)),
+                spec,
+                sortProperty,
+                idProperty,
+                direction,
+                limit,
+                cursor,
+                row -> PropertyAccessorFactory.forBeanPropertyAccess(row).getPropertyValue(sortProperty),
+                row -> PropertyAccessorFactory.forBeanPropertyAccess(row).getPropertyValue(idProperty));
+    }
+
+    /**
+     * Same as above for projected rows, which read their sort key and id through
+     * the given accessors instead of the entity property paths.
+     */
+    public static <T, R> KeysetSlice<R> fetch(
+            SliceQuery<T, R> rows,
+            Specification<T> spec,
+            String sortProperty,
+            String idProperty,
+            Sort.Direction direction,
+            int limit,
+            String cursor,
+            Function<R, Object> sortKey,
+            Function<R, Object> idKey) {
+        Sort sort = sortProperty.equals(idProperty)
+                ? Sort.by(direction, idProperty)
+                : Sort.by(direction, sortProperty).and(Sort.by(direction, idProperty));
+        Specification<T> pageSpec = spec;
+        if (cursor != null && !cursor.isBlank()) {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            position.requireSort(sortProperty, direction);
+            pageSpec = spec.and(after(sortProperty, idProperty, direction, position));
+        }
+        Slice<R> slice = rows.fetch(pageSpec, new OffsetBasedPageRequest(0, limit, sort));
+
+        List<R> content = slice.getContent();
+        String nextCursor = null;
+        if (slice.hasNext() && !content.isEmpty()) {
+            R last = content.get(content.size() - 1);
+            nextCursor = KeysetCursor.of(sortProperty, direction, sortKey.apply(last), idKey.apply(last)).encode();
+        }
+        return new KeysetSlice<>(content, slice.hasNext(), nextCursor);
+    }
+
+    /**
+     * Rows strictly after the cursor in {@code ORDER BY sort, id}. MySQL sorts NULL
+     * first ascending and last descending, so a NULL sort key only ties with other
+     * NULLs and the non-NULL side is added on the matching end. An enum key is
+     * sought through {@link #constantsAfter}, because MySQL orders an
+     * {@code ENUM} column by its declaration index but compares it with a
+     * string as text.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static <T> Specification<T> after(
+            String sortProperty,
+            String idProperty,
+            Sort.Direction direction,
+            KeysetCursor cursor) {
+        boolean ascending = direction.isAscending();
+        return (root, query, cb) -> {
+            Path<Comparable> idPath = path(root, idProperty);
+            Predicate idAfter = ascending
+                    ? cb.greaterThan(idPath, (Comparable) cursor.id())
+                    : cb.lessThan(idPath, (Comparable) cursor.id());
+            if (sortProperty.equals(idProperty)) {
+                return idAfter;
+            }
+
+            Path<Comparable> sortPath = path(root, sortProperty);
+            Comparable value = cursor.typedValue(sortPath.getJavaType());
+            if (value == null) {
+                Predicate nullTie = cb.and(cb.isNull(sortPath), idAfter);
+                return ascending ? cb.or(nullTie, cb.isNotNull(sortPath)) : nullTie;
+            }
+            Predicate beyond;
+            if (value instanceof Enum<?> constant) {
+                List<Object> later = constantsAfter(constant, ascending);
+                beyond = later.isEmpty() ? cb.disjunction() : sortPath.in(later);
+            } else {
+                beyond = ascending ? cb.greaterThan(sortPath, value) : cb.lessThan(sortPath, value);
+            }
+            Predicate tie = cb.and(cb.equal(sortPath, value), idAfter);
+            return ascending ? cb.or(beyond, tie) : cb.or(beyond, tie, cb.isNull(sortPath));
+        };
+    }
+
+    /**
+     * Constants that sort after {@code value} in the given direction. Entity enums
+     * declare their constants in the same order as the {@code ENUM} column, so the
+     * ordinal is the column's sort order.
+     */
+    static List<Object> constantsAfter(Enum<?> value, boolean ascending) {
+        return Arrays.stream(value.getDeclaringClass().getEnumConstants())
+                .filter(constant -> ascending
+                        ? constant.ordinal() > value.ordinal()
+                        : constant.ordinal() < value.ordinal())
+                .<Object>map(constant -> constant)
+                .toList();
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Path<Comparable> path(Root<?> root, String property) {
+        return (Path<Comparable>) QueryJoins.path(root, property);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.warehouse_inventory.util;
+
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+
+/**
+ * Reuses an existing left join instead of adding a second one, so a projection,
+ * its search predicates and its ORDER BY all read from the same joined row.
+ */
+public final class QueryJoins {
+    private QueryJoins() {
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <X, Y> Join<X, Y> left(From<?, X> from, String attribute) {
+        for (Join<X, ?> join : from.getJoins()) {
+            if (join.getAttribute().getName().equals(attribute) && join.getJoinType() == JoinType.LEFT) {
+                return (Join<X, Y>) join;
+            }
+        }
+        return from.join(attribute, JoinType.LEFT);
+    }
+
+    /**
+     * Resolves a dotted property path, joining every association on the way.
+     */
+    public static Path<?> path(From<?, ?> root, String property) {
+        String[] parts = property.split("\\.");
+        From<?, ?> from = root;
+        for (int i = 0; i < parts.length - 1; i++) {
+            from = left(from, parts[i]);
+        }
+        return from.get(parts[parts.length - 1]);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.warehouse_inventory.util;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Fetches one slice of rows (entities or projections) matching a specification,
+ * looking one row past the page to tell whether there is a next one.
+ */
+@FunctionalInterface
+public interface SliceQuery<T, R> {
+    Slice<R> fetch(Specification<T> spec, Pageable pageable);
+}
@@ -0,0 +1,25 @@
+package com.example.warehouse_inventory.util;
+
+import com.example.warehouse_inventory.exception.InvalidRequestException;
+
+/**
+ * How a paginated listing fills {@code total}: an exact {@code COUNT(*)}, nothing at
+ * all, or an estimate that is allowed to lag behind the table.
+ */
+public enum TotalCountMode {
+    EXACT,
+    NONE,
+    ESTIMATED;
+
+    public static TotalCountMode from(String value) {
+        if (value == null || value.isBlank()) {
+            return EXACT;
+        }
+        return switch (value.trim().toLowerCase()) {
+            case "exact", "true" -> EXACT;
+            case "none", "false" -> NONE;
+            case "estimated", "estimate" -> ESTIMATED;
+            default -> throw new InvalidRequestException("include_total must be one of exact, none, estimated");
+        };
+    }
+}
@@ -0,0 +1,5 @@
+-- Order listings filter by status and/or a created_at range and sort by created_at.
+-- InnoDB appends the primary key, so both indexes also cover the id tie-breaker
+-- used by keyset paging.
+CREATE INDEX idx_orders_status_created ON orders (status, created_at);
+CREATE INDEX idx_orders_created ON orders (created_at);
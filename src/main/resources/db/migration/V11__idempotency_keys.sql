@@ -0,0 +1,11 @@
+-- One row per (scope, Idempotency-Key). The row is inserted in the same transaction
+-- as the write it guards, so a key is only taken once that write commits.
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+  scope VARCHAR(32) NOT NULL,
+  idempotency_key VARCHAR(128) NOT NULL,
+  request_hash CHAR(64) NOT NULL,
+  response_body MEDIUMTEXT NULL,
+  created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (scope, idempotency_key),
+  INDEX idx_idempotency_keys_created (created_at)
+);
@@ -0,0 +1,8 @@
+ALTER TABLE stock
+  ADD COLUMN reserved INT NOT NULL DEFAULT 0 AFTER quantity,
+  ADD CONSTRAINT chk_stock_reserved CHECK (reserved >= 0 AND reserved <= quantity);
+
+ALTER TABLE orders
+  ADD COLUMN reserved_until TIMESTAMP NULL AFTER total_amount;
+
+CREATE INDEX idx_orders_status_reserved_until ON orders(status, reserved_until);
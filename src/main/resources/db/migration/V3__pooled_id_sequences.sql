@@ -0,0 +1,11 @@
+-- Table-backed pooled-lo id generator: next_val is the first id of the next free block.
+CREATE TABLE IF NOT EXISTS id_sequences (
+  sequence_name VARCHAR(255) PRIMARY KEY,
+  next_val BIGINT NOT NULL
+);
+
+INSERT INTO id_sequences (sequence_name, next_val) SELECT 'items', COALESCE(MAX(id), 0) + 1 FROM items;
+INSERT INTO id_sequences (sequence_name, next_val) SELECT 'variants', COALESCE(MAX(id), 0) + 1 FROM variants;
+INSERT INTO id_sequences (sequence_name, next_val) SELECT 'stock_movements', COALESCE(MAX(id), 0) + 1 FROM stock_movements;
+INSERT INTO id_sequences (sequence_name, next_val) SELECT 'orders', COALESCE(MAX(id), 0) + 1 FROM orders;
+INSERT INTO id_sequences (sequence_name, next_val) SELECT 'order_items', COALESCE(MAX(id), 0) + 1 FROM order_items;
@@ -0,0 +1,2 @@
+CREATE FULLTEXT INDEX ft_items_name_description ON items (name, description);
+CREATE FULLTEXT INDEX ft_variants_sku_variant_name ON variants (sku, variant_name);
@@ -0,0 +1,18 @@
+ALTER TABLE variants
+  ADD COLUMN attr_size VARCHAR(255) GENERATED ALWAYS AS (LEFT(JSON_UNQUOTE(JSON_EXTRACT(attributes, '$.size')), 255)) VIRTUAL,
+  ADD COLUMN attr_color VARCHAR(255) GENERATED ALWAYS AS (LEFT(JSON_UNQUOTE(JSON_EXTRACT(attributes, '$.color')), 255)) VIRTUAL,
+  ADD COLUMN attr_material VARCHAR(255) GENERATED ALWAYS AS (LEFT(JSON_UNQUOTE(JSON_EXTRACT(attributes, '$.material')), 255)) VIRTUAL,
+  ADD COLUMN attr_brand VARCHAR(255) GENERATED ALWAYS AS (LEFT(JSON_UNQUOTE(JSON_EXTRACT(attributes, '$.brand')), 255)) VIRTUAL,
+  ADD COLUMN attr_weight VARCHAR(255) GENERATED ALWAYS AS (LEFT(JSON_UNQUOTE(JSON_EXTRACT(attributes, '$.weight')), 255)) VIRTUAL,
+  ADD COLUMN attr_length VARCHAR(255) GENERATED ALWAYS AS (LEFT(JSON_UNQUOTE(JSON_EXTRACT(attributes, '$.length')), 255)) VIRTUAL,
+  ADD COLUMN attr_width VARCHAR(255) GENERATED ALWAYS AS (LEFT(JSON_UNQUOTE(JSON_EXTRACT(attributes, '$.width')), 255)) VIRTUAL,
+  ADD COLUMN attr_height VARCHAR(255) GENERATED ALWAYS AS (LEFT(JSON_UNQUOTE(JSON_EXTRACT(attributes, '$.height')), 255)) VIRTUAL;
+
+CREATE INDEX idx_variants_attr_size ON variants (attr_size);
+CREATE INDEX idx_variants_attr_color ON variants (attr_color);
+CREATE INDEX idx_variants_attr_material ON variants (attr_material);
+CREATE INDEX idx_variants_attr_brand ON variants (attr_brand);
+CREATE INDEX idx_variants_attr_weight ON variants (attr_weight);
+CREATE INDEX idx_variants_attr_length ON variants (attr_length);
+CREATE INDEX idx_variants_attr_width ON variants (attr_width);
+CREATE INDEX idx_variants_attr_height ON variants (attr_height);
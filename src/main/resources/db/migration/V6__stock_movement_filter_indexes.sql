@@ -0,0 +1,6 @@
+CREATE INDEX idx_stock_movements_variant_created ON stock_movements (variant_id, created_at);
+CREATE INDEX idx_stock_movements_type_created ON stock_movements (movement_type, created_at);
+CREATE INDEX idx_stock_movements_reference_created ON stock_movements (reference_id, created_at);
+
+-- (variant_id, created_at) serves the foreign key and every variant_id lookup.
+DROP INDEX idx_stock_movements_variant_id ON stock_movements;
@@ -0,0 +1,17 @@
+-- MySQL cannot partition a table that takes part in a foreign key, and every
+-- unique key must contain the partitioning column. Ids come from id_sequences,
+-- so AUTO_INCREMENT is no longer needed either.
+ALTER TABLE stock_movements DROP FOREIGN KEY fk_stock_movements_variant;
+
+ALTER TABLE stock_movements
+  MODIFY id BIGINT NOT NULL,
+  DROP PRIMARY KEY,
+  ADD PRIMARY KEY (id, created_at);
+
+-- Boundaries are UTC epoch seconds (1767225600 = 2026-01-01T00:00:00Z).
+-- StockMovementPartitionMaintainer splits p_future into monthly partitions.
+ALTER TABLE stock_movements
+  PARTITION BY RANGE (UNIX_TIMESTAMP(created_at)) (
+    PARTITION p_history VALUES LESS THAN (1767225600),
+    PARTITION p_future VALUES LESS THAN MAXVALUE
+  );
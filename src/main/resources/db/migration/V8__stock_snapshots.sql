@@ -0,0 +1,14 @@
+-- One row per snapshot; data is StockSnapshotCodec's deflated (variant_id, quantity) list
+-- plus the ids of movements near taken_at that the snapshot already includes.
+CREATE TABLE IF NOT EXISTS stock_snapshots (
+  id BIGINT PRIMARY KEY AUTO_INCREMENT,
+  taken_at TIMESTAMP NOT NULL,
+  boundary_from TIMESTAMP NOT NULL,
+  variant_count INT NOT NULL,
+  data LONGBLOB NOT NULL
+);
+
+CREATE INDEX idx_stock_snapshots_taken_at ON stock_snapshots (taken_at);
+
+-- Covers the point-in-time replay: a created_at range scan that never reads the rows.
+CREATE INDEX idx_stock_movements_created_variant ON stock_movements (created_at, variant_id, change_qty);
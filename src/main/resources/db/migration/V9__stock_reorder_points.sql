@@ -0,0 +1,6 @@
+ALTER TABLE stock
+  ADD COLUMN reorder_point INT NULL AFTER reserved,
+  ADD COLUMN low_stock TINYINT(1) GENERATED ALWAYS AS (reorder_point IS NOT NULL AND quantity - reserved < reorder_point) STORED,
+  ADD CONSTRAINT chk_stock_reorder_point CHECK (reorder_point IS NULL OR reorder_point >= 0);
+
+CREATE INDEX idx_stock_low_stock ON stock (low_stock, variant_id);
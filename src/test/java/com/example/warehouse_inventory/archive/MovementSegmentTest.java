@@ -0,0 +1,136 @@
+package com.example.warehouse_inventory.archive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.warehouse_inventory.dto.StockMovementResponse;
+import com.example.warehouse_inventory.entity.StockMovementType;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+class MovementSegmentTest {
+    private static final Instant BASE = Instant.parse("2024-01-01T00:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripsEveryColumn() throws Exception {
+        List<StockMovementResponse> rows = List.of(
+                row(10, 1, 0, 5, StockMovementType.IN, "po-1"),
+                row(12, 1, 60, -2, StockMovementType.OUT, null),
+                row(11, 1, 60, -1, StockMovementType.OUT, "order_1"),
+                row(20, 2, 30, 7, StockMovementType.ADJUST, "po-1"),
+                row(5, 3, 90, -3, StockMovementType.OUT, "order_ü"));
+        Path file = write("p202401", rows, Long.MAX_VALUE);
+
+        MovementSegmentReader reader = MovementSegmentReader.open(file);
+
+        assertThat(reader.rowCount()).isEqualTo(5);
+        assertThat(reader.minCreated()).isEqualTo(BASE);
+        assertThat(reader.maxCreated()).isEqualTo(BASE.plusSeconds(90));
+        assertThat(reader.read(1, null, null)).containsExactly(rows.get(0), rows.get(2), rows.get(1));
+        assertThat(reader.read(2, null, null)).containsExactly(rows.get(3));
+        assertThat(reader.read(3, null, null)).containsExactly(rows.get(4));
+        assertThat(reader.read(4, null, null)).isEmpty();
+    }
+
+    @Test
+    void fromIsInclusiveAndToIsExclusive() throws Exception {
+        List<StockMovementResponse> rows = List.of(
+                row(1, 1, 0, 1, StockMovementType.IN, null),
+                row(2, 1, 10, 1, StockMovementType.IN, null),
+                row(3, 1, 20, 1, StockMovementType.IN, "r"),
+                row(4, 1, 30, 1, StockMovementType.IN, null));
+        MovementSegmentReader reader = MovementSegmentReader.open(write("p202401", rows, Long.MAX_VALUE));
+
+        assertThat(reader.read(1, BASE.plusSeconds(10), BASE.plusSeconds(30)))
+                .containsExactly(rows.get(1), rows.get(2));
+        assertThat(reader.read(1, BASE.plusSeconds(11), null)).containsExactly(rows.get(2), rows.get(3));
+        assertThat(reader.read(1, null, BASE.plusSeconds(10))).containsExactly(rows.get(0));
+        assertThat(reader.read(1, BASE.plusSeconds(31), null)).isEmpty();
+        assertThat(reader.overlaps(BASE.plusSeconds(30), null)).isTrue();
+        assertThat(reader.overlaps(BASE.plusSeconds(31), null)).isFalse();
+        assertThat(reader.overlaps(null, BASE)).isFalse();
+    }
+
+    @Test
+    void splitsLargePartitionsIntoSeveralFiles() throws Exception {
+        List<StockMovementResponse> rows = new ArrayList<>();
+        for (int variant = 1; variant <= 50; variant++) {
+            for (int i = 0; i < 4; i++) {
+                rows.add(row(variant * 10L + i, variant, i * 60L, i + 1, StockMovementType.IN, "ref-" + variant));
+            }
+        }
+        long maxFileBytes = 512;
+        write("p202401", rows, maxFileBytes);
+
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.toList();
+        }
+        assertThat(files).hasSizeGreaterThan(1)
+                .contains(directory.resolve("p202401.seg"), directory.resolve("p202401.1.seg"));
+        for (Path file : files) {
+            assertThat(file.toString()).endsWith(".seg");
+            assertThat(Files.size(file)).isLessThanOrEqualTo(maxFileBytes);
+        }
+
+        MovementArchive archive = new MovementArchive(directory.toString());
+        archive.refresh();
+        for (int variant = 1; variant <= 50; variant++) {
+            int first = (variant - 1) * 4;
+            assertThat(archive.history(variant, null, null)).containsExactlyElementsOf(rows.subList(first, first + 4));
+        }
+    }
+
+    @Test
+    void refreshSkipsUnreadableSegments() throws Exception {
+        StockMovementResponse kept = row(1, 1, 0, 1, StockMovementType.IN, null);
+        write("p202401", List.of(kept), Long.MAX_VALUE);
+        Files.write(directory.resolve("p202402.seg"), new byte[] { 1, 2, 3 });
+        Files.write(directory.resolve("p202403.seg"), new byte[128]);
+
+        MovementArchive archive = new MovementArchive(directory.toString());
+        archive.refresh();
+
+        assertThat(archive.history(1, null, null)).containsExactly(kept);
+    }
+
+    @Test
+    void abandonedWriterLeavesNoFiles() throws Exception {
+        try (MovementSegmentWriter writer = new MovementSegmentWriter(directory.resolve("p202401.seg"), 256)) {
+            for (int variant = 1; variant <= 40; variant++) {
+                writer.append(row(variant, variant, 0, 1, StockMovementType.IN, "ref-" + variant));
+            }
+        }
+
+        try (Stream<Path> listing = Files.list(directory)) {
+            assertThat(listing).isEmpty();
+        }
+    }
+
+    private Path write(String name, List<StockMovementResponse> rows, long maxFileBytes) throws Exception {
+        Path file = directory.resolve(name + ".seg");
+        List<StockMovementResponse> ordered = new ArrayList<>(rows);
+        ordered.sort((a, b) -> Long.compare(a.variantId(), b.variantId()));
+        try (MovementSegmentWriter writer = new MovementSegmentWriter(file, maxFileBytes)) {
+            ordered.forEach(writer::append);
+            writer.finish();
+        }
+        return file;
+    }
+
+    private static StockMovementResponse row(
+            long id, long variantId, long secondsAfterBase, int changeQty, StockMovementType type, String reference) {
+        return new StockMovementResponse(
+                id, variantId, null, null, changeQty, type, reference, BASE.plusSeconds(secondsAfterBase));
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.warehouse_inventory.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.warehouse_inventory.exception.InvalidRequestException;
+
+class BulkStockMovementModeTest {
+    @Test
+    void blankFallsBackToDefault() {
+        assertThat(BulkStockMovementMode.from(null, BulkStockMovementMode.BEST_EFFORT))
+                .isEqualTo(BulkStockMovementMode.BEST_EFFORT);
+        assertThat(BulkStockMovementMode.from(" ", BulkStockMovementMode.ATOMIC))
+                .isEqualTo(BulkStockMovementMode.ATOMIC);
+    }
+
+    @Test
+    void parsesKnownModesLeniently() {
+        assertThat(BulkStockMovementMode.from("best-effort", BulkStockMovementMode.ATOMIC))
+                .isEqualTo(BulkStockMovementMode.BEST_EFFORT);
+        assertThat(BulkStockMovementMode.from(" Atomic ", BulkStockMovementMode.BEST_EFFORT))
+                .isEqualTo(BulkStockMovementMode.ATOMIC);
+    }
+
+    @Test
+    void rejectsUnknownMode() {
+        assertThatThrownBy(() -> BulkStockMovementMode.from("best_efort", BulkStockMovementMode.ATOMIC))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessageContaining("best_efort");
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.warehouse_inventory.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.warehouse_inventory.entity.Item;
+import com.example.warehouse_inventory.entity.Order;
+import com.example.warehouse_inventory.entity.OrderItem;
+import com.example.warehouse_inventory.entity.OrderStatus;
+import com.example.warehouse_inventory.entity.Variant;
+
+import jakarta.persistence.EntityManager;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JPA {@code saveAll} of variants and order items with the pooled table
+ * generator (one id block per 50 rows, JDBC batches rewritten into multi-row
+ * inserts) against the {@code IDENTITY} behaviour it replaced: one
+ * {@code INSERT} per row with the generated key read back, which is what
+ * Hibernate issues for an {@code IDENTITY} id. Runs against the configured
+ * MySQL and rolls every round back. Run with
+ * {@code mvn test -Dtest=PooledIdSaveAllBenchmarkTest -Dbenchmark=true}.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PooledIdSaveAllBenchmarkTest {
+    private static final int ROWS = 2000;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private VariantRepository variantRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void pooledVariantSaveAllBeatsIdentity() {
+        report("variants", best(this::saveVariantsPooled), best(this::saveVariantsIdentity));
+    }
+
+    @Test
+    void pooledOrderItemSaveAllBeatsIdentity() {
+        report("order items", best(this::saveOrderItemsPooled), best(this::saveOrderItemsIdentity));
+    }
+
+    private static void report(String rows, long pooledNanos, long identityNanos) {
+        double pooledRate = ROWS * 1e9 / pooledNanos;
+        double identityRate = ROWS * 1e9 / identityNanos;
+        System.out.printf("%s: identity %.0f rows/s, pooled saveAll %.0f rows/s%n", rows, identityRate, pooledRate);
+        assertThat(pooledRate).isGreaterThan(identityRate * 2);
+    }
+
+    /**
+     * Best of {@value #ROUNDS} rolled-back runs after one warm-up run.
+     */
+    private long best(Measurement measurement) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round <= ROUNDS; round++) {
+            long elapsed = transaction.execute(status -> {
+                status.setRollbackOnly();
+                Fixture fixture = fixture();
+                long start = System.nanoTime();
+                measurement.run(fixture);
+                long nanos = System.nanoTime() - start;
+                entityManager.clear();
+                return nanos;
+            });
+            if (round > 0) {
+                best = Math.min(best, elapsed);
+            }
+        }
+        return best;
+    }
+
+    private void saveVariantsPooled(Fixture fixture) {
+        List<Variant> variants = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            Variant variant = new Variant();
+            variant.setItemId(fixture.itemId());
+            variant.setSku(fixture.token() + "-" + i);
+            variant.setVariantName("benchmark " + i);
+            variant.setPrice(BigDecimal.ONE);
+            variants.add(variant);
+        }
+        variantRepository.saveAll(variants);
+        entityManager.flush();
+    }
+
+    private void saveVariantsIdentity(Fixture fixture) {
+        for (int i = 0; i < ROWS; i++) {
+            String sku = fixture.token() + "-" + i;
+            String name = "benchmark " + i;
+            insertReturningKey(connection -> {
+                PreparedStatement ps = connection.prepareStatement(
+                        "INSERT INTO variants (item_id, sku, variant_name, price) VALUES (?, ?, ?, ?)",
+                        Statement.RETURN_GENERATED_KEYS);
+                ps.setLong(1, fixture.itemId());
+                ps.setString(2, sku);
+                ps.setString(3, name);
+                ps.setBigDecimal(4, BigDecimal.ONE);
+                return ps;
+            });
+        }
+    }
+
+    private void saveOrderItemsPooled(Fixture fixture) {
+        List<OrderItem> items = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            OrderItem item = new OrderItem();
+            item.setOrderId(fixture.orderId());
+            item.setVariantId(fixture.variantId());
+            item.setQuantity(1);
+            item.setPriceAtPurchase(BigDecimal.ONE);
+            items.add(item);
+        }
+        orderItemRepository.saveAll(items);
+        entityManager.flush();
+    }
+
+    private void saveOrderItemsIdentity(Fixture fixture) {
+        for (int i = 0; i < ROWS; i++) {
+            insertReturningKey(connection -> {
+                PreparedStatement ps = connection.prepareStatement(
+                        "INSERT INTO order_items (order_id, variant_id, quantity, price_at_purchase) "
+                                + "VALUES (?, ?, ?, ?)",
+                        Statement.RETURN_GENERATED_KEYS);
+                ps.setLong(1, fixture.orderId());
+                ps.setLong(2, fixture.variantId());
+                ps.setInt(3, 1);
+                ps.setBigDecimal(4, BigDecimal.ONE);
+                return ps;
+            });
+        }
+    }
+
+    private void insertReturningKey(PreparedStatementCreator statement) {
+        GeneratedKeyHolder key = new GeneratedKeyHolder();
+        jdbcTemplate.update(statement, key);
+        assertThat(key.getKey()).isNotNull();
+    }
+
+    /**
+     * One item, variant and order to hang the measured rows on, inside the
+     * rolled-back transaction.
+     */
+    private Fixture fixture() {
+        String token = "ids" + System.nanoTime();
+        Item item = new Item();
+        item.setName("id-benchmark");
+        item = itemRepository.save(item);
+
+        Variant variant = new Variant();
+        variant.setItemId(item.getId());
+        variant.setSku(token);
+        variant.setVariantName("id-benchmark");
+        variant.setPrice(BigDecimal.ONE);
+        variant = variantRepository.save(variant);
+
+        Order order = new Order();
+        order.setOrderNo(token);
+        order.setStatus(OrderStatus.NEW);
+        order = orderRepository.save(order);
+        entityManager.flush();
+        return new Fixture(token, item.getId(), variant.getId(), order.getId());
+    }
+
+    private record Fixture(String token, Long itemId, Long variantId, Long orderId) {
+    }
+
+    @FunctionalInterface
+    private interface Measurement {
+        void run(Fixture fixture);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.warehouse_inventory.serialization;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+class NdjsonReaderTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    record Line(long variantId, int quantity) {
+    }
+
+    @Test
+    void readsAllValuesUnderTheLimit() throws IOException {
+        List<Line> lines = NdjsonReader.readAll(objectMapper, body(3), Line.class, 10);
+
+        assertThat(lines).containsExactly(new Line(0, 1), new Line(1, 1), new Line(2, 1));
+    }
+
+    @Test
+    void stopsReadingAtTheLimit() throws IOException {
+        CountingStream stream = new CountingStream(body(100_000));
+
+        List<Line> lines = NdjsonReader.readAll(objectMapper, stream, Line.class, 6);
+
+        assertThat(lines).hasSize(6);
+        assertThat(stream.read).isLessThan(100_000L);
+    }
+
+    private static InputStream body(int lines) {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            ndjson.append("{\"variantId\":").append(i).append(",\"quantity\":1}\n");
+        }
+        return new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static final class CountingStream extends InputStream {
+        private final InputStream delegate;
+        private long read;
+
+        private CountingStream(InputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = delegate.read();
+            if (value >= 0) {
+                read++;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int count = delegate.read(buffer, offset, length);
+            if (count > 0) {
+                read += count;
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.warehouse_inventory.serialization;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.warehouse_inventory.serialization.StockSnapshotCodec.Snapshot;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+class StockSnapshotCodecTest {
+
+    @Test
+    void roundTripsQuantitiesAndBoundaryIds() {
+        Map<Long, Long> quantities = new LinkedHashMap<>();
+        quantities.put(1L, 0L);
+        quantities.put(2L, 15L);
+        quantities.put(900L, -3L);
+        quantities.put(Long.MAX_VALUE / 2, Long.MAX_VALUE);
+        quantities.put(Long.MAX_VALUE / 2 + 1, Long.MIN_VALUE);
+
+        StockSnapshotCodec.Encoder encoder = new StockSnapshotCodec.Encoder();
+        quantities.forEach(encoder::add);
+        byte[] data = encoder.finish(List.of(42L, 7L, 1_000_000_000_000L));
+
+        Snapshot snapshot = StockSnapshotCodec.decode(data);
+
+        assertThat(encoder.count()).isEqualTo(5);
+        assertThat(snapshot.quantities()).containsExactlyEntriesOf(quantities);
+        assertThat(snapshot.boundaryMovementIds()).containsExactlyInAnyOrder(7L, 42L, 1_000_000_000_000L);
+    }
+
+    @Test
+    void roundTripsEmptySnapshot() {
+        Snapshot snapshot = StockSnapshotCodec.decode(new StockSnapshotCodec.Encoder().finish(List.of()));
+
+        assertThat(snapshot.quantities()).isEmpty();
+        assertThat(snapshot.boundaryMovementIds()).isEmpty();
+    }
+
+    @Test
+    void compressesLargeSnapshots() {
+        StockSnapshotCodec.Encoder encoder = new StockSnapshotCodec.Encoder();
+        for (long variantId = 1; variantId <= 100_000; variantId++) {
+            encoder.add(variantId, variantId % 50);
+        }
+        byte[] data = encoder.finish(List.of());
+
+        assertThat(data.length).isLessThan(100_000);
+        assertThat(StockSnapshotCodec.decode(data).quantities()).hasSize(100_000).containsEntry(99_999L, 49L);
+    }
+
+    @Test
+    void rejectsUnorderedVariants() {
+        StockSnapshotCodec.Encoder encoder = new StockSnapshotCodec.Encoder();
+        encoder.add(5, 1);
+
+        assertThatThrownBy(() -> encoder.add(5, 2)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> encoder.add(4, 2)).isInstanceOf(IllegalStateException.class);
+    }
+}
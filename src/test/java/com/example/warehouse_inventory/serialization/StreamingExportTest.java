@@ -0,0 +1,55 @@
+package com.example.warehouse_inventory.serialization;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+class StreamingExportTest {
+
+    private record Row(String sku, int quantity, String reference) {
+    }
+
+    @Test
+    void csvNeutralizesFormulaTextButKeepsNumbers() throws Exception {
+        String csv = csv(Stream.of(
+                new Row("=HYPERLINK(\"http://x\")", -5, "@SUM(A1)"),
+                new Row("+1", 3, "-2"),
+                new Row("\tcmd", 0, "\r=1"),
+                new Row("plain", 1, null)));
+
+        assertThat(csv.split("\r\n", -1)).containsExactly(
+                "sku,quantity,reference",
+                "\"'=HYPERLINK(\"\"http://x\"\")\",-5,'@SUM(A1)",
+                "'+1,3,'-2",
+                "'\tcmd,0,\"'\r=1\"",
+                "plain,1,",
+                "");
+    }
+
+    @Test
+    void csvQuotesSeparators() throws Exception {
+        String csv = csv(Stream.of(new Row("a,b", 1, "line\nbreak")));
+
+        assertThat(csv).endsWith("\"a,b\",1,\"line\nbreak\"\r\n");
+    }
+
+    private static String csv(Stream<Row> rows) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StreamingExport.write(
+                rows,
+                ExportFormat.CSV,
+                out,
+                new ObjectMapper(),
+                List.of("sku", "quantity", "reference"),
+                row -> Arrays.asList(row.sku(), row.quantity(), row.reference()));
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
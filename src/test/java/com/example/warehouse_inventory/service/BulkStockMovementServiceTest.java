@@ -0,0 +1,107 @@
+package com.example.warehouse_inventory.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.warehouse_inventory.dto.BulkStockMovementLineResult;
+import com.example.warehouse_inventory.dto.BulkStockMovementLineResult.Status;
+import com.example.warehouse_inventory.dto.BulkStockMovementResponse;
+import com.example.warehouse_inventory.dto.StockMovementLineRequest;
+import com.example.warehouse_inventory.entity.StockMovementType;
+import com.example.warehouse_inventory.exception.InvalidRequestException;
+import com.example.warehouse_inventory.repository.VariantRepository;
+
+import jakarta.validation.Validation;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+class BulkStockMovementServiceTest {
+    private static final Set<Long> KNOWN_VARIANTS = Set.of(1L, 2L);
+
+    private final InMemoryStockJdbcRepository stock = new InMemoryStockJdbcRepository();
+    private final VariantRepository variantRepository = mock(VariantRepository.class);
+    private final BulkStockMovementService service = new BulkStockMovementService(
+            stock,
+            variantRepository,
+            Validation.buildDefaultValidatorFactory().getValidator(),
+            mock(LowStockWatcher.class),
+            3,
+            "atomic");
+
+    @BeforeEach
+    void seed() {
+        stock.addVariant(1L, "SKU-1", 5);
+        stock.addVariant(2L, "SKU-2", 0);
+        when(variantRepository.findExistingIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().filter(KNOWN_VARIANTS::contains).toList();
+        });
+    }
+
+    @Test
+    void atomicBatchLeavesStockUntouchedWhenOneLineFails() {
+        BulkStockMovementResponse response = service.apply(List.of(
+                line(1L, StockMovementType.IN, 3),
+                line(2L, StockMovementType.OUT, 1)), "atomic");
+
+        assertThat(response.applied()).isFalse();
+        assertThat(response.accepted()).isZero();
+        assertThat(response.rejected()).isEqualTo(1);
+        assertThat(response.lines()).extracting(BulkStockMovementLineResult::status)
+                .containsExactly(Status.SKIPPED, Status.REJECTED);
+        assertThat(response.lines().get(1).error()).isEqualTo("Stock is not enough");
+        assertThat(stock.quantity(1L)).isEqualTo(5);
+        assertThat(stock.quantity(2L)).isZero();
+        assertThat(stock.movementCount()).isZero();
+    }
+
+    @Test
+    void bestEffortAppliesValidLinesAndReportsTheRest() {
+        BulkStockMovementResponse response = service.apply(List.of(
+                line(1L, StockMovementType.OUT, 2),
+                line(2L, StockMovementType.OUT, 1),
+                line(99L, StockMovementType.IN, 1)), "best_effort");
+
+        assertThat(response.applied()).isTrue();
+        assertThat(response.accepted()).isEqualTo(1);
+        assertThat(response.rejected()).isEqualTo(2);
+        assertThat(response.lines()).extracting(BulkStockMovementLineResult::status)
+                .containsExactly(Status.APPLIED, Status.REJECTED, Status.REJECTED);
+        assertThat(response.lines()).extracting(BulkStockMovementLineResult::error)
+                .containsExactly(null, "Stock is not enough", "Variant not found");
+
+        BulkStockMovementLineResult applied = response.lines().get(0);
+        assertThat(applied.movement().changeQty()).isEqualTo(-2);
+        assertThat(applied.movement().sku()).isEqualTo("SKU-1");
+        assertThat(applied.movement().variantName()).isEqualTo("SKU-1 name");
+        assertThat(applied.movement().createdAt()).isNotNull();
+        assertThat(stock.quantity(1L)).isEqualTo(3);
+        assertThat(stock.movementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsBatchesOverTheLineLimit() {
+        List<StockMovementLineRequest> lines = List.of(
+                line(1L, StockMovementType.IN, 1),
+                line(1L, StockMovementType.IN, 1),
+                line(1L, StockMovementType.IN, 1),
+                line(1L, StockMovementType.IN, 1));
+
+        assertThatThrownBy(() -> service.apply(lines, null))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessage("Too many movement lines (max 3)");
+        assertThat(stock.movementCount()).isZero();
+    }
+
+    private static StockMovementLineRequest line(Long variantId, StockMovementType type, int quantity) {
+        return new StockMovementLineRequest(variantId, type, quantity, null);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.warehouse_inventory.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import com.example.warehouse_inventory.exception.InvalidRequestException;
+import com.example.warehouse_inventory.repository.IdempotencyKeyRepository;
+import com.example.warehouse_inventory.repository.IdempotencyKeyRepository.StoredResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class IdempotencyServiceTest {
+    private static final String SCOPE = "inventory/bulk";
+
+    private final IdempotencyKeyRepository repository = mock(IdempotencyKeyRepository.class);
+    private final RecordingTransactionManager transactionManager = new RecordingTransactionManager();
+    private final IdempotencyService service = newService();
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @Test
+    void replaysStoredResponseWithoutRunningAgain() {
+        Result first = service.execute(SCOPE, "k1", Map.of("qty", 5), Result.class, this::applied);
+        Result second = service.execute(SCOPE, " k1 ", Map.of("qty", 5), Result.class, this::applied);
+
+        assertThat(second).isEqualTo(first);
+        assertThat(runs).hasValue(1);
+        verify(repository, times(1)).claim(eq(SCOPE), eq("k1"), anyString(), any());
+        verify(repository, times(1)).complete(eq(SCOPE), eq("k1"), anyString());
+        assertThat(transactionManager.commits).hasValue(1);
+    }
+
+    @Test
+    void replaysResponseStoredByAnotherNode() {
+        service.execute(SCOPE, "k1", Map.of("qty", 5), Result.class, this::applied);
+        ArgumentCaptor<String> hash = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<String> body = ArgumentCaptor.forClass(String.class);
+        verify(repository).claim(eq(SCOPE), eq("k1"), hash.capture(), any());
+        verify(repository).complete(eq(SCOPE), eq("k1"), body.capture());
+
+        doThrow(new DuplicateKeyException("taken")).when(repository).claim(eq(SCOPE), eq("k1"), anyString(), any());
+        when(repository.find(SCOPE, "k1"))
+                .thenReturn(Optional.of(new StoredResponse(hash.getValue(), body.getValue(), Instant.now())));
+        IdempotencyService otherNode = newService();
+
+        Result replayed = otherNode.execute(SCOPE, "k1", Map.of("qty", 5), Result.class, this::applied);
+
+        assertThat(replayed).isEqualTo(new Result(1, true));
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void rejectsKeyReusedWithDifferentRequest() {
+        service.execute(SCOPE, "k1", Map.of("qty", 5), Result.class, this::applied);
+
+        assertThatThrownBy(() -> service.execute(SCOPE, "k1", Map.of("qty", 6), Result.class, this::applied))
+                .isInstanceOf(InvalidRequestException.class);
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void rejectedResponseReleasesKey() {
+        Result rejected = service.execute(SCOPE, "k1", Map.of("qty", 5), Result.class,
+                () -> new Result(runs.incrementAndGet(), false), Result::applied);
+        Result retried = service.execute(SCOPE, "k1", Map.of("qty", 5), Result.class,
+                () -> new Result(runs.incrementAndGet(), false), Result::applied);
+
+        assertThat(rejected.applied()).isFalse();
+        assertThat(retried.run()).isEqualTo(2);
+        verify(repository, never()).complete(anyString(), anyString(), anyString());
+        assertThat(transactionManager.commits).hasValue(0);
+        assertThat(transactionManager.rollbacks).hasValue(2);
+    }
+
+    private Result applied() {
+        return new Result(runs.incrementAndGet(), true);
+    }
+
+    private IdempotencyService newService() {
+        return new IdempotencyService(repository, new ObjectMapper(), transactionManager, 24, 100, false);
+    }
+
+    record Result(int run, boolean applied) {
+    }
+
+    private static final class RecordingTransactionManager extends AbstractPlatformTransactionManager {
+        private final AtomicInteger commits = new AtomicInteger();
+        private final AtomicInteger rollbacks = new AtomicInteger();
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            commits.incrementAndGet();
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+            rollbacks.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.warehouse_inventory.service;
+
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import com.example.warehouse_inventory.repository.StockJdbcRepository;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Stock table kept in memory for tests of the write paths. A single lock stands
+ * in for the InnoDB row locks: {@link #lockAvailable} takes it, optionally holds
+ * it for a fixed time to model statement and commit latency, and the paired
+ * {@link #transactionManager()} releases it at commit or rollback.
+ */
+class InMemoryStockJdbcRepository extends StockJdbcRepository {
+    private final Map<Long, Integer> quantities = new ConcurrentHashMap<>();
+    private final Map<Long, VariantLabel> labels = new ConcurrentHashMap<>();
+    private final List<StockMovementRow> movements = new ArrayList<>();
+    private final AtomicLong ids = new AtomicLong();
+    private final ReentrantLock rowLock = new ReentrantLock();
+    private final long holdNanos;
+
+    InMemoryStockJdbcRepository() {
+        this(0);
+    }
+
+    InMemoryStockJdbcRepository(long holdMicros) {
+        super(null, null);
+        this.holdNanos = TimeUnit.MICROSECONDS.toNanos(holdMicros);
+    }
+
+    void addVariant(long variantId, String sku, int quantity) {
+        labels.put(variantId, new VariantLabel(sku, sku + " name"));
+        quantities.put(variantId, quantity);
+    }
+
+    int quantity(long variantId) {
+        return quantities.get(variantId);
+    }
+
+    synchronized int movementCount() {
+        return movements.size();
+    }
+
+    synchronized List<StockMovementRow> movements() {
+        return List.copyOf(movements);
+    }
+
+    @Override
+    public Map<Long, Integer> lockAvailable(Collection<Long> variantIds) {
+        if (!rowLock.isHeldByCurrentThread()) {
+            rowLock.lock();
+            if (holdNanos > 0) {
+                LockSupport.parkNanos(holdNanos);
+            }
+        }
+        Map<Long, Integer> available = new LinkedHashMap<>();
+        for (Long variantId : variantIds) {
+            Integer quantity = quantities.get(variantId);
+            if (quantity != null) {
+                available.put(variantId, quantity);
+            }
+        }
+        return available;
+    }
+
+
+    @Override
+    public void insertEmptyIfAbsent(Collection<Long> variantIds) {
+        variantIds.forEach(variantId -> quantities.putIfAbsent(variantId, 0));
+    }
+
+    @Override
+    public void applyDeltas(Map<Long, Integer> deltaByVariantId) {
+        deltaByVariantId.forEach((variantId, delta) -> quantities.merge(variantId, delta, Integer::sum));
+    }
+
+    @Override
+    public synchronized List<Long> insertMovements(List<StockMovementRow> rows) {
+        List<Long> assigned = new ArrayList<>(rows.size());
+        for (StockMovementRow row : rows) {
+            movements.add(row);
+            assigned.add(ids.incrementAndGet());
+        }
+        return assigned;
+    }
+
+    @Override
+    public synchronized Map<Long, InsertedMovement> findInserted(Collection<Long> movementIds) {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        Map<Long, InsertedMovement> found = new LinkedHashMap<>();
+        for (Long id : movementIds) {
+            StockMovementRow row = movements.get(Math.toIntExact(id - 1));
+            VariantLabel label = labels.get(row.variantId());
+            found.put(id, new InsertedMovement(now, label != null ? label.sku() : null,
+                    label != null ? label.variantName() : null));
+        }
+        return found;
+    }
+
+    @Override
+    public Map<Long, VariantLabel> findVariantLabels(Collection<Long> variantIds) {
+        Map<Long, VariantLabel> found = new LinkedHashMap<>();
+        variantIds.forEach(variantId -> {
+            if (labels.containsKey(variantId)) {
+                found.put(variantId, labels.get(variantId));
+            }
+        });
+        return found;
+    }
+
+    AbstractPlatformTransactionManager transactionManager() {
+        return new AbstractPlatformTransactionManager() {
+            @Override
+            protected Object doGetTransaction() {
+                return new Object();
+            }
+
+            @Override
+            protected void doBegin(Object transaction, TransactionDefinition definition) {
+            }
+
+            @Override
+            protected void doCommit(DefaultTransactionStatus status) {
+                release();
+            }
+
+            @Override
+            protected void doRollback(DefaultTransactionStatus status) {
+                release();
+            }
+
+            @Override
+            protected boolean isExistingTransaction(Object transaction) {
+                return false;
+            }
+        };
+    }
+
+    private void release() {
+        if (rowLock.isHeldByCurrentThread()) {
+            rowLock.unlock();
+        }
+    }
+}
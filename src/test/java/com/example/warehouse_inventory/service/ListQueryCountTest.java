@@ -0,0 +1,150 @@
+package com.example.warehouse_inventory.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.warehouse_inventory.dto.StockMovementResponse;
+import com.example.warehouse_inventory.dto.StockResponse;
+import com.example.warehouse_inventory.entity.Item;
+import com.example.warehouse_inventory.entity.StockMovementType;
+import com.example.warehouse_inventory.entity.Variant;
+import com.example.warehouse_inventory.repository.ItemRepository;
+import com.example.warehouse_inventory.repository.StockJdbcRepository;
+import com.example.warehouse_inventory.repository.StockJdbcRepository.StockMovementRow;
+import com.example.warehouse_inventory.repository.VariantRepository;
+import com.example.warehouse_inventory.response.PaginatedResponse;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts the statements Hibernate prepares for one page of the stock and stock
+ * movement listings. A page must not grow with its row count: one query for the
+ * rows, plus one {@code COUNT} only when an exact total is asked for. Needs the
+ * configured MySQL; the seeded rows are rolled back.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class ListQueryCountTest {
+    private static final int ROWS = 30;
+    private static final int PAGE = 20;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private StockMovementService stockMovementService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private VariantRepository variantRepository;
+
+    @Autowired
+    private StockJdbcRepository stockJdbcRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private String token;
+
+    @BeforeEach
+    void seed() {
+        token = "qc" + System.nanoTime();
+        Item item = new Item();
+        item.setName("query-count");
+        item = itemRepository.save(item);
+
+        List<Variant> variants = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            Variant variant = new Variant();
+            variant.setItemId(item.getId());
+            variant.setSku(token + "-" + i);
+            variant.setVariantName("query-count " + i);
+            variant.setPrice(BigDecimal.ONE);
+            variants.add(variant);
+        }
+        variants = variantRepository.saveAll(variants);
+        entityManager.flush();
+
+        Map<Long, Integer> deltas = new LinkedHashMap<>();
+        List<StockMovementRow> movements = new ArrayList<>();
+        for (Variant variant : variants) {
+            deltas.put(variant.getId(), 5);
+            movements.add(new StockMovementRow(variant.getId(), 5, StockMovementType.IN, token));
+        }
+        stockJdbcRepository.insertEmptyIfAbsent(deltas.keySet());
+        stockJdbcRepository.applyDeltas(deltas);
+        stockJdbcRepository.insertMovements(movements);
+
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void stockPageIsOneQuery() {
+        PaginatedResponse<StockResponse> page = stockService.getAll(
+                0, PAGE, token, "id", "asc", List.of(), null, "none");
+
+        assertThat(page.data()).hasSize(PAGE).allSatisfy(row -> assertThat(row.sku()).isNotNull());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void stockPageWithExactTotalAddsOneCount() {
+        PaginatedResponse<StockResponse> page = stockService.getAll(
+                0, PAGE, token, "id", "asc", List.of(), null, "exact");
+
+        assertThat(page.data()).hasSize(PAGE);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void stockCursorPageIsOneQuery() {
+        PaginatedResponse<StockResponse> first = stockService.getAll(
+                0, PAGE, token, "id", "asc", List.of(), "", null);
+        PaginatedResponse<StockResponse> second = stockService.getAll(
+                0, PAGE, token, "id", "asc", List.of(), first.pagination().nextCursor(), null);
+
+        assertThat(first.data()).hasSize(PAGE);
+        assertThat(second.data()).hasSize(ROWS - PAGE);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void movementPageIsOneQuery() {
+        PaginatedResponse<StockMovementResponse> page = stockMovementService.getAll(
+                0, PAGE, token, "id", "desc", List.of(), null, "none");
+
+        assertThat(page.data()).hasSize(PAGE).allSatisfy(row -> assertThat(row.sku()).isNotNull());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void movementCursorPageIsOneQuery() {
+        PaginatedResponse<StockMovementResponse> page = stockMovementService.getAll(
+                0, PAGE, token, "id", "desc", List.of(), "", null);
+
+        assertThat(page.data()).hasSize(PAGE);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.warehouse_inventory.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+class LowStockAlertsTest {
+    private static final int CAPACITY = 4;
+
+    private final LowStockAlerts alerts = new LowStockAlerts(CAPACITY);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        alerts.shutdown();
+    }
+
+    @Test
+    void deliversEventsOffTheCallingThread() throws Exception {
+        RecordingEmitter emitter = new RecordingEmitter(null);
+        alerts.subscribe(emitter);
+
+        for (int i = 0; i < 3; i++) {
+            alerts.onLowStock(event(i));
+        }
+
+        assertThat(emitter.awaitSends(3)).isTrue();
+        assertThat(emitter.senders).doesNotContain(Thread.currentThread().getName())
+                .allSatisfy(name -> assertThat(name).startsWith("low-stock-alerts-"));
+    }
+
+    @Test
+    void stalledSubscriberIsDroppedWithoutBlockingOthers() throws Exception {
+        RecordingEmitter stalled = new RecordingEmitter(release);
+        RecordingEmitter healthy = new RecordingEmitter(null);
+        alerts.subscribe(stalled);
+        alerts.subscribe(healthy);
+
+        // one event in flight plus CAPACITY queued, then the next one overflows the stalled queue
+        int events = CAPACITY + 2;
+        long slowestPublishNanos = 0;
+        for (int i = 0; i < events; i++) {
+            long start = System.nanoTime();
+            alerts.onLowStock(event(i));
+            slowestPublishNanos = Math.max(slowestPublishNanos, System.nanoTime() - start);
+            assertThat(healthy.awaitSends(i + 1)).isTrue();
+        }
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(slowestPublishNanos)).isLessThan(500);
+        assertThat(alerts.subscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    void failedSendUnsubscribes() throws Exception {
+        SseEmitter broken = new SseEmitter(0L) {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                throw new IOException("closed");
+            }
+        };
+        alerts.subscribe(broken);
+
+        alerts.onLowStock(event(1));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (alerts.subscriberCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(alerts.subscriberCount()).isZero();
+    }
+
+    private static LowStockEvent event(int i) {
+        return new LowStockEvent((long) i, 1, 5, Instant.now());
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+        private final CountDownLatch block;
+        private final List<String> senders = new CopyOnWriteArrayList<>();
+
+        private RecordingEmitter(CountDownLatch block) {
+            super(0L);
+            this.block = block;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            senders.add(Thread.currentThread().getName());
+            if (block != null) {
+                try {
+                    block.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        private boolean awaitSends(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (senders.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            return senders.size() >= count;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.warehouse_inventory.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.example.warehouse_inventory.repository.StockJdbcRepository;
+import com.example.warehouse_inventory.repository.StockJdbcRepository.LowStockRow;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+class LowStockWatcherTest {
+    private final StockJdbcRepository stockJdbcRepository = mock(StockJdbcRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final LowStockWatcher watcher = new LowStockWatcher(stockJdbcRepository, eventPublisher);
+
+    @Test
+    void publishesWhenAWriteCrossesTheReorderPoint() {
+        // 1: 7 -> 3 crosses 5; 2: 4 -> 3 was already low; 3: 5 -> 4 crosses exactly at the threshold
+        when(stockJdbcRepository.findLow(any())).thenReturn(List.of(
+                new LowStockRow(1L, 3, 5),
+                new LowStockRow(2L, 3, 5),
+                new LowStockRow(3L, 4, 5)));
+
+        watcher.afterDeltas(Map.of(1L, -4, 2L, -1, 3L, -1));
+
+        ArgumentCaptor<LowStockEvent> events = ArgumentCaptor.forClass(LowStockEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertThat(events.getAllValues()).extracting(LowStockEvent::variantId).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(events.getAllValues().get(0).reorderPoint()).isEqualTo(5);
+    }
+
+    @Test
+    void ignoresIncreases() {
+        watcher.afterDeltas(Map.of(1L, 10, 2L, 0));
+        watcher.afterDecrease(3L, 0);
+
+        verifyNoInteractions(stockJdbcRepository, eventPublisher);
+    }
+
+    @Test
+    void checksOnlyDecreasedVariants() {
+        when(stockJdbcRepository.findLow(Set.of(2L))).thenReturn(List.of());
+
+        watcher.afterDeltas(Map.of(1L, 3, 2L, -3));
+
+        verify(stockJdbcRepository).findLow(Set.of(2L));
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void thresholdChangePublishesOnlyNewlyLowVariants() {
+        when(stockJdbcRepository.findLow(List.of(1L, 2L))).thenReturn(List.of(
+                new LowStockRow(1L, 2, 10),
+                new LowStockRow(2L, 2, 10)));
+
+        watcher.afterThresholdChange(List.of(1L, 2L), Set.of(1L));
+
+        ArgumentCaptor<LowStockEvent> events = ArgumentCaptor.forClass(LowStockEvent.class);
+        verify(eventPublisher).publishEvent(events.capture());
+        assertThat(events.getValue().variantId()).isEqualTo(2L);
+    }
+}
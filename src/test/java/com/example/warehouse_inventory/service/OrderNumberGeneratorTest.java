@@ -0,0 +1,138 @@
+package com.example.warehouse_inventory.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.warehouse_inventory.repository.OrderRepository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+class OrderNumberGeneratorTest {
+    // 2024-01-01T10:00:00Z
+    private static final long SECOND = 1704103200L;
+    private static final long MAX_SEQUENCE = (1L << 20) - 1;
+
+    @Test
+    void numbersIncreaseWithinAndAcrossSeconds() {
+        AtomicLong clock = new AtomicLong(SECOND);
+        OrderNumberGenerator generator = new OrderNumberGenerator(7, clock::get);
+
+        List<String> issued = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            issued.add(generator.next());
+        }
+        clock.incrementAndGet();
+        issued.add(generator.next());
+
+        assertThat(issued).containsExactly(
+                "order_20240101100000_007_0",
+                "order_20240101100000_007_1",
+                "order_20240101100000_007_2",
+                "order_20240101100001_007_0");
+        assertThat(issued).isSortedAccordingTo(ORDER);
+    }
+
+    @Test
+    void clockSteppingBackKeepsCountingInLastSecond() {
+        AtomicLong clock = new AtomicLong(SECOND + 5);
+        OrderNumberGenerator generator = new OrderNumberGenerator(1, clock::get);
+
+        String before = generator.next();
+        clock.set(SECOND);
+        String after = generator.next();
+
+        assertThat(before).isEqualTo("order_20240101100005_001_0");
+        assertThat(after).isEqualTo("order_20240101100005_001_1");
+    }
+
+    @Test
+    void exhaustedSequenceRollsOverToNextSecond() {
+        OrderNumberGenerator generator = new OrderNumberGenerator(1, () -> SECOND);
+        generator.seed("order_20240101100000_001_" + (MAX_SEQUENCE - 1));
+
+        assertThat(generator.next()).isEqualTo("order_20240101100000_001_" + MAX_SEQUENCE);
+        assertThat(generator.next()).isEqualTo("order_20240101100001_001_0");
+        assertThat(generator.next()).isEqualTo("order_20240101100001_001_1");
+    }
+
+    @Test
+    void seedContinuesAfterStoredNumberOfSameNode() {
+        OrderNumberGenerator generator = new OrderNumberGenerator(2, () -> SECOND);
+        generator.seed("order_20240101100000_003_40");
+        generator.seed("order_20240101100000_002_9");
+        generator.seed("order_20240101095959_002_500");
+        generator.seed("order_20240101100000_1");
+
+        assertThat(generator.next()).isEqualTo("order_20240101100000_002_10");
+    }
+
+    @Test
+    void startupSeedsFromStoredNumbersOfTheCurrentSecondOnwards() {
+        OrderRepository orderRepository = mock(OrderRepository.class);
+        when(orderRepository.findOrderNosFrom("order_20240101100000")).thenReturn(List.of(
+                "order_20240101100000_002_9",
+                "order_20240101100000_002_10",
+                "order_20240101100000_003_700",
+                "order_20240101100002_002_4"));
+        OrderNumberGenerator generator = new OrderNumberGenerator(2, () -> SECOND);
+
+        generator.seedFromStored(orderRepository);
+
+        assertThat(generator.next()).isEqualTo("order_20240101100002_002_5");
+    }
+
+    @Test
+    void startupNeverReturnsToEarlierSeconds() {
+        AtomicLong clock = new AtomicLong(SECOND);
+        OrderRepository orderRepository = mock(OrderRepository.class);
+        when(orderRepository.findOrderNosFrom("order_20240101100000")).thenReturn(List.of());
+        OrderNumberGenerator generator = new OrderNumberGenerator(2, clock::get);
+
+        generator.seedFromStored(orderRepository);
+        clock.set(SECOND - 3);
+
+        assertThat(generator.next()).isEqualTo("order_20240101100000_002_0");
+    }
+
+    @Test
+    void concurrentCallersNeverShareANumber() throws Exception {
+        OrderNumberGenerator generator = new OrderNumberGenerator(0, () -> SECOND);
+        Set<String> issued = ConcurrentHashMap.newKeySet();
+        int threads = 8;
+        int perThread = 10_000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        issued.add(generator.next());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(issued).hasSize(threads * perThread);
+    }
+
+    private static final Comparator<String> ORDER = Comparator
+            .comparing((String orderNo) -> orderNo.split("_")[1])
+            .thenComparingLong(orderNo -> Long.parseLong(orderNo.split("_")[3]));
+}
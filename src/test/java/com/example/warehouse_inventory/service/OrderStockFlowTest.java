@@ -0,0 +1,215 @@
+package com.example.warehouse_inventory.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.warehouse_inventory.dto.CreateOrderItemRequest;
+import com.example.warehouse_inventory.dto.CreateOrderRequest;
+import com.example.warehouse_inventory.dto.OrderResponse;
+import com.example.warehouse_inventory.entity.Item;
+import com.example.warehouse_inventory.entity.OrderStatus;
+import com.example.warehouse_inventory.entity.Variant;
+import com.example.warehouse_inventory.exception.DataAlreadyExistsException;
+import com.example.warehouse_inventory.repository.ItemRepository;
+import com.example.warehouse_inventory.repository.StockJdbcRepository;
+import com.example.warehouse_inventory.repository.VariantRepository;
+
+import jakarta.persistence.EntityManager;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stock side effects of the order lifecycle against the configured MySQL:
+ * holds at creation, their release on cancel and by the expiry sweep, and the
+ * movements written when an order is paid and cancelled. Every test is rolled
+ * back.
+ */
+@SpringBootTest
+@Transactional
+class OrderStockFlowTest {
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private VariantRepository variantRepository;
+
+    @Autowired
+    private StockJdbcRepository stockJdbcRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Long first;
+    private Long second;
+
+    @BeforeEach
+    void seed() {
+        String token = "osf" + System.nanoTime();
+        Item item = new Item();
+        item.setName("order-stock-flow");
+        item = itemRepository.save(item);
+        first = variant(item, token + "-1").getId();
+        second = variant(item, token + "-2").getId();
+        entityManager.flush();
+
+        stockJdbcRepository.insertEmptyIfAbsent(List.of(first, second));
+        stockJdbcRepository.applyDeltas(Map.of(first, 10, second, 4));
+    }
+
+    @Test
+    void createHoldsEveryLineWithoutMovingStock() {
+        OrderResponse order = orderService.create(request(3, 4));
+
+        assertThat(order.status()).isEqualTo(OrderStatus.NEW);
+        assertThat(order.reservedUntil()).isNotNull();
+        assertStock(first, 10, 3);
+        assertStock(second, 4, 4);
+        assertThat(movementCount(order.orderNo())).isZero();
+    }
+
+    @Test
+    void createWithOneShortLineHoldsNothing() {
+        assertThatThrownBy(() -> orderService.create(request(3, 5)))
+                .isInstanceOf(DataAlreadyExistsException.class)
+                .hasMessageStartingWith("Stock is not enough");
+
+        assertStock(first, 10, 0);
+        assertStock(second, 4, 0);
+    }
+
+    @Test
+    void cancelReleasesTheHold() {
+        OrderResponse order = orderService.create(request(3, 4));
+
+        OrderResponse cancelled = orderService.cancel(order.id());
+
+        assertThat(cancelled.status()).isEqualTo(OrderStatus.CANCELLED);
+        assertStock(first, 10, 0);
+        assertStock(second, 4, 0);
+        assertThat(movementCount(order.orderNo())).isZero();
+    }
+
+    @Test
+    void cancelFailsWhenTheHoldIsGone() {
+        OrderResponse order = orderService.create(request(3, 4));
+        jdbcTemplate.update("UPDATE stock SET reserved = 0 WHERE variant_id = ?", second);
+
+        assertThatThrownBy(() -> orderService.cancel(order.id()))
+                .isInstanceOf(DataAlreadyExistsException.class)
+                .hasMessage("Reserved stock is missing");
+    }
+
+    @Test
+    void releaseKeepsShortRowsUnchanged() {
+        orderService.create(request(3, 4));
+
+        List<Long> shortVariantIds = stockJdbcRepository.releaseReserved(Map.of(first, 3, second, 5));
+
+        assertThat(shortVariantIds).containsExactly(second);
+        assertStock(first, 10, 0);
+        assertStock(second, 4, 4);
+    }
+
+    @Test
+    void sweepCancelsExpiredOrdersAndReleasesTheirHolds() {
+        OrderResponse order = orderService.create(request(3, 4));
+        entityManager.flush();
+        jdbcTemplate.update("UPDATE orders SET reserved_until = ? WHERE id = ?",
+                Timestamp.from(Instant.now().minusSeconds(60)), order.id());
+        entityManager.clear();
+
+        int released = orderService.releaseExpiredReservations(10_000);
+        entityManager.flush();
+
+        assertThat(released).isPositive();
+        assertThat(orderService.findById(order.id()).status()).isEqualTo(OrderStatus.CANCELLED);
+        assertStock(first, 10, 0);
+        assertStock(second, 4, 0);
+    }
+
+    @Test
+    void payAndCancelMoveEveryLineThroughTheLedger() {
+        OrderResponse order = orderService.create(request(3, 4));
+
+        assertThat(orderService.markPaid(order.id()).status()).isEqualTo(OrderStatus.PAID);
+        assertStock(first, 7, 0);
+        assertStock(second, 0, 0);
+        assertThat(movements(order.orderNo())).containsExactly(
+                Map.of("variant_id", first, "movement_type", "OUT", "change_qty", -3),
+                Map.of("variant_id", second, "movement_type", "OUT", "change_qty", -4));
+
+        assertThat(orderService.cancel(order.id()).status()).isEqualTo(OrderStatus.CANCELLED);
+        assertStock(first, 10, 0);
+        assertStock(second, 4, 0);
+        assertThat(movements(order.orderNo())).containsExactly(
+                Map.of("variant_id", first, "movement_type", "OUT", "change_qty", -3),
+                Map.of("variant_id", second, "movement_type", "OUT", "change_qty", -4),
+                Map.of("variant_id", first, "movement_type", "IN", "change_qty", 3),
+                Map.of("variant_id", second, "movement_type", "IN", "change_qty", 4));
+    }
+
+    @Test
+    void guardedDeltasKeepHeldStock() {
+        orderService.create(request(3, 1));
+
+        List<Long> shortVariantIds = stockJdbcRepository.applyDeltasIfSufficient(Map.of(first, -8, second, -3));
+
+        assertThat(shortVariantIds).containsExactly(first);
+        assertStock(first, 10, 3);
+        assertStock(second, 1, 1);
+    }
+
+    private Variant variant(Item item, String sku) {
+        Variant variant = new Variant();
+        variant.setItemId(item.getId());
+        variant.setSku(sku);
+        variant.setVariantName(sku);
+        variant.setPrice(BigDecimal.TEN);
+        return variantRepository.save(variant);
+    }
+
+    private CreateOrderRequest request(int firstQuantity, int secondQuantity) {
+        return new CreateOrderRequest(List.of(
+                new CreateOrderItemRequest(first, firstQuantity),
+                new CreateOrderItemRequest(second, secondQuantity)));
+    }
+
+    private void assertStock(Long variantId, int quantity, int reserved) {
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT quantity, reserved FROM stock WHERE variant_id = ?", variantId);
+        assertThat(((Number) row.get("quantity")).intValue()).as("quantity of %d", variantId).isEqualTo(quantity);
+        assertThat(((Number) row.get("reserved")).intValue()).as("reserved of %d", variantId).isEqualTo(reserved);
+    }
+
+    private List<Map<String, Object>> movements(String referenceId) {
+        return jdbcTemplate.queryForList("SELECT variant_id, movement_type, change_qty FROM stock_movements "
+                + "WHERE reference_id = ? ORDER BY id", referenceId).stream()
+                .map(row -> Map.<String, Object>of(
+                        "variant_id", ((Number) row.get("variant_id")).longValue(),
+                        "movement_type", row.get("movement_type"),
+                        "change_qty", ((Number) row.get("change_qty")).intValue()))
+                .toList();
+    }
+
+    private int movementCount(String referenceId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM stock_movements WHERE reference_id = ?", Integer.class, referenceId);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.warehouse_inventory.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.warehouse_inventory.dto.ReconciliationDrift;
+import com.example.warehouse_inventory.dto.ReconciliationStatusResponse;
+import com.example.warehouse_inventory.entity.StockMovementType;
+import com.example.warehouse_inventory.repository.StockJdbcRepository.StockMovementRow;
+import com.example.warehouse_inventory.repository.StockReconciliationRepository;
+import com.example.warehouse_inventory.repository.StockReconciliationRepository.IdRange;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+class StockReconciliationServiceTest {
+    /** Variant 2 drifted, 4 has movements but no stock row, 5 drifted past the INT range. */
+    private static final Map<Long, Long> STOCK = Map.of(1L, 10L, 2L, 5L, 3L, 7L, 5L, 5L);
+    private static final Map<Long, Long> LEDGER = Map.of(1L, 10L, 2L, 8L, 3L, 7L, 4L, 6L, 5L, -2_200_000_000L);
+
+    private final StockReconciliationRepository repository = mock(StockReconciliationRepository.class);
+    private final InMemoryStockJdbcRepository stock = new InMemoryStockJdbcRepository();
+    private final StockReconciliationService service = new StockReconciliationService(
+            repository,
+            stock,
+            stock.transactionManager(),
+            2,
+            2,
+            100,
+            0);
+
+    @BeforeEach
+    void seed() {
+        when(repository.findVariantIdRange()).thenReturn(Optional.of(new IdRange(1, 5)));
+        when(repository.findQuantities(anyLong(), anyLong())).thenAnswer(invocation ->
+                between(STOCK, invocation.getArgument(0), invocation.getArgument(1)));
+        when(repository.sumMovements(anyLong(), anyLong())).thenAnswer(invocation ->
+                between(LEDGER, invocation.getArgument(0), invocation.getArgument(1)));
+        when(repository.lockQuantities(anyCollection())).thenAnswer(invocation ->
+                in(STOCK, invocation.getArgument(0)));
+        when(repository.sumMovements(anyCollection())).thenAnswer(invocation ->
+                in(LEDGER, invocation.getArgument(0)));
+    }
+
+    @Test
+    void reportsDriftWithoutWritingWhenAutoCorrectIsOff() throws InterruptedException {
+        service.start(false);
+        ReconciliationStatusResponse status = awaitFinished();
+
+        assertThat(status.error()).isNull();
+        assertThat(status.chunksTotal()).isEqualTo(3);
+        assertThat(status.chunksDone()).isEqualTo(3);
+        assertThat(status.variantsChecked()).isEqualTo(5);
+        assertThat(status.driftCount()).isEqualTo(3);
+        assertThat(status.corrected()).isZero();
+        assertThat(status.drifts()).containsExactlyInAnyOrder(
+                new ReconciliationDrift(2L, 5, 8, -3, false),
+                new ReconciliationDrift(4L, 0, 6, -6, false),
+                new ReconciliationDrift(5L, 5, -2_200_000_000L, 2_200_000_005L, false));
+        assertThat(stock.movementCount()).isZero();
+    }
+
+    @Test
+    void correctsOnlyDriftThatFitsOneAdjustOnAStockRow() throws InterruptedException {
+        ReconciliationStatusResponse started = service.start(true);
+        ReconciliationStatusResponse status = awaitFinished();
+
+        assertThat(status.error()).isNull();
+        assertThat(status.driftCount()).isEqualTo(3);
+        assertThat(status.corrected()).isEqualTo(1);
+        assertThat(status.drifts()).containsExactlyInAnyOrder(
+                new ReconciliationDrift(2L, 5, 8, -3, true),
+                new ReconciliationDrift(4L, 0, 6, -6, false),
+                new ReconciliationDrift(5L, 5, -2_200_000_000L, 2_200_000_005L, false));
+        assertThat(stock.movements()).containsExactly(
+                new StockMovementRow(2L, -3, StockMovementType.ADJUST, "RECON-" + started.runId()));
+    }
+
+    private ReconciliationStatusResponse awaitFinished() throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (service.isRunning() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(service.isRunning()).isFalse();
+        return service.status();
+    }
+
+    private static Map<Long, Long> between(Map<Long, Long> values, long fromId, long toId) {
+        return filter(values, variantId -> variantId >= fromId && variantId <= toId);
+    }
+
+    private static Map<Long, Long> in(Map<Long, Long> values, Collection<Long> variantIds) {
+        return filter(values, variantIds::contains);
+    }
+
+    private static Map<Long, Long> filter(Map<Long, Long> values, Predicate<Long> include) {
+        Map<Long, Long> filtered = new HashMap<>();
+        values.forEach((variantId, value) -> {
+            if (include.test(variantId)) {
+                filtered.put(variantId, value);
+            }
+        });
+        return filtered;
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.warehouse_inventory.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.warehouse_inventory.dto.StockOutRequest;
+import com.example.warehouse_inventory.entity.Item;
+import com.example.warehouse_inventory.entity.Variant;
+import com.example.warehouse_inventory.repository.ItemRepository;
+import com.example.warehouse_inventory.repository.StockJdbcRepository;
+import com.example.warehouse_inventory.repository.VariantRepository;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contention benchmark for one hot variant against the configured MySQL: 32
+ * threads call {@link InventoryService#stockOut} on the same variant, once with
+ * the combiner off (one conditional update and one insert per movement) and
+ * once with it on. The seeded variant and its movements are deleted afterwards.
+ * Run with {@code mvn test -Dtest=StockWriteCombinerBenchmarkTest -Dbenchmark=true}.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class StockWriteCombinerBenchmarkTest {
+    private static final int THREADS = 32;
+    private static final long DURATION_MILLIS = 5000;
+    private static final int INITIAL_STOCK = 100_000_000;
+
+    @Autowired
+    private StockMovementService stockMovementService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private StockJdbcRepository stockJdbcRepository;
+
+    @Autowired
+    private VariantRepository variantRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private LowStockWatcher lowStockWatcher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Item item;
+    private Variant variant;
+    private String token;
+
+    @BeforeEach
+    void seed() {
+        token = "bench" + System.nanoTime();
+        item = new Item();
+        item.setName("combiner-benchmark");
+        item = itemRepository.save(item);
+
+        variant = new Variant();
+        variant.setItemId(item.getId());
+        variant.setSku(token);
+        variant.setVariantName("combiner-benchmark");
+        variant.setPrice(BigDecimal.ONE);
+        variant = variantRepository.save(variant);
+
+        stockJdbcRepository.insertEmptyIfAbsent(Set.of(variant.getId()));
+        stockJdbcRepository.applyDeltas(Map.of(variant.getId(), INITIAL_STOCK));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM stock_movements WHERE variant_id = ?", variant.getId());
+        jdbcTemplate.update("DELETE FROM stock WHERE variant_id = ?", variant.getId());
+        variantRepository.deleteById(variant.getId());
+        itemRepository.deleteById(item.getId());
+    }
+
+    @Test
+    void combiningRaisesHotVariantThroughput() throws Exception {
+        InventoryService direct = inventoryService(false);
+        InventoryService combined = inventoryService(true);
+
+        // Warm up the pool, the statement cache and the id blocks.
+        throughput(direct, 500);
+        throughput(combined, 500);
+
+        double directRate = throughput(direct, DURATION_MILLIS);
+        double combinedRate = throughput(combined, DURATION_MILLIS);
+
+        System.out.printf("hot variant, %d threads: direct %.0f ops/s, combined %.0f ops/s (x%.1f)%n",
+                THREADS, directRate, combinedRate, combinedRate / directRate);
+        assertThat(combinedRate).isGreaterThan(directRate * 2);
+    }
+
+    private InventoryService inventoryService(boolean combining) {
+        StockWriteCombiner combiner = new StockWriteCombiner(
+                stockJdbcRepository,
+                variantRepository,
+                lowStockWatcher,
+                transactionManager,
+                combining,
+                500,
+                64,
+                256);
+        return new InventoryService(stockMovementService, combiner, idempotencyService);
+    }
+
+    private double throughput(InventoryService inventoryService, long millis) throws InterruptedException {
+        StockOutRequest request = new StockOutRequest(variant.getId(), 1, null);
+        AtomicBoolean running = new AtomicBoolean(true);
+        LongAdder completed = new LongAdder();
+        CountDownLatch done = new CountDownLatch(THREADS);
+        for (int i = 0; i < THREADS; i++) {
+            Thread.ofPlatform().daemon(true).start(() -> {
+                try {
+                    while (running.get()) {
+                        inventoryService.stockOut(request, null);
+                        completed.increment();
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        Thread.sleep(millis);
+        running.set(false);
+        done.await(30, TimeUnit.SECONDS);
+        return completed.sum() * 1000.0 / millis;
+    }
+}
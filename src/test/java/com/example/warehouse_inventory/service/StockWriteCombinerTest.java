@@ -0,0 +1,83 @@
+package com.example.warehouse_inventory.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.warehouse_inventory.dto.StockMovementResponse;
+import com.example.warehouse_inventory.entity.StockMovementType;
+import com.example.warehouse_inventory.exception.DataAlreadyExistsException;
+import com.example.warehouse_inventory.exception.NotFoundException;
+import com.example.warehouse_inventory.repository.VariantRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+class StockWriteCombinerTest {
+    private final InMemoryStockJdbcRepository stock = new InMemoryStockJdbcRepository();
+    private final StockWriteCombiner combiner = new StockWriteCombiner(
+            stock,
+            mock(VariantRepository.class),
+            mock(LowStockWatcher.class),
+            stock.transactionManager(),
+            true,
+            200,
+            4,
+            256);
+
+    @Test
+    void concurrentCallersEachGetTheirOwnResult() throws Exception {
+        stock.addVariant(1L, "SKU-1", 10);
+        ExecutorService pool = Executors.newFixedThreadPool(20);
+        List<Future<StockMovementResponse>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < 20; i++) {
+                Callable<StockMovementResponse> call = () -> combiner.submit(1L, 1, StockMovementType.OUT, "ORDER");
+                results.add(pool.submit(call));
+            }
+            int accepted = 0;
+            int rejected = 0;
+            for (Future<StockMovementResponse> result : results) {
+                try {
+                    StockMovementResponse response = result.get();
+                    assertThat(response.changeQty()).isEqualTo(-1);
+                    accepted++;
+                } catch (ExecutionException ex) {
+                    assertThat(ex.getCause()).isInstanceOf(DataAlreadyExistsException.class);
+                    rejected++;
+                }
+            }
+            assertThat(accepted).isEqualTo(10);
+            assertThat(rejected).isEqualTo(10);
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(stock.quantity(1L)).isZero();
+        assertThat(stock.movementCount()).isEqualTo(10);
+    }
+
+    @Test
+    void combinedResponseCarriesSkuAndName() {
+        stock.addVariant(7L, "SKU-7", 0);
+
+        StockMovementResponse response = combiner.submit(7L, 5, StockMovementType.IN, "PO-1");
+
+        assertThat(response.sku()).isEqualTo("SKU-7");
+        assertThat(response.variantName()).isEqualTo("SKU-7 name");
+        assertThat(response.changeQty()).isEqualTo(5);
+        assertThat(response.referenceId()).isEqualTo("PO-1");
+    }
+
+    @Test
+    void unknownVariantIsRejected() {
+        assertThatThrownBy(() -> combiner.submit(99L, 1, StockMovementType.IN, null))
+                .isInstanceOf(NotFoundException.class);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.warehouse_inventory.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.warehouse_inventory.dto.VariantFacetsResponse;
+
+import java.util.Map;
+
+class VariantFacetIndexTest {
+    private final VariantFacetIndex index = new VariantFacetIndex(null);
+
+    @Test
+    void groupsValuesThatDifferOnlyInCaseOrSpacing() {
+        index.onVariantChanged(new VariantChangedEvent(1L, "{\"color\":\"Red\"}", true, false));
+        index.onVariantChanged(new VariantChangedEvent(2L, "{\"color\":\"red \"}", true, false));
+        index.onVariantChanged(new VariantChangedEvent(3L, "{\"color\":\"Blue\"}", false, false));
+
+        VariantFacetsResponse facets = index.count(Map.of(), null);
+
+        assertThat(facets.total()).isEqualTo(3);
+        assertThat(facets.facets().get("color")).containsExactly(Map.entry("Red", 2L), Map.entry("Blue", 1L));
+    }
+
+    @Test
+    void filtersIgnoreCase() {
+        index.onVariantChanged(new VariantChangedEvent(1L, "{\"color\":\"Red\",\"size\":\"M\"}", true, false));
+        index.onVariantChanged(new VariantChangedEvent(2L, "{\"color\":\"RED\",\"size\":\"L\"}", true, false));
+        index.onVariantChanged(new VariantChangedEvent(3L, "{\"color\":\"Blue\",\"size\":\"M\"}", true, false));
+
+        VariantFacetsResponse facets = index.count(Map.of("color", " red"), true);
+
+        assertThat(facets.total()).isEqualTo(2);
+        assertThat(facets.facets().get("size")).containsOnly(Map.entry("M", 1L), Map.entry("L", 1L));
+        assertThat(facets.facets().get("color")).containsExactly(Map.entry("Red", 2L), Map.entry("Blue", 1L));
+    }
+
+    @Test
+    void dropsValuesWhenTheLastVariantLeaves() {
+        index.onVariantChanged(new VariantChangedEvent(1L, "{\"brand\":\"Acme\"}", true, false));
+        index.onVariantChanged(new VariantChangedEvent(2L, "{\"brand\":\"ACME\"}", true, false));
+
+        index.onVariantChanged(VariantChangedEvent.deleted(1L));
+        assertThat(index.count(Map.of(), null).facets().get("brand")).containsExactly(Map.entry("Acme", 1L));
+
+        index.onVariantChanged(new VariantChangedEvent(2L, "{\"brand\":\"Other\"}", true, false));
+        assertThat(index.count(Map.of(), null).facets().get("brand")).containsExactly(Map.entry("Other", 1L));
+    }
+
+    @Test
+    void indexesIdsBeyondTheIntRange() {
+        long big = Integer.MAX_VALUE + 10L;
+        long huge = 1L << 40;
+        index.onVariantChanged(new VariantChangedEvent(big, "{\"color\":\"Red\"}", true, false));
+        index.onVariantChanged(new VariantChangedEvent(huge, "{\"color\":\"Red\"}", false, false));
+
+        VariantFacetsResponse facets = index.count(Map.of("color", "red"), null);
+        assertThat(facets.total()).isEqualTo(2);
+        assertThat(facets.facets().get("active")).containsExactly(Map.entry("true", 1L), Map.entry("false", 1L));
+
+        index.onVariantChanged(VariantChangedEvent.deleted(huge));
+        assertThat(index.count(Map.of(), null).facets().get("color")).containsExactly(Map.entry("Red", 1L));
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.warehouse_inventory.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.warehouse_inventory.dto.FilterRequest;
+import com.example.warehouse_inventory.entity.StockMovementType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+class FilterEngineTest {
+    private static final FilterSchema SCHEMA = FilterSchema.builder()
+            .field("id", FilterFieldType.LONG)
+            .field("variant.sku", FilterFieldType.STRING)
+            .field("totalAmount", FilterFieldType.DECIMAL, "total_amount")
+            .field("createdAt", FilterFieldType.INSTANT, "created_at")
+            .enumField("movementType", StockMovementType.class, "movement_type")
+            .expand("tag", (operator, rawValue) -> List.of(
+                    FilterCondition.of("tagA", FilterFieldType.STRING, operator, rawValue),
+                    FilterCondition.of("tagB", FilterFieldType.STRING, operator, rawValue)))
+            .build();
+
+    private final FilterEngine<Object> engine = new FilterEngine<>(SCHEMA);
+
+    @Test
+    void resolvesPathsAliasesAndTypedValues() {
+        FilterPlan<Object> plan = engine.compile(List.of(
+                new FilterRequest("SKU", "contains", " AbC "),
+                new FilterRequest("total_amount", ">=", "10.50"),
+                new FilterRequest("createdAt", "between", "2026-01-01T00:00:00Z, 2026-02-01T00:00:00Z"),
+                new FilterRequest("id", "in", "1, x, 3")));
+
+        assertThat(plan.conditions()).containsExactly(
+                new FilterCondition("variant.sku", FilterFieldType.STRING, FilterOperator.CONTAINS, List.of("%abc%")),
+                new FilterCondition("totalAmount", FilterFieldType.DECIMAL, FilterOperator.GREATER_OR_EQUAL,
+                        List.of(new BigDecimal("10.50"))),
+                new FilterCondition("createdAt", FilterFieldType.INSTANT, FilterOperator.BETWEEN,
+                        List.of(Instant.parse("2026-01-01T00:00:00Z"), Instant.parse("2026-02-01T00:00:00Z"))),
+                new FilterCondition("id", FilterFieldType.LONG, FilterOperator.IN, List.of(1L, 3L)));
+    }
+
+    @Test
+    void defaultsMissingOperatorToEqual() {
+        FilterPlan<Object> plan = engine.compile(List.of(new FilterRequest("id", null, "7")));
+
+        assertThat(plan.conditions()).containsExactly(
+                new FilterCondition("id", FilterFieldType.LONG, FilterOperator.EQUAL, List.of(7L)));
+    }
+
+    @Test
+    void dropsFiltersThatDoNotCompile() {
+        FilterPlan<Object> plan = engine.compile(List.of(
+                new FilterRequest("unknown", "=", "1"),
+                new FilterRequest("id", "~", "1"),
+                new FilterRequest("id", "=", "abc"),
+                new FilterRequest("id", "contains", "1"),
+                new FilterRequest("createdAt", "between", "2026-01-01T00:00:00Z"),
+                new FilterRequest("id", "=", " ")));
+
+        assertThat(plan.isEmpty()).isTrue();
+    }
+
+    @Test
+    void expandsVirtualFields() {
+        FilterPlan<Object> plan = engine.compile(List.of(new FilterRequest("Tag", "=", "x")));
+
+        assertThat(plan.conditions()).extracting(FilterCondition::path).containsExactly("tagA", "tagB");
+        assertThat(engine.compile(List.of(new FilterRequest("tag", "=", "")))).matches(FilterPlan::isEmpty);
+    }
+
+    @Test
+    void reusesPlansForEquivalentFilters() {
+        FilterPlan<Object> first = engine.compile(List.of(new FilterRequest("ID", " = ", " 5 ")));
+        FilterPlan<Object> second = engine.compile(List.of(new FilterRequest("id", "=", "5")));
+        FilterPlan<Object> other = engine.compile(List.of(new FilterRequest("id", "=", "6")));
+
+        assertThat(second).isSameAs(first);
+        assertThat(other).isNotSameAs(first);
+        assertThat(engine.compile(null).isEmpty()).isTrue();
+    }
+
+    @Test
+    void parsesEnumFieldsIgnoringCase() {
+        FilterPlan<Object> plan = engine.compile(List.of(
+                new FilterRequest("movement_type", "in", "in, Out, bogus"),
+                new FilterRequest("MovementType", "!=", "adjust")));
+
+        assertThat(plan.conditions()).containsExactly(
+                new FilterCondition("movementType", FilterFieldType.STRING, FilterOperator.IN,
+                        List.of(StockMovementType.IN, StockMovementType.OUT)),
+                new FilterCondition("movementType", FilterFieldType.STRING, FilterOperator.NOT_EQUAL,
+                        List.of(StockMovementType.ADJUST)));
+        assertThat(engine.compile(List.of(
+                new FilterRequest("movementType", ">", "IN"),
+                new FilterRequest("movementType", "=", "IN,OUT"),
+                new FilterRequest("movementType", "=", "bogus")))).matches(FilterPlan::isEmpty);
+    }
+
+    @Test
+    void escapesLikeWildcards() {
+        assertThat(FilterValueParser.escapeLike("order_2024%\\x")).isEqualTo("order\\_2024\\%\\\\x");
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.warehouse_inventory.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.domain.Specification;
+
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+
+class FullTextSearchTest {
+    @Test
+    void requiresEveryTermAsPrefix() {
+        assertThat(FullTextSearch.booleanQuery("belden cab")).isEqualTo("+belden* +cab*");
+    }
+
+    @Test
+    void stripsBooleanModeOperators() {
+        assertThat(FullTextSearch.booleanQuery("+cable -belden* \"cat6\" (utp) ~shield <lan> @3"))
+                .isEqualTo("+cable* +belden* +cat6* +utp* +shield* +lan*");
+    }
+
+    @Test
+    void keepsLettersAndDigitsOutsideAscii() {
+        assertThat(FullTextSearch.booleanQuery("kabel_ö über-123"))
+                .isEqualTo("+kabel_ö* +über* +123*");
+    }
+
+    @Test
+    void returnsNullWhenNoTermIsIndexed() {
+        assertThat(FullTextSearch.booleanQuery(null)).isNull();
+        assertThat(FullTextSearch.booleanQuery("")).isNull();
+        assertThat(FullTextSearch.booleanQuery("  ")).isNull();
+        assertThat(FullTextSearch.booleanQuery("ab +c -* \"\"")).isNull();
+        assertThat(FullTextSearch.matching("ab", "name", "description", true)).isNull();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void bindsQueryAsParameter() {
+        Specification<Object> spec = FullTextSearch.matching("belden cab", "name", "description", false);
+        HibernateCriteriaBuilder cb = mock(HibernateCriteriaBuilder.class, RETURNS_DEEP_STUBS);
+        Root<Object> root = mock(Root.class);
+        CriteriaQuery<?> query = mock(CriteriaQuery.class);
+
+        spec.toPredicate(root, query, cb);
+
+        verify(cb).value("+belden* +cab*");
+        verify(cb, never()).literal(any());
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.warehouse_inventory.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import com.example.warehouse_inventory.entity.StockMovementType;
+import com.example.warehouse_inventory.exception.InvalidRequestException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+class KeysetCursorTest {
+
+    @Test
+    void roundTripsSortKeysOfEveryType() {
+        Instant createdAt = Instant.parse("2026-03-01T10:15:30Z");
+        KeysetCursor cursor = KeysetCursor.decode(
+                KeysetCursor.of("createdAt", Sort.Direction.DESC, createdAt, 42).encode());
+
+        assertThat(cursor).isEqualTo(new KeysetCursor("createdAt", Sort.Direction.DESC, createdAt.toString(), 42L));
+        assertThat(cursor.typedValue(Instant.class)).isEqualTo(createdAt);
+
+        KeysetCursor decimal = KeysetCursor.decode(
+                KeysetCursor.of("price", Sort.Direction.ASC, new BigDecimal("1E+3"), 7L).encode());
+        assertThat(decimal.value()).isEqualTo("1000");
+        assertThat(decimal.typedValue(BigDecimal.class)).isEqualTo(new BigDecimal("1000"));
+
+        KeysetCursor type = KeysetCursor.decode(
+                KeysetCursor.of("movementType", Sort.Direction.ASC, StockMovementType.OUT, 3L).encode());
+        assertThat(type.typedValue(StockMovementType.class)).isEqualTo(StockMovementType.OUT);
+    }
+
+    @Test
+    void keepsNullSortKeys() {
+        KeysetCursor cursor = KeysetCursor.decode(KeysetCursor.of("name", Sort.Direction.ASC, null, 5L).encode());
+
+        assertThat(cursor.value()).isNull();
+        assertThat(cursor.typedValue(String.class)).isNull();
+        assertThat(cursor.id()).isEqualTo(5L);
+    }
+
+    @Test
+    void rejectsCursorForAnotherSort() {
+        KeysetCursor cursor = KeysetCursor.decode(
+                KeysetCursor.of("createdAt", Sort.Direction.DESC, "2026-03-01T10:15:30Z", 42L).encode());
+
+        assertThatCode(() -> cursor.requireSort("createdAt", Sort.Direction.DESC)).doesNotThrowAnyException();
+        assertThatThrownBy(() -> cursor.requireSort("createdAt", Sort.Direction.ASC))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessage("Cursor does not match sort");
+        assertThatThrownBy(() -> cursor.requireSort("id", Sort.Direction.DESC))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessage("Cursor does not match sort");
+    }
+
+    @Test
+    void rejectsCursorWithoutSort() {
+        String legacy = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"v\":\"a\",\"id\":1}".getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> KeysetCursor.decode(legacy).requireSort("name", Sort.Direction.ASC))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessage("Cursor does not match sort");
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        String noId = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"s\":\"id\",\"d\":\"ASC\"}".getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> KeysetCursor.decode("not a cursor!"))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessage("Invalid cursor");
+        assertThatThrownBy(() -> KeysetCursor.decode(noId))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessage("Invalid cursor");
+        assertThatThrownBy(() -> new KeysetCursor("id", Sort.Direction.ASC, "abc", 1L).typedValue(Long.class))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessage("Invalid cursor");
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.warehouse_inventory.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.warehouse_inventory.entity.StockMovementType;
+
+class KeysetPagerTest {
+
+    @Test
+    void seeksEnumKeysInDeclarationOrder() {
+        // ORDER BY movement_type sorts IN, OUT, ADJUST; as text ADJUST would come first.
+        assertThat(KeysetPager.constantsAfter(StockMovementType.IN, true))
+                .containsExactly(StockMovementType.OUT, StockMovementType.ADJUST);
+        assertThat(KeysetPager.constantsAfter(StockMovementType.OUT, true))
+                .containsExactly(StockMovementType.ADJUST);
+        assertThat(KeysetPager.constantsAfter(StockMovementType.ADJUST, true)).isEmpty();
+
+        assertThat(KeysetPager.constantsAfter(StockMovementType.ADJUST, false))
+                .containsExactly(StockMovementType.IN, StockMovementType.OUT);
+        assertThat(KeysetPager.constantsAfter(StockMovementType.IN, false)).isEmpty();
+    }
+}